@@ -0,0 +1,126 @@
+package org.acme.sat.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.batch.ContactPlanBatchApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the same generated problems with one {@link ContactPlanApp} JVM per problem, at most parallelism JVMs at a
+ * time, then with {@link ContactPlanBatchApp} in this JVM, and reports the throughput of both in plans per minute:
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.BatchThroughputApp -DbatchThroughput.plans=16
+ * </pre>
+ * Each of the batchThroughput.plans problems has batchThroughput.size requests (300 by default), sized by
+ * {@link ScenarioGenerator#forRequestCount(int)}, and is written to local/batchThroughput. Both modes end each
+ * solve at its best score bound or after 10 s, the spent limit of {@link ContactPlanApp}. Also configured by the
+ * batchThroughput.parallelism (the available processors by default) and batchThroughput.seed system properties.
+ */
+public class BatchThroughputApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchThroughputApp.class);
+    private static final Duration SPENT_LIMIT = Duration.ofSeconds(10);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkDriver driver = new BenchmarkDriver("batchThroughput", "mode | plans | wall time (s) | plans/min");
+        int planCount = driver.getInt("plans", 16);
+        int size = driver.getInt("size", 300);
+        int parallelism = driver.getInt("parallelism", Runtime.getRuntime().availableProcessors());
+        long seed = driver.getSeed();
+
+        List<Path> problemDirectories = new ArrayList<>(planCount);
+        for (int i = 0; i < planCount; i++) {
+            Path directory = Paths.get("local", "batchThroughput", String.format("team%03d", i));
+            Files.createDirectories(directory);
+            ContactPlan problem = ScenarioGenerator.forRequestCount(size).withSeed(seed + i).generate();
+            ScenarioGenerator.write(problem, directory.resolve(ContactPlanBatchApp.VISIBILITIES_FILE),
+                    directory.resolve(ContactPlanBatchApp.CONTACT_REQUESTS_FILE));
+            problemDirectories.add(directory);
+        }
+
+        long start = System.nanoTime();
+        int solvedCount = solveInProcesses(problemDirectories, parallelism);
+        driver.addRow("one JVM per plan", toReportLine(solvedCount, System.nanoTime() - start));
+        start = System.nanoTime();
+        solvedCount = ContactPlanBatchApp.solve(problemDirectories, ContactPlanApp.buildSolverConfig(), parallelism,
+                SPENT_LIMIT);
+        driver.addRow("batch", toReportLine(solvedCount, System.nanoTime() - start));
+        driver.log(LOGGER, "Throughput of " + planCount + " plans of " + size + " requests, " + parallelism
+                + " at a time");
+    }
+
+    private static String toReportLine(int solvedCount, long nanos) {
+        double minutes = nanos / 60e9;
+        return String.format("%d | %.1f | %.1f", solvedCount, minutes * 60, solvedCount / minutes);
+    }
+
+    // Each ContactPlanApp JVM runs in the directory of its problem, where it writes its outputs
+    private static int solveInProcesses(List<Path> problemDirectories, int parallelism) throws InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = classpath();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Integer>> exitCodes = new ArrayList<>(problemDirectories.size());
+            for (Path directory : problemDirectories) {
+                ProcessBuilder processBuilder = new ProcessBuilder(java, "-cp", classpath,
+                        "-Dvisibilities=" + ContactPlanBatchApp.VISIBILITIES_FILE,
+                        "-DcontactRequests=" + ContactPlanBatchApp.CONTACT_REQUESTS_FILE,
+                        ContactPlanApp.class.getName())
+                        .directory(directory.toFile())
+                        .redirectErrorStream(true)
+                        .redirectOutput(directory.resolve("process.log").toFile());
+                exitCodes.add(executor.submit(() -> processBuilder.start().waitFor()));
+            }
+            int solvedCount = 0;
+            for (int i = 0; i < exitCodes.size(); i++) {
+                try {
+                    if (exitCodes.get(i).get() == 0) {
+                        solvedCount++;
+                    } else {
+                        LOGGER.error("Unable to plan " + problemDirectories.get(i) + ", see its process.log");
+                    }
+                } catch (ExecutionException e) {
+                    LOGGER.error("Unable to start the JVM of " + problemDirectories.get(i), e.getCause());
+                }
+            }
+            return solvedCount;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // exec:java loads the application in a class loader of its own, the JVM class path is Maven's
+    private static String classpath() {
+        ClassLoader classLoader = BatchThroughputApp.class.getClassLoader();
+        if (!(classLoader instanceof URLClassLoader)) {
+            return System.getProperty("java.class.path");
+        }
+        List<String> entries = new ArrayList<>();
+        for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+            try {
+                entries.add(Paths.get(url.toURI()).toAbsolutePath().toString());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Unexpected class path entry " + url, e);
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+}
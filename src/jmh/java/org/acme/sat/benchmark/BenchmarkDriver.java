@@ -0,0 +1,96 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+
+/**
+ * The parameters and the report shared by the measurement drivers of this package. A driver reads its system
+ * properties under a prefix of its own (prefix.size, prefix.seed, prefix.secondsSpentLimit...), generates its
+ * problems with {@link ScenarioGenerator} and logs a table of one row per variant it measures.
+ */
+final class BenchmarkDriver {
+
+    private final String prefix;
+    private final StringBuilder report;
+
+    /**
+     * @param header the columns of the report, separated by " | "
+     */
+    BenchmarkDriver(String prefix, String header) {
+        this.prefix = prefix;
+        this.report = new StringBuilder(header);
+    }
+
+    int getInt(String name, int defaultValue) {
+        return Integer.getInteger(prefix + "." + name, defaultValue);
+    }
+
+    long getLong(String name, long defaultValue) {
+        return Long.getLong(prefix + "." + name, defaultValue);
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = System.getProperty(prefix + "." + name);
+        return value == null ? defaultValue : Double.parseDouble(value.trim());
+    }
+
+    /**
+     * @return the comma separated values of the property, trimmed
+     */
+    List<String> getList(String name, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : System.getProperty(prefix + "." + name, defaultValue).split(",")) {
+            values.add(value.trim());
+        }
+        return values;
+    }
+
+    long getSeed() {
+        return getLong("seed", 0);
+    }
+
+    Duration getSpentLimit(long defaultSeconds) {
+        return Duration.ofSeconds(getLong("secondsSpentLimit", defaultSeconds));
+    }
+
+    /**
+     * @return the generator of {@link ScenarioGenerator#forRequestCount(int)}, seeded by prefix.seed
+     */
+    ScenarioGenerator generator(int size) {
+        return ScenarioGenerator.forRequestCount(size).withSeed(getSeed());
+    }
+
+    /**
+     * @return the generator of {@link #generator(int)}, with oversubscription requests per pass instead of size
+     * requests
+     */
+    ScenarioGenerator generator(int size, double oversubscription) {
+        return generator(size).withRequestCount(null).withOversubscription(oversubscription);
+    }
+
+    /**
+     * Solves the problem and reports it in a row, after the label.
+     */
+    SolveMeasurement measure(String label, SolverConfig solverConfig, ContactPlan problem) {
+        SolveMeasurement measurement = SolveMeasurement.solve(solverConfig, problem);
+        addRow(label, measurement.toReportLine());
+        return measurement;
+    }
+
+    void addRow(Object... cells) {
+        report.append(System.lineSeparator());
+        for (int i = 0; i < cells.length; i++) {
+            report.append(i == 0 ? "" : " | ").append(cells[i]);
+        }
+    }
+
+    void log(Logger logger, String title) {
+        logger.info(title + ":" + System.lineSeparator() + report);
+    }
+}
@@ -0,0 +1,60 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.acme.sat.solver.GreedyConstructionPhaseCommand;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the construction of an initial plan by the default construction heuristic and by
+ * {@link GreedyConstructionPhaseCommand}, on generated problems of increasing size: the time spent and the score
+ * of the plan, uninitialized if the construction heuristic did not finish within the spent limit.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.ConstructionComparisonApp -Dconstruction.sizes=2000,20000
+ * </pre>
+ * Configured by the construction.sizes (requests, comma separated), construction.oversubscription,
+ * construction.seed and construction.secondsSpentLimit system properties.
+ */
+public class ConstructionComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConstructionComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("construction", "requests | construction | time (ms) | score");
+        double oversubscription = driver.getDouble("oversubscription", 0);
+        Duration spentLimit = driver.getSpentLimit(30);
+
+        for (String size : driver.getList("sizes", "2000,20000")) {
+            ScenarioGenerator generator = oversubscription > 0
+                    ? driver.generator(Integer.parseInt(size), oversubscription)
+                    : driver.generator(Integer.parseInt(size));
+            // Same seed, same problem for both
+            int requestCount = generator.generate().getContactRequests().size();
+            driver.addRow(requestCount, "default", construct(ContactPlanApp.buildSolverConfig()
+                    .withPhases(new ConstructionHeuristicPhaseConfig()), spentLimit, generator.generate()));
+            driver.addRow(requestCount, "greedy", construct(ContactPlanApp.buildSolverConfig()
+                    .withPhases(new CustomPhaseConfig()
+                            .withCustomPhaseCommandClassList(List.of(GreedyConstructionPhaseCommand.class))),
+                    spentLimit, generator.generate()));
+        }
+        driver.log(LOGGER, "Construction of the initial plan");
+    }
+
+    private static String construct(SolverConfig solverConfig, Duration spentLimit, ContactPlan problem) {
+        Solver<ContactPlan> solver = SolverFactory.<ContactPlan>create(solverConfig.withTerminationSpentLimit(spentLimit))
+                .buildSolver();
+        long start = System.nanoTime();
+        ContactPlan plan = solver.solve(problem);
+        return Duration.ofNanos(System.nanoTime() - start).toMillis() + " | " + plan.getScore();
+    }
+}
@@ -0,0 +1,49 @@
+package org.acme.sat.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+import org.optaplanner.benchmark.config.PlannerBenchmarkConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the solver configurations of contactPlanBenchmarkConfig.xml on generated problems and writes
+ * the HTML benchmark report:
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.ContactPlanBenchmarkApp
+ * </pre>
+ * The problems are generated by {@link ScenarioGenerator#forRequestCount(int)} for each size of the
+ * benchmark.sizes system property (comma separated request counts). The benchmark.secondsSpentLimit
+ * system property overrides the time spent on each problem by each configuration.
+ */
+public class ContactPlanBenchmarkApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanBenchmarkApp.class);
+    private static final String BENCHMARK_CONFIG = "org/acme/sat/benchmark/contactPlanBenchmarkConfig.xml";
+
+    public static void main(String[] args) {
+        PlannerBenchmarkConfig benchmarkConfig = PlannerBenchmarkConfig.createFromXmlResource(BENCHMARK_CONFIG);
+        Long secondsSpentLimit = Long.getLong("benchmark.secondsSpentLimit");
+        if (secondsSpentLimit != null) {
+            benchmarkConfig.getInheritedSolverBenchmarkConfig().getSolverConfig()
+                    .setTerminationConfig(new TerminationConfig().withSecondsSpentLimit(secondsSpentLimit));
+        }
+
+        long seed = Long.getLong("benchmark.seed", 0);
+        List<ContactPlan> problems = new ArrayList<>();
+        for (String size : System.getProperty("benchmark.sizes", "200,1000,5000").split(",")) {
+            problems.add(ScenarioGenerator.forRequestCount(Integer.parseInt(size.trim())).withSeed(seed).generate());
+        }
+
+        PlannerBenchmark benchmark = PlannerBenchmarkFactory.create(benchmarkConfig).buildPlannerBenchmark(problems);
+        File reportDirectory = benchmark.benchmark();
+        LOGGER.info("Benchmark report in " + reportDirectory.getAbsolutePath());
+    }
+}
@@ -0,0 +1,58 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.acme.sat.solver.ContactPlanDecomposer;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the same generated multi-region problem with a single solver, then decomposed into its independent
+ * components on an increasing number of threads, and reports the wall clock time, solver builds included, and the
+ * best score of each. Every solve ends at its best score bound or at the spent limit.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.DecompositionComparisonApp -Ddecomposition.size=8000
+ * </pre>
+ * The problem is sized by {@link ScenarioGenerator#forRequestCount(int, int)} for decomposition.size requests over
+ * decomposition.regions regions (8 by default). Also configured by the decomposition.threadCounts (comma
+ * separated), decomposition.oversubscription, decomposition.seed and decomposition.secondsSpentLimit system
+ * properties.
+ */
+public class DecompositionComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecompositionComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("decomposition", "threads | wall time (ms) | best score");
+        int size = driver.getInt("size", 8000);
+        int regionCount = driver.getInt("regions", 8);
+        double oversubscription = driver.getDouble("oversubscription", 0.8);
+        Duration spentLimit = driver.getSpentLimit(60);
+
+        ContactPlan problem = ScenarioGenerator.forRequestCount(size, regionCount).withRequestCount(null)
+                .withOversubscription(oversubscription).withSeed(driver.getSeed()).generate();
+        int componentCount = ContactPlanDecomposer.decompose(problem).size();
+
+        SolverConfig singleConfig = ContactPlanApp.buildSolverConfig().withTerminationSpentLimit(spentLimit);
+        singleConfig.getTerminationConfig()
+                .setBestScoreLimit(FeasibilityAnalysis.analyze(problem).getBestScoreBound().toString());
+        long start = System.nanoTime();
+        ContactPlan single = SolverFactory.<ContactPlan>create(singleConfig).buildSolver().solve(problem);
+        driver.addRow("single solver", (System.nanoTime() - start) / 1_000_000, single.getScore());
+        for (String threadCount : driver.getList("threadCounts", "1,2,4,8")) {
+            int threads = Integer.parseInt(threadCount);
+            start = System.nanoTime();
+            ContactPlan decomposed = new ContactPlanDecomposer(ContactPlanApp.buildSolverConfig(), threads)
+                    .solve(problem, spentLimit);
+            driver.addRow(threads, (System.nanoTime() - start) / 1_000_000, decomposed.getScore());
+        }
+        driver.log(LOGGER, "Decomposition of " + problem.getContactRequests().size() + " requests in "
+                + componentCount + " components");
+    }
+}
@@ -0,0 +1,71 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the default local search moves with those of {@link ContactPlanApp#buildDomainLocalSearchPhase()}
+ * on the same generated problem, both starting from the same construction heuristic solution: moves evaluated
+ * per second, moves accepted per second per move type, best solution changes and time to the best solution.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.MoveSelectorComparisonApp -Dmoves.size=500
+ * </pre>
+ * The problem is sized by {@link org.acme.sat.generator.ScenarioGenerator#forRequestCount(int)} for moves.size
+ * requests, with moves.oversubscription requests per pass instead (0.95 by default, tight enough to leave conflicts
+ * to the local search). Also configured by the moves.seed and moves.secondsSpentLimit system properties.
+ */
+public class MoveSelectorComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoveSelectorComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("moves", "moves | " + SolveMeasurement.REPORT_HEADER);
+        int size = driver.getInt("size", 500);
+        double oversubscription = driver.getDouble("oversubscription", 0.95);
+        Duration spentLimit = driver.getSpentLimit(30);
+
+        // Both local searches start from the same construction heuristic solution
+        ContactPlan problem = driver.generator(size, oversubscription).generate();
+        SolverConfig constructionConfig = ContactPlanApp.buildSolverConfig()
+                .withPhases(new ConstructionHeuristicPhaseConfig())
+                .withTerminationConfig(new TerminationConfig());
+        ContactPlan initialized = SolveMeasurement.solve(constructionConfig, problem).getBestSolution();
+
+        driver.measure("default", buildLocalSearchConfig(ContactPlanApp.buildLocalSearchPhase(), spentLimit),
+                copy(initialized));
+        driver.measure("domain", buildLocalSearchConfig(ContactPlanApp.buildDomainLocalSearchPhase(), spentLimit),
+                copy(initialized));
+        driver.log(LOGGER, "Local search moves for " + initialized.getContactRequests().size() + " requests, from "
+                + initialized.getScore());
+    }
+
+    private static SolverConfig buildLocalSearchConfig(LocalSearchPhaseConfig localSearchPhaseConfig,
+            Duration spentLimit) {
+        return ContactPlanApp.buildSolverConfig()
+                .withPhases(localSearchPhaseConfig)
+                .withTerminationSpentLimit(spentLimit);
+    }
+
+    // Fresh entities with the same assignment, solving does not change the initialized plan
+    private static ContactPlan copy(ContactPlan plan) {
+        List<ContactRequest> contactRequests = new ArrayList<>(plan.getContactRequests().size());
+        for (ContactRequest original : plan.getContactRequests()) {
+            ContactRequest cr = new ContactRequest(original.getId(), original.getSatellite(), original.getDurationMillis());
+            cr.setVisibility(original.getVisibility());
+            cr.setStartOffset(original.getStartOffset());
+            contactRequests.add(cr);
+        }
+        return new ContactPlan(plan.getVisibilities(), contactRequests, plan);
+    }
+}
@@ -0,0 +1,36 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+
+import org.acme.sat.ContactPlanApp;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the same generated problem with an increasing number of move threads and reports, for each,
+ * the moves evaluated per second and the time to the first feasible solution:
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.MoveThreadScalingApp -Dscaling.size=10000
+ * </pre>
+ * Configured by the scaling.moveThreadCounts (comma separated, 1 meaning no move thread), scaling.size
+ * (requests), scaling.seed and scaling.secondsSpentLimit system properties.
+ */
+public class MoveThreadScalingApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MoveThreadScalingApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("scaling", "move threads | " + SolveMeasurement.REPORT_HEADER);
+        int size = driver.getInt("size", 10_000);
+        Duration spentLimit = driver.getSpentLimit(60);
+
+        for (String moveThreadCount : driver.getList("moveThreadCounts", "1,2,4,8,16")) {
+            SolverConfig solverConfig = ContactPlanApp.buildSolverConfig()
+                    .withTerminationSpentLimit(spentLimit)
+                    .withMoveThreadCount("1".equals(moveThreadCount) ? SolverConfig.MOVE_THREAD_COUNT_NONE : moveThreadCount);
+            driver.measure(moveThreadCount, solverConfig, driver.generator(size).generate());
+        }
+        driver.log(LOGGER, "Move thread scaling for " + size + " requests");
+    }
+}
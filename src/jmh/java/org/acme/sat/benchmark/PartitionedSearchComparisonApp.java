@@ -0,0 +1,47 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the same generated problem without partitions and with an increasing number of satellite partitions,
+ * and reports the moves evaluated per second and the wall clock time to the first feasible solution of each:
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.PartitionedSearchComparisonApp -Dpartitioning.size=20000
+ * </pre>
+ * Configured by the partitioning.partitionCounts (comma separated, 1 meaning no partitioned search),
+ * partitioning.size (requests), partitioning.horizonDays, partitioning.seed and partitioning.secondsSpentLimit
+ * system properties. Partitioned solves spend half of the time in the partitioned search phase.
+ */
+public class PartitionedSearchComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedSearchComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("partitioning", "partitions | " + SolveMeasurement.REPORT_HEADER);
+        int size = driver.getInt("size", 20_000);
+        Duration spentLimit = driver.getSpentLimit(120);
+
+        for (String partitionCount : driver.getList("partitionCounts", "1,2,4,8")) {
+            int parts = Integer.parseInt(partitionCount);
+            SolverConfig solverConfig = ContactPlanApp.buildSolverConfig().withTerminationSpentLimit(spentLimit);
+            if (parts > 1) {
+                solverConfig.setPhaseConfigList(ContactPlanApp.buildPartitionedPhases(parts, spentLimit.dividedBy(2)));
+            } else {
+                solverConfig.setPhaseConfigList(ContactPlanApp.buildDefaultPhases());
+            }
+            ScenarioGenerator generator = driver.generator(size);
+            long horizonDays = driver.getLong("horizonDays", 0);
+            if (horizonDays > 0) {
+                generator.withHorizon(Duration.ofDays(horizonDays));
+            }
+            driver.measure(partitionCount, solverConfig, generator.generate());
+        }
+        driver.log(LOGGER, "Partitioned search for " + size + " requests");
+    }
+}
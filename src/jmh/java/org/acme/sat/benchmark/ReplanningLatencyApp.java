@@ -0,0 +1,112 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.realtime.ContactPlanChanges;
+import org.acme.sat.realtime.ContactPlanDaemon;
+import org.acme.sat.realtime.ContactPlanReplanner;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the replanning latency of {@link ContactPlanReplanner}: the time from a change to the first feasible
+ * best plan in which the requests it left unassigned are assigned again, or to the last best plan, the changes not
+ * replanned into a feasible plan being counted apart. Once a generated problem is solved, changes are submitted one
+ * at a time, each once the previous one is replanned: alternately adding one of the requests held back from the
+ * problem, removing a request and retracting an assigned visibility.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.ReplanningLatencyApp -Dreplanning.size=1000
+ * </pre>
+ * Configured by the replanning.size (requests), replanning.changes, replanning.seed and
+ * replanning.secondsTimeout (per change) system properties, the solver by those of {@link ContactPlanDaemon}.
+ */
+public class ReplanningLatencyApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplanningLatencyApp.class);
+
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkDriver driver = new BenchmarkDriver("replanning", "min | median | p90 | max | infeasible");
+        int size = driver.getInt("size", 1000);
+        int changeCount = driver.getInt("changes", 30);
+        long seed = driver.getSeed();
+        long secondsTimeout = driver.getLong("secondsTimeout", 30);
+
+        ContactPlan generated = driver.generator(size).generate();
+        List<ContactRequest> heldBack = new ArrayList<>(generated.getContactRequests().subList(0, changeCount / 3 + 1));
+        ContactPlan problem = new ContactPlan(generated.getVisibilities(),
+                new ArrayList<>(generated.getContactRequests().subList(heldBack.size(), size)), generated);
+
+        // The latency of each change, empty for a change not replanned into a feasible plan
+        BlockingQueue<Optional<Duration>> latencies = new LinkedBlockingQueue<>();
+        Random random = new Random(seed);
+        try (ContactPlanReplanner replanner = new ContactPlanReplanner(ContactPlanDaemon.buildSolverConfig(), plan -> {})) {
+            replanner.setLatencyListener(latency -> latencies.add(Optional.of(latency)));
+            replanner.setInfeasibleListener(timeSpent -> latencies.add(Optional.empty()));
+            replanner.start(problem);
+            Optional<Duration> initial = latencies.poll(secondsTimeout * 10, TimeUnit.SECONDS);
+            if (initial == null || initial.isEmpty()) {
+                LOGGER.error("No feasible plan for the initial problem within " + secondsTimeout * 10 + " s");
+                return;
+            }
+            LOGGER.info("Initial plan in " + initial.get().toMillis() + " ms");
+
+            List<Long> millis = new ArrayList<>();
+            int infeasibleCount = 0;
+            for (int i = 0; i < changeCount; i++) {
+                replanner.submit(List.of(nextChange(i, replanner.getBestPlan(), heldBack, random)));
+                Optional<Duration> latency = latencies.poll(secondsTimeout, TimeUnit.SECONDS);
+                if (latency == null) {
+                    LOGGER.warn("Change " + i + " not replanned within " + secondsTimeout + " s");
+                    break;
+                }
+                if (latency.isPresent()) {
+                    millis.add(latency.get().toMillis());
+                } else {
+                    infeasibleCount++;
+                }
+            }
+            if (!millis.isEmpty()) {
+                Collections.sort(millis);
+                driver.addRow(millis.get(0), millis.get(millis.size() / 2), millis.get(millis.size() * 9 / 10),
+                        millis.get(millis.size() - 1), infeasibleCount);
+                driver.log(LOGGER, "Replanning latency for " + size + " requests over " + millis.size()
+                        + " changes (ms)");
+            }
+        }
+    }
+
+    private static ProblemFactChange<ContactPlan> nextChange(int i, ContactPlan bestPlan, List<ContactRequest> heldBack,
+            Random random) {
+        List<ContactRequest> contactRequests = bestPlan.getContactRequests();
+        switch (i % 3) {
+            case 0:
+                return ContactPlanChanges.addContactRequest(heldBack.remove(heldBack.size() - 1));
+            case 1:
+                return ContactPlanChanges.removeContactRequest(
+                        contactRequests.get(random.nextInt(contactRequests.size())).getId());
+            default:
+                List<Visibility> assignedVisibilities = contactRequests.stream().map(ContactRequest::getVisibility)
+                        .filter(Objects::nonNull).collect(Collectors.toList());
+                if (assignedVisibilities.isEmpty()) {
+                    return ContactPlanChanges.removeContactRequest(
+                            contactRequests.get(random.nextInt(contactRequests.size())).getId());
+                }
+                Visibility visibility = assignedVisibilities.get(random.nextInt(assignedVisibilities.size()));
+                return ContactPlanChanges.retractVisibility(visibility.getId());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.acme.sat.solver.RollingHorizonSolver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the same generated multi-week problem over its full horizon with a single solver, then with the
+ * {@link RollingHorizonSolver}, and reports the solve time of each window, and the wall clock time, solver builds
+ * included, and the plan quality of both: the score of the whole plan and its requests assigned without hard
+ * conflict.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.RollingHorizonComparisonApp -Drolling.days=21
+ * </pre>
+ * The satellites and antennas are sized by {@link org.acme.sat.generator.ScenarioGenerator#forRequestCount(int)}
+ * for rolling.size requests (2000 by default), over rolling.days days (21 by default) at rolling.oversubscription
+ * requests per pass (0.5 by default). Also configured by the rolling.lookaheadHours (48), rolling.stepHours (24),
+ * rolling.seed, rolling.secondsSpentLimit (the full horizon solve, 300 by default) and
+ * rolling.stepSecondsSpentLimit (each window, 10 by default) system properties.
+ */
+public class RollingHorizonComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RollingHorizonComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("rolling",
+                "horizon | wall time (ms) | best score | requests without conflict");
+        int size = driver.getInt("size", 2000);
+        int days = driver.getInt("days", 21);
+        double oversubscription = driver.getDouble("oversubscription", 0.5);
+        Duration lookahead = Duration.ofHours(driver.getLong("lookaheadHours", 48));
+        Duration step = Duration.ofHours(driver.getLong("stepHours", 24));
+        Duration spentLimit = driver.getSpentLimit(300);
+        Duration stepSpentLimit = Duration.ofSeconds(driver.getLong("stepSecondsSpentLimit", 10));
+
+        ContactPlan problem = driver.generator(size, oversubscription).withHorizon(Duration.ofDays(days)).generate();
+        SolverFactory<ContactPlan> scoringFactory = SolverFactory.create(ContactPlanApp.buildSolverConfig());
+
+        SolverConfig fullConfig = ContactPlanApp.buildSolverConfig().withTerminationSpentLimit(spentLimit);
+        fullConfig.getTerminationConfig()
+                .setBestScoreLimit(FeasibilityAnalysis.analyze(problem).getBestScoreBound().toString());
+        long start = System.nanoTime();
+        ContactPlan full = SolverFactory.<ContactPlan>create(fullConfig).buildSolver().solve(problem);
+        driver.addRow("full", (System.nanoTime() - start) / 1_000_000, quality(scoringFactory, full));
+
+        RollingHorizonSolver rollingHorizonSolver = new RollingHorizonSolver(ContactPlanApp.buildSolverConfig(),
+                lookahead, step);
+        start = System.nanoTime();
+        ContactPlan rolling = rollingHorizonSolver.solve(problem, stepSpentLimit);
+        driver.addRow("rolling", (System.nanoTime() - start) / 1_000_000, quality(scoringFactory, rolling));
+
+        BenchmarkDriver stepReport = new BenchmarkDriver("rolling",
+                "window start | visibilities | admitted | committed | solve time (ms) | best score");
+        for (RollingHorizonSolver.Step windowStep : rollingHorizonSolver.getSteps()) {
+            stepReport.addRow(windowStep.getWindowStart(), windowStep.getVisibilityCount(),
+                    windowStep.getAdmittedCount(), windowStep.getCommittedCount(), windowStep.getSolveMillis(),
+                    windowStep.getScore());
+        }
+        stepReport.log(LOGGER, "Rolling horizon of " + lookahead.toHours() + "h by steps of " + step.toHours() + "h");
+        driver.log(LOGGER, problem.getContactRequests().size() + " requests and " + problem.getVisibilities().size()
+                + " visibilities over " + days + " days");
+    }
+
+    private static String quality(SolverFactory<ContactPlan> scoringFactory, ContactPlan plan) {
+        PlanExplanation explanation = PlanExplanation.explain(scoringFactory, plan, 0);
+        long withoutConflict = 0;
+        for (ContactRequest cr : plan.getContactRequests()) {
+            if (cr.getVisibility() != null && !explanation.isHardPenalized(cr)) {
+                withoutConflict++;
+            }
+        }
+        return explanation.getScore() + " | " + withoutConflict;
+    }
+}
@@ -0,0 +1,112 @@
+package org.acme.sat.benchmark;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.telemetry.SolverTelemetry;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.monitoring.SolverMetric;
+
+/**
+ * Moves evaluated and accepted per second, best solution changes, wall clock time to the first feasible and to the
+ * best solution, and best score of one solve.
+ * <p>
+ * Each evaluated move is one score calculation, read from the score calculation count gauge the solver registers
+ * in the Micrometer global registry for the time of a solve, the move and partition threads included. The solves
+ * measured must not overlap. The accepted moves are counted per move type by a {@link SolverTelemetry}, in the
+ * local search phases without move threads only.
+ */
+final class SolveMeasurement {
+    static final String REPORT_HEADER = "moves/s | accepted moves/s | best solution changes | time to feasible (ms)"
+            + " | time to best (ms) | best score";
+
+    private final long movesPerSecond;
+    // By move type
+    private final Map<String, Long> acceptedMovesPerSecond;
+    private final long bestSolutionChangeCount;
+    private final long timeToFeasible;
+    private final long timeToBest;
+    private final ContactPlan bestSolution;
+
+    private SolveMeasurement(long movesPerSecond, Map<String, Long> acceptedMovesPerSecond,
+            long bestSolutionChangeCount, long timeToFeasible, long timeToBest, ContactPlan bestSolution) {
+        this.movesPerSecond = movesPerSecond;
+        this.acceptedMovesPerSecond = acceptedMovesPerSecond;
+        this.bestSolutionChangeCount = bestSolutionChangeCount;
+        this.timeToFeasible = timeToFeasible;
+        this.timeToBest = timeToBest;
+        this.bestSolution = bestSolution;
+    }
+
+    static SolveMeasurement solve(SolverConfig solverConfig, ContactPlan problem) {
+        Solver<ContactPlan> solver = SolverFactory.<ContactPlan>create(solverConfig).buildSolver();
+        AtomicLong timeToFeasible = new AtomicLong(-1);
+        AtomicLong timeToBest = new AtomicLong(-1);
+        AtomicLong bestSolutionChangeCount = new AtomicLong();
+        solver.addEventListener(event -> {
+            if (timeToFeasible.get() < 0 && event.getNewBestScore().isFeasible()) {
+                timeToFeasible.set(event.getTimeMillisSpent());
+            }
+            timeToBest.set(event.getTimeMillisSpent());
+            bestSolutionChangeCount.incrementAndGet();
+        });
+        // The gauge is removed from the registry at the end of the solve, but still reads the count of its solver
+        AtomicReference<Gauge> scoreCalculationCount = new AtomicReference<>();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().onMeterAdded(meter -> {
+            if (meter instanceof Gauge
+                    && meter.getId().getName().equals(SolverMetric.SCORE_CALCULATION_COUNT.getMeterId())) {
+                scoreCalculationCount.set((Gauge) meter);
+            }
+        });
+        Metrics.addRegistry(registry);
+        SolverTelemetry telemetry = new SolverTelemetry("SolveMeasurement", null);
+        telemetry.attach(solver);
+        long start = System.nanoTime();
+        ContactPlan solution;
+        try {
+            solution = solver.solve(problem);
+        } finally {
+            Metrics.removeRegistry(registry);
+            telemetry.close();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        Gauge gauge = scoreCalculationCount.get();
+        long movesPerSecond = gauge == null ? 0 : (long) (gauge.value() * 1000 / millis);
+        Map<String, Long> acceptedMovesPerSecond = new TreeMap<>();
+        telemetry.getAcceptedMoveCounts()
+                .forEach((type, count) -> acceptedMovesPerSecond.put(type, count * 1000 / millis));
+        return new SolveMeasurement(movesPerSecond, acceptedMovesPerSecond, bestSolutionChangeCount.get(),
+                timeToFeasible.get(), timeToBest.get(), solution);
+    }
+
+    ContactPlan getBestSolution() {
+        return bestSolution;
+    }
+
+    String toReportLine() {
+        return movesPerSecond + " | " + acceptedMovesReport() + " | " + bestSolutionChangeCount
+                + " | " + (timeToFeasible < 0 ? "never" : Long.toString(timeToFeasible))
+                + " | " + timeToBest + " | " + bestSolution.getScore();
+    }
+
+    // The total then the rate of each move type, not counted with move threads
+    private String acceptedMovesReport() {
+        if (acceptedMovesPerSecond.isEmpty()) {
+            return "not counted";
+        }
+        long total = acceptedMovesPerSecond.values().stream().mapToLong(Long::longValue).sum();
+        return total + acceptedMovesPerSecond.entrySet().stream()
+                .map(typeRate -> typeRate.getKey() + " " + typeRate.getValue())
+                .collect(Collectors.joining(", ", " (", ")"));
+    }
+}
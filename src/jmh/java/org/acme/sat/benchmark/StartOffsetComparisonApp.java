@@ -0,0 +1,99 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.acme.sat.solver.GreedyConstructionPhaseCommand;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.value.ValueSelectorConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the same generated problem with each contact starting with its pass, the visibility being the only
+ * planning variable, then with the start offsets, and reports the convergence of both (time to the best plan and its
+ * score) and the contacts they fit: the requests served without conflict, per antenna-hour of the horizon, and the
+ * share of the antenna time in contact.
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.StartOffsetComparisonApp -Doffset.size=2000
+ * </pre>
+ * The satellites and antennas are sized by {@link org.acme.sat.generator.ScenarioGenerator#forRequestCount(int)}
+ * for offset.size requests (2000 by default), at offset.oversubscription requests per pass (2.0 by default), so
+ * that the passes are contended. The antenna-hours run from the start of the first pass to the end of the last.
+ * Also configured by the offset.seed and offset.secondsSpentLimit (each solve, 60 by default) system properties,
+ * each solve ending earlier once it reaches the bound of {@link FeasibilityAnalysis}.
+ */
+public class StartOffsetComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartOffsetComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("offset", "start offsets | " + SolveMeasurement.REPORT_HEADER
+                + " | served without conflict | contacts per antenna-hour | antenna time in contact");
+        int size = driver.getInt("size", 2000);
+        double oversubscription = driver.getDouble("oversubscription", 2.0);
+        Duration spentLimit = driver.getSpentLimit(60);
+
+        ContactPlan problem = driver.generator(size, oversubscription).generate();
+        String bound = FeasibilityAnalysis.analyze(problem).getBestScoreBound().toString();
+        SolverFactory<ContactPlan> scoringFactory = SolverFactory.create(ContactPlanApp.buildSolverConfig());
+        long antennaCount = problem.getVisibilities().stream().map(Visibility::getAntenna).distinct().count();
+        // From the first pass to the end of the last
+        long horizonMillis = problem.getVisibilities().stream().mapToLong(Visibility::getToMillis).max().orElse(0)
+                - problem.getVisibilities().stream().mapToLong(Visibility::getFromMillis).min().orElse(0);
+        double antennaHours = antennaCount * horizonMillis / 3_600_000.0;
+
+        for (boolean startOffsets : List.of(false, true)) {
+            SolverConfig solverConfig = (startOffsets ? ContactPlanApp.buildSolverConfig()
+                    : buildVisibilityOnlySolverConfig()).withTerminationSpentLimit(spentLimit);
+            solverConfig.getTerminationConfig().setBestScoreLimit(bound);
+            SolveMeasurement measurement = SolveMeasurement.solve(solverConfig, problem);
+            List<ContactRequest> served = servedWithoutConflict(scoringFactory, measurement.getBestSolution());
+            long contactMillis = served.stream().mapToLong(ContactRequest::getDurationMillis).sum();
+            driver.addRow(startOffsets ? "yes" : "no", measurement.toReportLine(), served.size(),
+                    String.format("%.2f", served.size() / antennaHours),
+                    String.format("%.1f %%", 100.0 * contactMillis / (antennaHours * 3_600_000)));
+        }
+        driver.log(LOGGER, problem.getContactRequests().size() + " requests, " + problem.getVisibilities().size()
+                + " visibilities on " + antennaCount + " antennas over " + horizonMillis / 3_600_000 + "h, bound "
+                + bound + ", within " + spentLimit.getSeconds() + " s");
+    }
+
+    /**
+     * @return the solver of {@link ContactPlanApp}, its construction and moves leaving every start offset at 0
+     */
+    static SolverConfig buildVisibilityOnlySolverConfig() {
+        CustomPhaseConfig constructionPhaseConfig = new CustomPhaseConfig()
+                .withCustomPhaseCommandClassList(List.of(GreedyConstructionPhaseCommand.class));
+        constructionPhaseConfig.setCustomProperties(Map.of("startOffsets", "false"));
+        ChangeMoveSelectorConfig changeMoveSelectorConfig = new ChangeMoveSelectorConfig();
+        changeMoveSelectorConfig.setValueSelectorConfig(new ValueSelectorConfig("visibility"));
+        SwapMoveSelectorConfig swapMoveSelectorConfig = new SwapMoveSelectorConfig();
+        swapMoveSelectorConfig.setVariableNameIncludeList(List.of("visibility"));
+        return ContactPlanApp.buildSolverConfig().withPhases(constructionPhaseConfig, new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new UnionMoveSelectorConfig(List.of(changeMoveSelectorConfig,
+                        swapMoveSelectorConfig))));
+    }
+
+    private static List<ContactRequest> servedWithoutConflict(SolverFactory<ContactPlan> scoringFactory,
+            ContactPlan plan) {
+        PlanExplanation explanation = PlanExplanation.explain(scoringFactory, plan, 0);
+        return plan.getContactRequests().stream()
+                .filter(cr -> cr.getVisibility() != null && !explanation.isHardPenalized(cr))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,61 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves generated problems of increasing oversubscription with the solver of {@link ContactPlanApp}, and reports
+ * the time to the first plan without hard penalty and to the best plan, its score and the requests it serves
+ * without conflict, out of the most a plan can serve (see {@link FeasibilityAnalysis}).
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.TimeToFeasibleApp -Dfeasible.size=2000
+ * </pre>
+ * Configured by the feasible.size (requests at an oversubscription of 1, 2000 by default), feasible.oversubscriptions
+ * (requests per pass, comma separated, 0.8,1.0,1.2 by default), feasible.seed and feasible.secondsSpentLimit (30 by
+ * default) system properties.
+ */
+public class TimeToFeasibleApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimeToFeasibleApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("feasible", "oversubscription | requests | "
+                + SolveMeasurement.REPORT_HEADER + " | served without conflict | at most");
+        int size = driver.getInt("size", 2000);
+        Duration spentLimit = driver.getSpentLimit(30);
+        SolverFactory<ContactPlan> scoringFactory = SolverFactory.create(ContactPlanApp.buildSolverConfig());
+
+        for (String oversubscription : driver.getList("oversubscriptions", "0.8,1.0,1.2")) {
+            ContactPlan problem = driver.generator(size, Double.parseDouble(oversubscription)).generate();
+            FeasibilityAnalysis feasibilityAnalysis = FeasibilityAnalysis.analyze(problem);
+            SolverConfig solverConfig = ContactPlanApp.buildSolverConfig().withTerminationSpentLimit(spentLimit);
+            solverConfig.getTerminationConfig()
+                    .setBestScoreLimit(feasibilityAnalysis.getBestScoreBound().toString());
+            SolveMeasurement measurement = SolveMeasurement.solve(solverConfig, problem);
+            driver.addRow(oversubscription, problem.getContactRequests().size(), measurement.toReportLine(),
+                    servedWithoutConflict(scoringFactory, measurement.getBestSolution()),
+                    feasibilityAnalysis.getMaximumMatchingSize());
+        }
+        driver.log(LOGGER, "Time to the first plan without hard penalty, within " + spentLimit.getSeconds() + " s");
+    }
+
+    private static long servedWithoutConflict(SolverFactory<ContactPlan> scoringFactory, ContactPlan plan) {
+        PlanExplanation explanation = PlanExplanation.explain(scoringFactory, plan, 0);
+        long served = 0;
+        for (ContactRequest cr : plan.getContactRequests()) {
+            if (cr.getVisibility() != null && !explanation.isHardPenalized(cr)) {
+                served++;
+            }
+        }
+        return served;
+    }
+}
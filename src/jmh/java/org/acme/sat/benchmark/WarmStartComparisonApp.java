@@ -0,0 +1,67 @@
+package org.acme.sat.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the time to the first feasible solution of a daily replan, solved cold, warm started from the previous
+ * plan and warm started with most of the previous contacts pinned:
+ * <pre>
+ * mvn -Pjmh compile exec:java -Dexec.mainClass=org.acme.sat.benchmark.WarmStartComparisonApp -Dwarmstart.size=2000
+ * </pre>
+ * The previous plan is a cold solve of a generated problem. In the replan, a random share of its requests
+ * (warmstart.newRatio, 0.1 by default) is unassigned, as new requests would be. Configured by the warmstart.size
+ * (requests), warmstart.seed and warmstart.secondsSpentLimit system properties.
+ */
+public class WarmStartComparisonApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmStartComparisonApp.class);
+
+    public static void main(String[] args) {
+        BenchmarkDriver driver = new BenchmarkDriver("warmstart", "start | " + SolveMeasurement.REPORT_HEADER);
+        int size = driver.getInt("size", 1000);
+        long seed = driver.getSeed();
+        double newRatio = driver.getDouble("newRatio", 0.1);
+        Duration spentLimit = driver.getSpentLimit(60);
+        // Each solve stops at its first feasible solution
+        SolverConfig solverConfig = ContactPlanApp.buildSolverConfig().withTerminationConfig(new TerminationConfig()
+                .withBestScoreFeasible(true)
+                .withSpentLimit(spentLimit));
+
+        ContactPlan generated = driver.generator(size).generate();
+        ContactPlan previousPlan = driver.measure("cold", solverConfig,
+                replan(generated, 0, false, new Random(seed))).getBestSolution();
+        if (!previousPlan.getScore().isFeasible()) {
+            LOGGER.error("No feasible previous plan within " + spentLimit);
+            return;
+        }
+        driver.measure("warm", solverConfig, replan(previousPlan, newRatio, false, new Random(seed)));
+        driver.measure("warm, pinned", solverConfig, replan(previousPlan, newRatio, true, new Random(seed)));
+        driver.log(LOGGER, "Replan of " + size + " requests, " + Math.round(newRatio * 100) + "% new");
+    }
+
+    // Fresh requests keeping the previous assignment, except for a newRatio share of them
+    private static ContactPlan replan(ContactPlan previousPlan, double newRatio, boolean pin, Random random) {
+        List<ContactRequest> contactRequests = new ArrayList<>(previousPlan.getContactRequests().size());
+        for (ContactRequest previous : previousPlan.getContactRequests()) {
+            ContactRequest cr = new ContactRequest(previous.getId(), previous.getSatellite(), previous.getDurationMillis());
+            if (previous.getVisibility() != null && random.nextDouble() >= newRatio) {
+                cr.setVisibility(previous.getVisibility());
+                cr.setStartOffset(previous.getStartOffset());
+                cr.setPinned(pin);
+            }
+            contactRequests.add(cr);
+        }
+        return new ContactPlan(previousPlan.getVisibilities(), contactRequests, previousPlan);
+    }
+}
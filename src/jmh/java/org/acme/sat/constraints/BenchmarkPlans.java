@@ -0,0 +1,60 @@
+package org.acme.sat.constraints;
+
+import java.util.List;
+import java.util.Random;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+/**
+ * Synthetic contact plans and score directors shared by the benchmarks.
+ */
+final class BenchmarkPlans {
+
+    private BenchmarkPlans() {
+    }
+
+    static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(Class<? extends ConstraintProvider> constraintProviderClass) {
+        return buildScoreDirector(new ScoreDirectorFactoryConfig().withConstraintProviderClass(constraintProviderClass));
+    }
+
+    static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(ScoreDirectorFactoryConfig scoreDirectorFactoryConfig) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(scoreDirectorFactoryConfig));
+        return ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector();
+    }
+
+    /**
+     * @return a generated plan of size requests, each randomly assigned to one of its candidate visibilities, the
+     * requests without candidate left unassigned.
+     */
+    static ContactPlan generatePlan(int size, long seed) {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(size).withSeed(seed).generate();
+        Random random = new Random(seed);
+        for (ContactRequest cr : plan.getContactRequests()) {
+            List<Visibility> candidates = cr.getCandidateVisibilities();
+            cr.setVisibility(candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size())));
+        }
+        return plan;
+    }
+
+    /**
+     * @return one of the values of the visibility of the request at random: one of its candidates or null, for an
+     * unassigned request.
+     */
+    static Visibility randomVisibility(ContactRequest cr, Random random) {
+        List<Visibility> candidates = cr.getCandidateVisibilities();
+        int value = random.nextInt(candidates.size() + 1);
+        return value == candidates.size() ? null : candidates.get(value);
+    }
+}
@@ -0,0 +1,126 @@
+package org.acme.sat.constraints;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+
+/**
+ * Incremental score calculation of each constraint of {@link ContactPlanConstraintProvider} in isolation:
+ * one operation reassigns a random request to one of its candidate visibilities, or unassigns it, and recalculates
+ * the score.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConstraintBenchmark {
+    private static final Map<String, Class<? extends ConstraintProvider>> PROVIDERS = Map.of(
+            "visibilityConflict", VisibilityConflictOnly.class,
+            "visibilityTooShort", VisibilityTooShortOnly.class,
+            "visibilityForOtherSat", VisibilityForOtherSatOnly.class,
+            "satConflict", SatConflictOnly.class,
+            "antennaConflict", AntennaConflictOnly.class,
+            "unassignedRequest", UnassignedRequestOnly.class);
+
+    @Param({"visibilityConflict", "visibilityTooShort", "visibilityForOtherSat", "satConflict", "antennaConflict",
+            "unassignedRequest"})
+    public String constraint;
+    @Param({"1000", "10000"})
+    public int size;
+
+    private ContactPlan plan;
+    private InnerScoreDirector<ContactPlan, ?> scoreDirector;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plan = BenchmarkPlans.generatePlan(size, 0);
+        scoreDirector = BenchmarkPlans.buildScoreDirector(PROVIDERS.get(constraint));
+        scoreDirector.setWorkingSolution(plan);
+        scoreDirector.calculateScore();
+        random = new Random(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public Score<?> changeAndCalculateScore() {
+        List<ContactRequest> contactRequests = plan.getContactRequests();
+        ContactRequest cr = contactRequests.get(random.nextInt(contactRequests.size()));
+        scoreDirector.beforeVariableChanged(cr, "visibility");
+        cr.setVisibility(BenchmarkPlans.randomVisibility(cr, random));
+        scoreDirector.afterVariableChanged(cr, "visibility");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+
+    public static class VisibilityConflictOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().visibilityConflict(constraintFactory)};
+        }
+    }
+
+    public static class VisibilityTooShortOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().visibilityTooShort(constraintFactory)};
+        }
+    }
+
+    public static class VisibilityForOtherSatOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().visibilityForOtherSat(constraintFactory)};
+        }
+    }
+
+    public static class SatConflictOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().satConflict(constraintFactory)};
+        }
+    }
+
+    public static class AntennaConflictOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().antennaConflict(constraintFactory)};
+        }
+    }
+
+    public static class UnassignedRequestOnly implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            return new Constraint[] {new ContactPlanConstraintProvider().unassignedRequest(constraintFactory)};
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.acme.sat.constraints;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+
+/**
+ * Score calculation with all the constraints of {@link ContactPlanConstraintProvider} on plans of increasing size,
+ * both from scratch and incrementally after a random reassignment, by the constraint streams or by
+ * {@link ContactPlanIncrementalScoreCalculator}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreCalculationBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"constraintStreams", "incremental"})
+    public String scoreCalculator;
+
+    private ContactPlan plan;
+    private InnerScoreDirector<ContactPlan, ?> scoreDirector;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        plan = BenchmarkPlans.generatePlan(size, 0);
+        scoreDirector = BenchmarkPlans.buildScoreDirector("incremental".equals(scoreCalculator)
+                ? new ScoreDirectorFactoryConfig().withIncrementalScoreCalculatorClass(ContactPlanIncrementalScoreCalculator.class)
+                : new ScoreDirectorFactoryConfig().withConstraintProviderClass(ContactPlanConstraintProvider.class));
+        scoreDirector.setWorkingSolution(plan);
+        scoreDirector.calculateScore();
+        random = new Random(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public Score<?> calculateScoreFromScratch() {
+        scoreDirector.setWorkingSolution(plan);
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public Score<?> changeAndCalculateScore() {
+        List<ContactRequest> contactRequests = plan.getContactRequests();
+        ContactRequest cr = contactRequests.get(random.nextInt(contactRequests.size()));
+        scoreDirector.beforeVariableChanged(cr, "visibility");
+        cr.setVisibility(BenchmarkPlans.randomVisibility(cr, random));
+        scoreDirector.afterVariableChanged(cr, "visibility");
+        scoreDirector.triggerVariableListeners();
+        return scoreDirector.calculateScore();
+    }
+}
@@ -0,0 +1,76 @@
+package org.acme.sat.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.acme.sat.domain.Visibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a visibilities file of {@value #LINES} lines: the score is in lines per second.
+ * The line by line baseline is the former loading of {@code ContactPlanApp}, with a String split per line.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@OperationsPerInvocation(CsvLoaderBenchmark.LINES)
+public class CsvLoaderBenchmark {
+
+    static final int LINES = 1_000_000;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("visibilities", ".csv");
+        long start = 946_684_800_000L;
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < LINES; i++) {
+                long from = start + i * 60_000L;
+                writer.write(new Visibility(Integer.toString(i), "sat" + i % 50, "ls" + i % 10, from, from + 600_000L).toCSV());
+                writer.write('\n');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Visibility> csvLoader() throws IOException {
+        return new CsvLoader().loadVisibilities(file).getRecords();
+    }
+
+    @Benchmark
+    public List<Visibility> lineByLine() {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.map(Visibility::new).collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,66 +1,264 @@
 package org.acme.sat;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Stream;
 
 import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.constraints.ContactPlanIncrementalScoreCalculator;
+import org.acme.sat.constraints.PlanExplanation;
 import org.acme.sat.domain.ContactPlan;
 import org.acme.sat.domain.ContactRequest;
 import org.acme.sat.domain.Visibility;
-import org.optaplanner.core.api.score.ScoreManager;
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
-import org.optaplanner.core.api.score.constraint.ConstraintMatch;
-import org.optaplanner.core.api.score.constraint.Indictment;
+import org.acme.sat.io.CompactPlanFormat;
+import org.acme.sat.io.CsvLoader;
+import org.acme.sat.io.CsvResult;
+import org.acme.sat.io.PlanCsvWriter;
+import org.acme.sat.io.PlantUmlWriter;
+import org.acme.sat.solver.ContactPlanDecomposer;
+import org.acme.sat.solver.ContactPlanPartitioner;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.acme.sat.solver.GreedyConstructionPhaseCommand;
+import org.acme.sat.solver.RollingHorizonSolver;
+import org.acme.sat.solver.move.NearbyVisibilityChangeMoveIteratorFactory;
+import org.acme.sat.solver.move.SameSatelliteOrAntennaSwapFilter;
+import org.acme.sat.solver.move.StartOffsetWithinPassFilter;
+import org.acme.sat.solver.move.ShiftChainMoveIteratorFactory;
+import org.acme.sat.telemetry.SolverTelemetry;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.heuristic.selector.move.composite.UnionMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.factory.MoveIteratorFactoryConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.ChangeMoveSelectorConfig;
+import org.optaplanner.core.config.heuristic.selector.move.generic.SwapMoveSelectorConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.localsearch.decider.acceptor.LocalSearchAcceptorConfig;
+import org.optaplanner.core.config.localsearch.decider.forager.LocalSearchForagerConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
 import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ContactPlanApp {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanApp.class);
-    private static String lb = System.getProperty("line.separator");
+    private static final Duration SPENT_LIMIT = Duration.ofSeconds(10);
 
     public static void main(String[] args) {
-        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
-                .withSolutionClass(ContactPlan.class)
-                .withEntityClasses(ContactRequest.class)
-                .withConstraintProviderClass(ContactPlanConstraintProvider.class)
-                .withTerminationSpentLimit(Duration.ofSeconds(10)));
-
-        ScoreManager<ContactPlan, HardSoftScore> scoreManager = ScoreManager.create(solverFactory);
-
         Instant t0 = Instant.parse("2000-01-01T00:00:00.00Z");
         // Load the problem
         ContactPlan problem = loadData(t0);
 
+        // Stop solving once the best score reaches its bound, without waiting for the spent limit
+        FeasibilityAnalysis feasibilityAnalysis = FeasibilityAnalysis.analyze(problem);
+        LOGGER.info(feasibilityAnalysis.getReport());
+        SolverProfile profile = loadProfile(System.getProperty("profile", "default"));
+        int requestCount = problem.getContactRequests().size();
+        SolverConfig solverConfig = profile.buildSolverConfig(requestCount, feasibilityAnalysis.getBestScoreBound());
+        LOGGER.info("Solver profile {}, at most {} s", profile.getName(), profile.getSpentLimit(requestCount).getSeconds());
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(solverConfig);
+
         // Solve the problem
-        Solver<ContactPlan> solver = solverFactory.buildSolver();
-        ContactPlan solution = solver.solve(problem);
+        ContactPlan solution;
+        if (Boolean.getBoolean("decompose")) {
+            solution = new ContactPlanDecomposer(solverConfig, Integer.getInteger("decompositionThreadCount",
+                    Runtime.getRuntime().availableProcessors())).solve(problem, profile.getSpentLimit(requestCount));
+        } else if (Boolean.getBoolean("rollingHorizon")) {
+            Duration lookahead = Duration.ofHours(Long.getLong("rollingLookaheadHours", 48));
+            solution = new RollingHorizonSolver(solverConfig, lookahead,
+                    Duration.ofHours(Long.getLong("rollingStepHours", 24))).solve(problem,
+                            profile.getSpentLimit(windowRequestCount(problem, lookahead)));
+        } else {
+            Solver<ContactPlan> solver = solverFactory.buildSolver();
+            try (SolverTelemetry telemetry = new SolverTelemetry("ContactPlanApp", openTimeline())) {
+                telemetry.attach(solver);
+                solution = solver.solve(problem);
+                LOGGER.info(telemetry.getSummary());
+            }
+        }
 
-        if (solution.getScore().isFeasible()) {
+        // Explained once for the summary and the diagram
+        PlanExplanation explanation = PlanExplanation.explain(solverFactory, solution,
+                Integer.getInteger("explanationLimit", Integer.MAX_VALUE));
+        if (solution.getScore().isFeasible() && solution.getScore().getMediumScore() == 0) {
             LOGGER.info("SOLUTION FOUND");    
+        } else if (solution.getScore().isFeasible()) {
+            LOGGER.info("SOLUTION FOUND, SOME REQUESTS UNASSIGNED");
+            LOGGER.info(explanation.getSummary());
         } else {
             LOGGER.info("UNABLE TO FIND A SOLUTION");    
-            LOGGER.info(scoreManager.explainScore(solution).getSummary());
+            LOGGER.info(explanation.getSummary());
+        }
+
+        print(solution, explanation, t0);
+        savePlan(solution);
+        exportPlan(solution, explanation);
+    }
+
+    // The requests of a window, in the share of the horizon its lookahead is
+    private static int windowRequestCount(ContactPlan problem, Duration lookahead) {
+        long from = Long.MAX_VALUE;
+        long to = Long.MIN_VALUE;
+        for (Visibility visibility : problem.getVisibilities()) {
+            from = Math.min(from, visibility.getFromMillis());
+            to = Math.max(to, visibility.getToMillis());
         }
+        int requestCount = problem.getContactRequests().size();
+        return to <= from ? requestCount
+                : (int) Math.min(requestCount, requestCount * lookahead.toMillis() / (to - from));
+    }
 
-        print(solution, scoreManager, t0);
+    /**
+     * @param name the profile system property, see {@link SolverProfile#load(String)}
+     */
+    private static SolverProfile loadProfile(String name) {
+        try {
+            return SolverProfile.load(name);
+        } catch (IOException e) {
+            LOGGER.error("Unable to read the solver profile "+name);
+            LOGGER.error(e.toString());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * The number of move threads (a number, AUTO or NONE) and their buffer size can be set with the
+     * moveThreadCount and moveThreadBufferSize system properties.
+     * The score calculation is set by {@link #buildScoreDirectorFactoryConfig()}.
+     * With the partitionCount system property above 1, the plan is first solved in that many partitions
+     * in parallel, see {@link #buildPartitionedPhases(int, Duration)}, otherwise by {@link #buildDefaultPhases()}.
+     *
+     * @return the solver ending after 10 s, see {@link #buildSolverConfig(Duration)}
+     */
+    public static SolverConfig buildSolverConfig() {
+        return buildSolverConfig(SPENT_LIMIT);
+    }
+
+    /**
+     * @param spentLimit the termination of the solver, the partitions being solved for half of it
+     * @see #buildSolverConfig()
+     */
+    public static SolverConfig buildSolverConfig(Duration spentLimit) {
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(buildScoreDirectorFactoryConfig())
+                .withTerminationSpentLimit(spentLimit)
+                .withMoveThreadCount(System.getProperty("moveThreadCount", SolverConfig.MOVE_THREAD_COUNT_NONE))
+                .withMoveThreadBufferSize(Integer.getInteger("moveThreadBufferSize"));
+        int partitionCount = Integer.getInteger("partitionCount", 1);
+        if (partitionCount > 1) {
+            solverConfig.setPhaseConfigList(buildPartitionedPhases(partitionCount, spentLimit.dividedBy(2)));
+        } else {
+            solverConfig.setPhaseConfigList(buildDefaultPhases());
+        }
+        return solverConfig;
+    }
+
+    /**
+     * @return the score calculation selected by the scoreCalculator system property: constraintStreams (default)
+     * or incremental
+     */
+    public static ScoreDirectorFactoryConfig buildScoreDirectorFactoryConfig() {
+        if ("incremental".equals(System.getProperty("scoreCalculator"))) {
+            return new ScoreDirectorFactoryConfig().withIncrementalScoreCalculatorClass(ContactPlanIncrementalScoreCalculator.class);
+        }
+        return new ScoreDirectorFactoryConfig().withConstraintProviderClass(ContactPlanConstraintProvider.class);
+    }
+
+    /**
+     * @return the construction phases of {@link #buildConstructionPhases()} followed by the local search of
+     * {@link #buildLocalSearchPhase()}, using the moves of {@link #buildDomainLocalSearchPhase()} with the
+     * domainMoves system property.
+     */
+    public static List<PhaseConfig> buildDefaultPhases() {
+        List<PhaseConfig> phaseConfigs = new ArrayList<>(buildConstructionPhases());
+        phaseConfigs.add(Boolean.getBoolean("domainMoves") ? buildDomainLocalSearchPhase() : buildLocalSearchPhase());
+        return phaseConfigs;
+    }
+
+    /**
+     * @return the greedy construction of {@link GreedyConstructionPhaseCommand}, leaving unassigned the requests it
+     * cannot serve without conflict. With the construction system property set to firstFit, the default
+     * construction heuristic instead.
+     */
+    public static List<PhaseConfig> buildConstructionPhases() {
+        if ("firstFit".equals(System.getProperty("construction"))) {
+            return List.of(new ConstructionHeuristicPhaseConfig());
+        }
+        return List.of(new CustomPhaseConfig().withCustomPhaseCommandClassList(List.of(GreedyConstructionPhaseCommand.class)));
+    }
+
+    /**
+     * @return a partitioned search phase, solving each satellite partition on its own thread for at most
+     * partitionedSpentLimit, followed by a global local search fixing the conflicts between partitions.
+     */
+    public static List<PhaseConfig> buildPartitionedPhases(int partitionCount, Duration partitionedSpentLimit) {
+        PartitionedSearchPhaseConfig partitionedSearchPhaseConfig = new PartitionedSearchPhaseConfig();
+        partitionedSearchPhaseConfig.setSolutionPartitionerClass(ContactPlanPartitioner.class);
+        partitionedSearchPhaseConfig.setSolutionPartitionerCustomProperties(Map.of("partCount", Integer.toString(partitionCount)));
+        List<PhaseConfig> partitionPhaseConfigs = new ArrayList<>(buildConstructionPhases());
+        partitionPhaseConfigs.add(buildLocalSearchPhase());
+        partitionedSearchPhaseConfig.setPhaseConfigList(partitionPhaseConfigs);
+        partitionedSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withSpentLimit(partitionedSpentLimit));
+        // The construction only completes partitions cut short by the termination
+        List<PhaseConfig> phaseConfigs = new ArrayList<>(List.of(partitionedSearchPhaseConfig));
+        phaseConfigs.addAll(buildConstructionPhases());
+        phaseConfigs.add(buildLocalSearchPhase());
+        return phaseConfigs;
+    }
+
+    /**
+     * @return the default local search, with its change and swap moves, the start offset changes being kept within
+     * the pass of the request by {@link StartOffsetWithinPassFilter}
+     */
+    public static LocalSearchPhaseConfig buildLocalSearchPhase() {
+        return new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new UnionMoveSelectorConfig(List.of(buildChangeMoveSelectorConfig(),
+                        new SwapMoveSelectorConfig())));
+    }
+
+    /**
+     * @return a late acceptance local search with the moves of this domain: changes to visibilities near in time
+     * to the current one, swaps between requests of the same satellite or antenna and shifts of chains of contacts
+     * of a satellite to later passes, along with the generic changes
+     */
+    public static LocalSearchPhaseConfig buildDomainLocalSearchPhase() {
+        MoveIteratorFactoryConfig nearbyChangeMoveSelectorConfig = new MoveIteratorFactoryConfig();
+        nearbyChangeMoveSelectorConfig.setMoveIteratorFactoryClass(NearbyVisibilityChangeMoveIteratorFactory.class);
+        MoveIteratorFactoryConfig shiftChainMoveSelectorConfig = new MoveIteratorFactoryConfig();
+        shiftChainMoveSelectorConfig.setMoveIteratorFactoryClass(ShiftChainMoveIteratorFactory.class);
+        SwapMoveSelectorConfig swapMoveSelectorConfig = new SwapMoveSelectorConfig();
+        swapMoveSelectorConfig.setFilterClass(SameSatelliteOrAntennaSwapFilter.class);
+        return new LocalSearchPhaseConfig()
+                .withMoveSelectorConfig(new UnionMoveSelectorConfig(List.of(nearbyChangeMoveSelectorConfig,
+                        swapMoveSelectorConfig, shiftChainMoveSelectorConfig, buildChangeMoveSelectorConfig())))
+                .withAcceptorConfig(new LocalSearchAcceptorConfig().withLateAcceptanceSize(400))
+                .withForagerConfig(new LocalSearchForagerConfig().withAcceptedCountLimit(1));
+    }
+
+    private static ChangeMoveSelectorConfig buildChangeMoveSelectorConfig() {
+        ChangeMoveSelectorConfig changeMoveSelectorConfig = new ChangeMoveSelectorConfig();
+        changeMoveSelectorConfig.setFilterClass(StartOffsetWithinPassFilter.class);
+        return changeMoveSelectorConfig;
     }
 
     public static ContactPlan loadData(Instant t0) {
         List<Visibility> visibilities = new ArrayList<>();
-        final String visibilitiesCVSFile = "input-visibilities.csv";
+        final String visibilitiesCVSFile = System.getProperty("visibilities", "input-visibilities.csv");
         try {
             visibilities= loadVisibilitiesFromCSV(visibilitiesCVSFile);
         } catch (IOException e) {
@@ -72,9 +270,9 @@ public class ContactPlanApp {
         print(visibilities, t0);
 
         List<ContactRequest> contactRequests = new ArrayList<>();
-        final String contactRequestCVSFile = "input-contact-requests.csv";
+        final String contactRequestCVSFile = System.getProperty("contactRequests", "input-contact-requests.csv");
         try {
-            contactRequests = loadContactRequestsFromCSV(contactRequestCVSFile);
+            contactRequests = loadContactRequestsFromCSV(contactRequestCVSFile, visibilities);
         } catch (IOException e) {
             LOGGER.error("Unable to read from "+contactRequestCVSFile);
             LOGGER.error(e.toString());
@@ -85,86 +283,103 @@ public class ContactPlanApp {
     }
 
     private static List<Visibility> loadVisibilitiesFromCSV(String csvFile) throws IOException {
-        List<Visibility> visibilities = new ArrayList<>();
-        try (Stream<String> stream = Files.lines(Paths.get(csvFile))) {
-            stream.forEach(l -> visibilities.add(new Visibility(l)));
+        CsvResult<Visibility> result = new CsvLoader().loadVisibilities(Paths.get(csvFile));
+        if (result.hasErrors()) {
+            LOGGER.warn(result.getErrorReport(csvFile));
         }
-        return visibilities;
+        return result.getRecords();
     }
 
-    private static List<ContactRequest> loadContactRequestsFromCSV(String csvFile) throws IOException {
-        List<ContactRequest> contactRequests = new ArrayList<>(); 
-        try (Stream<String> stream = Files.lines(Paths.get(csvFile))) {
-            stream.forEach(l -> contactRequests.add(new ContactRequest(l)));
+    private static List<ContactRequest> loadContactRequestsFromCSV(String csvFile, List<Visibility> visibilities)
+            throws IOException {
+        CsvResult<ContactRequest> result = new CsvLoader().loadContactRequests(Paths.get(csvFile), visibilities);
+        if (result.hasErrors()) {
+            LOGGER.warn(result.getErrorReport(csvFile));
         }
-        return contactRequests;
+        return result.getRecords();
     }
 
-    private static void print(List<Visibility> visibilities, Instant t0) {        
-        StringBuilder visibilitiesPU = new StringBuilder("@startuml"+lb);                
-        Set<String> satAlreadySeen = new HashSet<>();
-        for (Visibility v : visibilities) {
-            String satellite = v.getSatellite();
-            String antenna = v.getAntenna();
-            if (!satAlreadySeen.contains(satellite)) {
-                visibilitiesPU.append("concise "+satellite+lb);    
-                satAlreadySeen.add(satellite);
-            }
-            long starts = Duration.between(t0, v.getFrom()).getSeconds();
-            visibilitiesPU.append("@"+starts+lb);
-            visibilitiesPU.append(satellite+" is \"visible @"+antenna+"\""+lb);
-            visibilitiesPU.append("@"+(starts+v.getDuration().getSeconds())+lb);
-            visibilitiesPU.append(satellite+" is {-}"+lb);
-        }
-
-        visibilitiesPU.append("@enduml");
-        saveToFile("visibilities.pu", visibilitiesPU);
-    }
-
-    private static void print(ContactPlan plan, ScoreManager<ContactPlan, HardSoftScore> scoreManager, Instant t0) {        
-        Set<String> satAlreadySeen = new HashSet<>();
-        StringBuilder contactPlanPU = new StringBuilder("@startuml"+lb);                
-        Map<Object,Indictment<HardSoftScore>> indictments = scoreManager.explainScore(plan).getIndictmentMap();
-        for (ContactRequest cr : plan.getContactRequests()) {
-            String satellite = cr.getSatellite();
-            if (!satAlreadySeen.contains(satellite)) {
-                contactPlanPU.append("concise "+satellite+lb);    
-                satAlreadySeen.add(satellite);
-            }
-            Indictment<HardSoftScore> crIndictment = indictments.get(cr);            
-            Visibility visibility = cr.getVisibility();
-            long starts = Duration.between(t0, visibility.getFrom()).getSeconds();
-            contactPlanPU.append("@"+starts+lb);
-            String color = "#lightgreen";
-            String contactId = "contact "+cr.getId();
-            if (crIndictment != null && crIndictment.getScore().getHardScore() < 0) {    
-                contactPlanPU.append("note top of "+satellite+" : "+getConstraintsFromIndictement(crIndictment.getConstraintMatchSet())+lb);
-                color = "#red";
-                contactId = "contact ?";
-            }
-            contactPlanPU.append(satellite+" is \""+contactId+" @"+cr.getVisibility().getAntenna()+"\" "+color+lb);
-            contactPlanPU.append("@"+(starts+cr.getDuration().getSeconds())+lb);
-            contactPlanPU.append(satellite+" is {-}"+lb);
+    /**
+     * Writes the visibilities to visibilities.pu, split as the diagramSplit system property, see
+     * {@link #buildPlantUmlWriter(Instant)}.
+     */
+    private static void print(List<Visibility> visibilities, Instant t0) {
+        try {
+            buildPlantUmlWriter(t0).writeVisibilities(visibilities, Paths.get("."), "visibilities");
+        } catch (IOException e) {
+            LOGGER.error("Unable to generate visibilities.pu");
+            LOGGER.error(e.getMessage());
         }
-        contactPlanPU.append("@enduml");
-        saveToFile("contact-plan.pu", contactPlanPU);
     }
 
-    private static String getConstraintsFromIndictement(Set<ConstraintMatch<HardSoftScore>> constraintMatchSet) {
-        StringBuilder result = new StringBuilder();
-        for (ConstraintMatch<HardSoftScore> constraintMatch : constraintMatchSet) {
-            result.append(constraintMatch.getConstraintName()+"\\n");
-            for (Object justification : constraintMatch.getJustificationList()) {
-                result.append("\\t"+justification.toString()+"\\n");
-            }
+    /**
+     * Writes the plan to contact-plan.pu, split as the diagramSplit system property. With the explanationLimit
+     * system property, only the constraints of the requests with the most matches of each constraint are noted,
+     * see {@link PlanExplanation}.
+     */
+    private static void print(ContactPlan plan, PlanExplanation explanation, Instant t0) {
+        try {
+            buildPlantUmlWriter(t0).writeContactPlan(plan.getContactRequests(), explanation, Paths.get("."),
+                    "contact-plan");
+        } catch (IOException e) {
+            LOGGER.error("Unable to generate contact-plan.pu");
+            LOGGER.error(e.getMessage());
         }
+    }
 
-        return result.toString();
+    /**
+     * @return a writer of the diagrams in a single file, or with the diagramSplit system property (none, antenna or
+     * day) one file per antenna or per day
+     */
+    private static PlantUmlWriter buildPlantUmlWriter(Instant t0) {
+        String split = System.getProperty("diagramSplit", "none");
+        return new PlantUmlWriter(t0, PlantUmlWriter.Split.valueOf(split.toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * @return a writer to the file of the telemetry system property (solver-telemetry.jsonl by default), the
+     * solver timeline of {@link SolverTelemetry}, null if it cannot be opened
+     */
+    private static Writer openTimeline() {
+        String filename = System.getProperty("telemetry", "solver-telemetry.jsonl");
+        try {
+            return Files.newBufferedWriter(Paths.get(filename));
+        } catch (IOException e) {
+            LOGGER.error("Unable to generate "+filename);
+            LOGGER.error(e.getMessage());
+            return null;
+        }
     }
 
-    private static void saveToFile(String filename, StringBuilder content){
+    /**
+     * Saves the plan to the file of the plan system property (contact-plan.csv by default), in the contact
+     * requests format extended with the assigned visibilities. Loaded back as contact requests file, it warm starts
+     * the next solve. The contacts starting before the pinUntil system property (an ISO-8601 instant, if set) are
+     * pinned, in addition to those already pinned.
+     */
+    private static void savePlan(ContactPlan plan) {
+        String filename = System.getProperty("plan", "contact-plan.csv");
+        String pinUntil = System.getProperty("pinUntil");
+        try {
+            PlanCsvWriter.write(plan, Paths.get(filename),
+                    pinUntil == null ? Long.MIN_VALUE : Instant.parse(pinUntil).toEpochMilli());
+        } catch (IOException e) {
+            LOGGER.error("Unable to generate "+filename);
+            LOGGER.error(e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the plan to the file of the export system property, if set, in the {@link CompactPlanFormat} of the
+     * downstream tools.
+     */
+    private static void exportPlan(ContactPlan plan, PlanExplanation explanation) {
+        String filename = System.getProperty("export");
+        if (filename == null) {
+            return;
+        }
         try {
-            Files.write(Paths.get(filename), content.toString().getBytes());
+            CompactPlanFormat.write(plan, explanation, Paths.get(filename));
         } catch (IOException e) {
             LOGGER.error("Unable to generate "+filename);
             LOGGER.error(e.getMessage());
@@ -0,0 +1,241 @@
+package org.acme.sat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.constraints.ContactPlanIncrementalScoreCalculator;
+import org.acme.sat.constraints.EqualJoinerConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.stream.ConstraintStreamImplType;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationCompositionStyle;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+/**
+ * A solver configuration loaded from a profile: a properties file, a bundled profile by name (default, quick,
+ * thorough or bavet, see src/main/resources/org/acme/sat/profiles) or an OptaPlanner solver XML file.
+ * <p>
+ * The solve ends at the first of:
+ * <ul>
+ * <li>the wall clock cap, termination.spentLimitPerRequestMillis per request, between
+ * termination.minSecondsSpentLimit and termination.maxSecondsSpentLimit</li>
+ * <li>the best score bound of the problem</li>
+ * <li>with termination.bestScoreFeasible, a feasible best score unimproved for
+ * termination.unimprovedSecondsSpentLimit (without it, any best score unimproved that long)</li>
+ * <li>termination.stepCountLimit steps of the last local search phase</li>
+ * </ul>
+ * constraintStreamImplType (DROOLS or BAVET) selects the constraint streams implementation, Bavet with the
+ * {@link EqualJoinerConstraintProvider}, and scoreCalculator=incremental the
+ * {@link ContactPlanIncrementalScoreCalculator}. Without either, the score calculation is left to the system
+ * properties of {@link ContactPlanApp#buildScoreDirectorFactoryConfig()}.
+ * <p>
+ * solverConfig points to a solver XML file, relative to the profile file (to the working directory for a bundled
+ * profile), whose score calculation, phases and termination are kept when set, the other parts being completed by
+ * {@link ContactPlanApp}. A solver XML file selected as the profile itself is completed the same way, with the
+ * default termination properties.
+ */
+public final class SolverProfile {
+
+    private static final String BUNDLED_PROFILES = "/org/acme/sat/profiles/";
+
+    private final String name;
+    private final SolverConfig baseConfig;
+    private final ScoreDirectorFactoryConfig scoreDirectorFactoryConfig;
+    private final boolean bestScoreFeasible;
+    private final Duration unimprovedSpentLimit;
+    private final Integer stepCountLimit;
+    private final long spentLimitPerRequestMillis;
+    private final Duration minSpentLimit;
+    private final Duration maxSpentLimit;
+
+    private SolverProfile(String name, Properties properties, SolverConfig baseConfig) {
+        this.name = name;
+        this.baseConfig = baseConfig;
+        this.scoreDirectorFactoryConfig = parseScoreDirectorFactoryConfig(properties);
+        this.bestScoreFeasible = Boolean.parseBoolean(properties.getProperty("termination.bestScoreFeasible", "true"));
+        Long unimprovedSeconds = parseLong(properties, "termination.unimprovedSecondsSpentLimit", null);
+        this.unimprovedSpentLimit = unimprovedSeconds == null ? null : Duration.ofSeconds(unimprovedSeconds);
+        Long stepCount = parseLong(properties, "termination.stepCountLimit", null);
+        this.stepCountLimit = stepCount == null ? null : Math.toIntExact(stepCount);
+        this.spentLimitPerRequestMillis = parseLong(properties, "termination.spentLimitPerRequestMillis", 5L);
+        this.minSpentLimit = Duration.ofSeconds(parseLong(properties, "termination.minSecondsSpentLimit", 10L));
+        this.maxSpentLimit = Duration.ofSeconds(parseLong(properties, "termination.maxSecondsSpentLimit", 300L));
+        if (minSpentLimit.compareTo(maxSpentLimit) > 0) {
+            throw new IllegalArgumentException("Profile " + name + ": termination.minSecondsSpentLimit ("
+                    + minSpentLimit.getSeconds() + ") is above termination.maxSecondsSpentLimit ("
+                    + maxSpentLimit.getSeconds() + ")");
+        }
+    }
+
+    /**
+     * @param profile a path to a .properties or .xml file, or the name of a bundled profile
+     */
+    public static SolverProfile load(String profile) throws IOException {
+        if (profile.endsWith(".xml")) {
+            return new SolverProfile(profile, new Properties(), loadSolverConfig(Paths.get(profile)));
+        }
+        Properties properties = new Properties();
+        // The solver XML file of a bundled profile is relative to the working directory
+        Path directory = Paths.get("");
+        if (profile.endsWith(".properties")) {
+            Path file = Paths.get(profile).toAbsolutePath();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+            directory = file.getParent();
+        } else {
+            try (InputStream in = SolverProfile.class.getResourceAsStream(BUNDLED_PROFILES + profile + ".properties")) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Unknown profile " + profile
+                            + ", neither a bundled profile nor a .properties or .xml file");
+                }
+                properties.load(in);
+            }
+        }
+        String solverConfig = properties.getProperty("solverConfig");
+        return new SolverProfile(profile, properties,
+                solverConfig == null ? null : loadSolverConfig(directory.resolve(solverConfig)));
+    }
+
+    public static SolverProfile of(Properties properties) {
+        return new SolverProfile("properties", properties, null);
+    }
+
+    private static SolverConfig loadSolverConfig(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new IOException("No solver configuration " + file);
+        }
+        return SolverConfig.createFromXmlFile(new File(file.toString()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the wall clock cap of a problem, in proportion to its requests within the bounds of the profile
+     */
+    public Duration getSpentLimit(int requestCount) {
+        Duration spentLimit = Duration.ofMillis(spentLimitPerRequestMillis * requestCount);
+        if (spentLimit.compareTo(minSpentLimit) < 0) {
+            return minSpentLimit;
+        }
+        return spentLimit.compareTo(maxSpentLimit) > 0 ? maxSpentLimit : spentLimit;
+    }
+
+    /**
+     * @param bestScoreBound the best score a plan can reach, see {@link org.acme.sat.solver.FeasibilityAnalysis},
+     * null if unknown
+     */
+    public SolverConfig buildSolverConfig(int requestCount, HardMediumSoftScore bestScoreBound) {
+        SolverConfig defaults = ContactPlanApp.buildSolverConfig(getSpentLimit(requestCount));
+        SolverConfig solverConfig = baseConfig == null ? new SolverConfig() : new SolverConfig(baseConfig);
+        if (solverConfig.getSolutionClass() == null) {
+            solverConfig.setSolutionClass(ContactPlan.class);
+        }
+        if (solverConfig.getEntityClassList() == null) {
+            solverConfig.setEntityClassList(List.of(ContactRequest.class));
+        }
+        if (solverConfig.getScoreDirectorFactoryConfig() == null) {
+            solverConfig.setScoreDirectorFactoryConfig(scoreDirectorFactoryConfig);
+        }
+        if (solverConfig.getMoveThreadCount() == null) {
+            solverConfig.setMoveThreadCount(defaults.getMoveThreadCount());
+            solverConfig.setMoveThreadBufferSize(defaults.getMoveThreadBufferSize());
+        }
+        if (solverConfig.getPhaseConfigList() == null) {
+            solverConfig.setPhaseConfigList(defaults.getPhaseConfigList());
+        }
+        if (solverConfig.getTerminationConfig() == null) {
+            solverConfig.setTerminationConfig(buildTerminationConfig(requestCount, bestScoreBound));
+            // A step count is a phase termination only
+            PhaseConfig lastPhaseConfig = solverConfig.getPhaseConfigList()
+                    .get(solverConfig.getPhaseConfigList().size() - 1);
+            if (stepCountLimit != null && lastPhaseConfig instanceof LocalSearchPhaseConfig
+                    && lastPhaseConfig.getTerminationConfig() == null) {
+                LocalSearchPhaseConfig localSearchPhaseConfig = ((LocalSearchPhaseConfig) lastPhaseConfig).copyConfig();
+                localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(stepCountLimit));
+                List<PhaseConfig> phaseConfigs = new ArrayList<>(solverConfig.getPhaseConfigList());
+                phaseConfigs.set(phaseConfigs.size() - 1, localSearchPhaseConfig);
+                solverConfig.setPhaseConfigList(phaseConfigs);
+            }
+        }
+        return solverConfig;
+    }
+
+    /**
+     * @return the solver termination of the profile: the first of the wall clock cap, the best score bound and the
+     * unimproved spent limit
+     */
+    public TerminationConfig buildTerminationConfig(int requestCount, HardMediumSoftScore bestScoreBound) {
+        List<TerminationConfig> terminationConfigs = new ArrayList<>();
+        terminationConfigs.add(new TerminationConfig().withSpentLimit(getSpentLimit(requestCount)));
+        if (bestScoreBound != null) {
+            terminationConfigs.add(new TerminationConfig().withBestScoreLimit(bestScoreBound.toString()));
+        }
+        if (unimprovedSpentLimit != null) {
+            TerminationConfig unimproved = new TerminationConfig().withUnimprovedSpentLimit(unimprovedSpentLimit);
+            // Feasible once the construction leaves the conflicting requests unassigned, so not enough on its own
+            terminationConfigs.add(bestScoreFeasible ? new TerminationConfig()
+                    .withTerminationCompositionStyle(TerminationCompositionStyle.AND)
+                    .withTerminationConfigList(List.of(new TerminationConfig().withBestScoreFeasible(true), unimproved))
+                    : unimproved);
+        }
+        return new TerminationConfig().withTerminationCompositionStyle(TerminationCompositionStyle.OR)
+                .withTerminationConfigList(terminationConfigs);
+    }
+
+    private static ScoreDirectorFactoryConfig parseScoreDirectorFactoryConfig(Properties properties) {
+        String scoreCalculator = properties.getProperty("scoreCalculator");
+        String implType = properties.getProperty("constraintStreamImplType");
+        if (scoreCalculator == null && implType == null) {
+            return ContactPlanApp.buildScoreDirectorFactoryConfig();
+        }
+        if ("incremental".equals(scoreCalculator)) {
+            return new ScoreDirectorFactoryConfig()
+                    .withIncrementalScoreCalculatorClass(ContactPlanIncrementalScoreCalculator.class);
+        }
+        if (scoreCalculator != null && !"constraintStreams".equals(scoreCalculator)) {
+            throw new IllegalArgumentException("Unknown scoreCalculator " + scoreCalculator
+                    + ", expected constraintStreams or incremental");
+        }
+        ConstraintStreamImplType type = implType == null ? ConstraintStreamImplType.DROOLS
+                : ConstraintStreamImplType.valueOf(implType.trim().toUpperCase(Locale.ROOT));
+        return new ScoreDirectorFactoryConfig()
+                .withConstraintProviderClass(type == ConstraintStreamImplType.BAVET
+                        ? EqualJoinerConstraintProvider.class : ContactPlanConstraintProvider.class)
+                .withConstraintStreamImplType(type);
+    }
+
+    private static Long parseLong(Properties properties, String key, Long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new IllegalArgumentException(key + " is negative: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " is not a number: " + value, e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.acme.sat.batch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.io.CsvLoader;
+import org.acme.sat.io.CsvResult;
+import org.acme.sat.io.PlanCsvWriter;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the problems of several teams in one JVM: each subdirectory of the batch.input directory (batch by
+ * default) holds the input-visibilities.csv and input-contact-requests.csv files of one problem, and gets its
+ * contact-plan.csv, the plan written by {@link PlanCsvWriter}.
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=org.acme.sat.batch.ContactPlanBatchApp -Dbatch.input=batch -Dbatch.parallelism=4
+ * </pre>
+ * At most batch.parallelism problems (the available processors by default) are solved at a time, each for at most
+ * batch.secondsSpentLimit (10 by default) or until it reaches its best score bound, see
+ * {@link ContactPlanBatchSolver}. The throughput of the batch is logged in plans per minute.
+ */
+public class ContactPlanBatchApp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanBatchApp.class);
+
+    public static final String VISIBILITIES_FILE = "input-visibilities.csv";
+    public static final String CONTACT_REQUESTS_FILE = "input-contact-requests.csv";
+    public static final String PLAN_FILE = "contact-plan.csv";
+
+    public static void main(String[] args) throws IOException {
+        Path input = Paths.get(System.getProperty("batch.input", "batch"));
+        int parallelism = Integer.getInteger("batch.parallelism", Runtime.getRuntime().availableProcessors());
+        Duration spentLimit = Duration.ofSeconds(Long.getLong("batch.secondsSpentLimit", 10));
+
+        List<Path> problemDirectories;
+        try (Stream<Path> paths = Files.list(input)) {
+            problemDirectories = paths.filter(p -> Files.isRegularFile(p.resolve(VISIBILITIES_FILE))).sorted()
+                    .collect(Collectors.toList());
+        }
+        long start = System.nanoTime();
+        int solvedCount = solve(problemDirectories, ContactPlanApp.buildSolverConfig(spentLimit), parallelism,
+                spentLimit);
+        double minutes = (System.nanoTime() - start) / 60e9;
+        LOGGER.info(String.format("Solved %d of %d plans in %.1f s on %d solver threads: %.1f plans/min",
+                solvedCount, problemDirectories.size(), minutes * 60, parallelism, solvedCount / minutes));
+    }
+
+    /**
+     * Solves the problem of each directory and writes its plan next to its inputs.
+     *
+     * @param solverConfig its termination applies to every problem, on top of spentLimit
+     * @return the number of plans written
+     */
+    public static int solve(List<Path> problemDirectories, SolverConfig solverConfig, int parallelism,
+            Duration spentLimit) {
+        int solvedCount = 0;
+        try (ContactPlanBatchSolver batchSolver = new ContactPlanBatchSolver(solverConfig, parallelism)) {
+            List<CompletableFuture<Void>> plansWritten = new ArrayList<>(problemDirectories.size());
+            for (Path directory : problemDirectories) {
+                String problemId = directory.getFileName().toString();
+                ContactPlan problem;
+                try {
+                    problem = load(directory);
+                } catch (IOException e) {
+                    LOGGER.error("Unable to read the problem of " + directory + ": " + e);
+                    plansWritten.add(CompletableFuture.failedFuture(e));
+                    continue;
+                }
+                plansWritten.add(batchSolver.submit(problemId, problem, spentLimit)
+                        .thenAccept(plan -> write(plan, directory.resolve(PLAN_FILE))));
+            }
+            for (int i = 0; i < plansWritten.size(); i++) {
+                try {
+                    plansWritten.get(i).join();
+                    solvedCount++;
+                } catch (RuntimeException e) {
+                    LOGGER.error("Unable to plan " + problemDirectories.get(i), e.getCause());
+                }
+            }
+        }
+        return solvedCount;
+    }
+
+    public static ContactPlan load(Path directory) throws IOException {
+        CsvLoader loader = new CsvLoader();
+        Path visibilitiesFile = directory.resolve(VISIBILITIES_FILE);
+        CsvResult<Visibility> visibilities = loader.loadVisibilities(visibilitiesFile);
+        if (visibilities.hasErrors()) {
+            LOGGER.warn(visibilities.getErrorReport(visibilitiesFile.toString()));
+        }
+        Path contactRequestsFile = directory.resolve(CONTACT_REQUESTS_FILE);
+        CsvResult<ContactRequest> contactRequests = loader.loadContactRequests(contactRequestsFile,
+                visibilities.getRecords());
+        if (contactRequests.hasErrors()) {
+            LOGGER.warn(contactRequests.getErrorReport(contactRequestsFile.toString()));
+        }
+        return new ContactPlan(visibilities.getRecords(), contactRequests.getRecords());
+    }
+
+    private static void write(ContactPlan plan, Path file) {
+        try {
+            PlanCsvWriter.write(plan, file, Long.MIN_VALUE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write " + file, e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.acme.sat.batch;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.SolverManager;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves many contact plans in one JVM, at most parallelism of them at a time, through a single
+ * {@link SolverManager}: the solver configuration and the constraints are built once for all the plans.
+ * <p>
+ * Each plan has its own termination: it ends at its spent limit, counted from the start of its solve rather than
+ * from its submission, or once it reaches the best score bound of its {@link FeasibilityAnalysis}, whichever comes
+ * first. The termination of the solver configuration applies to every plan on top of it.
+ */
+public class ContactPlanBatchSolver implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanBatchSolver.class);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final SolverManager<ContactPlan, String> solverManager;
+    // Terminates the plans: terminateEarly() waits for the solve to end, it cannot be called by a solver thread
+    private final ScheduledThreadPoolExecutor terminator = new ScheduledThreadPoolExecutor(1,
+            r -> new Thread(r, "BatchTerminator"));
+
+    /**
+     * @param solverConfig its termination is a limit common to all the plans, such as a maximum spent limit
+     */
+    public ContactPlanBatchSolver(SolverConfig solverConfig, int parallelism) {
+        this.solverManager = SolverManager.create(SolverFactory.<ContactPlan>create(solverConfig),
+                new SolverManagerConfig().withParallelSolverCount(Integer.toString(parallelism)));
+        // Once closed, the spent limits still to come are dropped
+        terminator.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * @param problemId unique among the plans not solved yet
+     * @return the best plan, once solved
+     */
+    public CompletableFuture<ContactPlan> submit(String problemId, ContactPlan problem, Duration spentLimit) {
+        HardMediumSoftScore bound = FeasibilityAnalysis.analyze(problem).getBestScoreBound();
+        CompletableFuture<ContactPlan> result = new CompletableFuture<>();
+        AtomicReference<ScheduledFuture<?>> spentLimitTermination = new AtomicReference<>();
+        // The spent limit and the bound, checked on every new best plan, terminate the plan once
+        AtomicBoolean terminated = new AtomicBoolean();
+        Runnable termination = () -> {
+            if (terminated.compareAndSet(false, true)) {
+                solverManager.terminateEarly(problemId);
+            }
+        };
+        solverManager.solveAndListen(problemId,
+                id -> {
+                    // Called by the solver thread when the solve starts
+                    spentLimitTermination.set(terminator.schedule(termination, spentLimit.toMillis(),
+                            TimeUnit.MILLISECONDS));
+                    return problem;
+                },
+                plan -> {
+                    if (!terminated.get() && plan.getScore().compareTo(bound) >= 0) {
+                        terminator.execute(termination);
+                    }
+                },
+                plan -> {
+                    cancel(spentLimitTermination.get());
+                    LOGGER.info("Plan {} of {} requests solved: {}", problemId, plan.getContactRequests().size(),
+                            plan.getScore());
+                    result.complete(plan);
+                },
+                (id, e) -> {
+                    cancel(spentLimitTermination.get());
+                    result.completeExceptionally(e);
+                });
+        return result;
+    }
+
+    private static void cancel(ScheduledFuture<?> termination) {
+        if (termination != null) {
+            termination.cancel(false);
+        }
+    }
+
+    /**
+     * Terminates the plans being solved and drops those not started yet, then waits for the terminations already
+     * requested to return.
+     */
+    @Override
+    public void close() {
+        solverManager.close();
+        terminator.shutdown();
+        try {
+            if (!terminator.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Plan terminations still running after " + CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
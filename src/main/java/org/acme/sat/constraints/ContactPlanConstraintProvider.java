@@ -1,13 +1,15 @@
 package org.acme.sat.constraints;
 
-import java.time.Instant;
+import java.util.function.Function;
 
 import org.acme.sat.domain.ContactRequest;
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import org.optaplanner.core.api.score.stream.Constraint;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
 import org.optaplanner.core.api.score.stream.Joiners;
+import org.optaplanner.core.api.score.stream.bi.BiConstraintStream;
+import org.optaplanner.core.api.score.stream.uni.UniConstraintStream;
 
 public class ContactPlanConstraintProvider implements ConstraintProvider {
     @Override
@@ -18,20 +20,41 @@ public class ContactPlanConstraintProvider implements ConstraintProvider {
                 visibilityTooShort(constraintFactory),
                 visibilityForOtherSat(constraintFactory),
                 satConflict(constraintFactory),
-                antennaConflict(constraintFactory)    
+                antennaConflict(constraintFactory),
+                // Medium constraints
+                unassignedRequest(constraintFactory)
         };
     }
 
-    // Must not assign the same visibility to more than one contact request
+    // The requests with a visibility: from() keeps the unassigned ones too, the variable being nullable
+    static UniConstraintStream<ContactRequest> assignedRequests(ConstraintFactory constraintFactory) {
+        return constraintFactory.from(ContactRequest.class).filter(cr -> cr.getVisibility() != null);
+    }
+
+    /**
+     * The joins of the conflicts: each pair of 2 different assigned requests once, with the same key, whose periods
+     * from start to end may overlap. The conflicts filter the pairs whose periods do overlap.
+     */
+    protected BiConstraintStream<ContactRequest, ContactRequest> joinPossiblyOverlapping(
+            ConstraintFactory constraintFactory, Function<ContactRequest, ?> key,
+            Function<ContactRequest, Long> start, Function<ContactRequest, Long> end) {
+        return assignedRequests(constraintFactory)
+                .join(assignedRequests(constraintFactory),
+                        Joiners.equal(key),
+                        Joiners.lessThan(ContactRequest::getId),
+                        Joiners.overlapping(start, end)
+                );
+    }
+
+    // Must not assign the same visibility to more than one contact request at the same time
     Constraint visibilityConflict(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                // Select each pair of 2 different ContactRequests ...
-                .fromUniquePair(ContactRequest.class,
-                        // ... in the same visibility                        
-                        Joiners.equal(ContactRequest::getVisibility)
-                )                        
+        // Select each pair of 2 different assigned ContactRequests in the same visibility ...
+        return joinPossiblyOverlapping(constraintFactory, ContactRequest::getVisibility,
+                        ContactRequest::getContactStartKey, ContactRequest::getContactEndKey)
+                // ... whose contacts overlap ...
+                .filter(ContactPlanConstraintProvider::overlappingContacts)
                 // ... and penalize each pair with a hard weight.
-                .penalize("Visibility conflict", HardSoftScore.ONE_HARD);
+                .penalize("Visibility conflict", HardMediumSoftScore.ONE_HARD);
     }
 
     // Must not assign a visibility with a duration shorter than required by the contact request
@@ -40,9 +63,9 @@ public class ContactPlanConstraintProvider implements ConstraintProvider {
                 // Select contacts ...
                 .from(ContactRequest.class)
                         // ... with visibilities shorter than the requerid duration ...
-                        .filter(cr -> cr.getVisibility() != null && cr.getDuration().compareTo(cr.getVisibility().getDuration()) > 0)                        
+                        .filter(cr -> cr.getVisibility() != null && cr.getDurationMillis() > cr.getVisibility().getDurationMillis())
                 // ... and penalize them with a hard weight.
-                .penalize("Visibility too short", HardSoftScore.ONE_HARD);
+                .penalize("Visibility too short", HardMediumSoftScore.ONE_HARD);
     }
 
     // Must not assign a visibility for sat X to a contact request for sat Y
@@ -51,52 +74,57 @@ public class ContactPlanConstraintProvider implements ConstraintProvider {
                 // Select contacts ...
                 .from(ContactRequest.class)
                         // ... with visibilities not matching the requested sat 
-                        .filter(cr -> cr.getVisibility() != null && !(cr.getSatellite().equals(cr.getVisibility().getSatellite())))
+                        .filter(cr -> cr.getVisibility() != null && cr.getSatelliteId() != cr.getVisibility().getSatelliteId())
                 // ... and penalize them with a hard weight.
-                .penalize("Visibility does not match sat", HardSoftScore.ONE_HARD);
+                .penalize("Visibility does not match sat", HardMediumSoftScore.ONE_HARD);
     }
 
-    // Can not assign overlapping visibilities for a sat
+    // Can not stablish overlapping contacts with a sat
     Constraint satConflict(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                // Select each pair of 2 different ContactRequests ...
-                .fromUniquePair(ContactRequest.class,
-                        // ... in the same satellite                        
-                        Joiners.equal(ContactRequest::getSatellite)
-                ).filter((cr1,cr2) -> 
-                        // ... have a visibility allocated ...
-                        cr1.getVisibility() != null && cr2.getVisibility() != null
-                        // ... and the visibilities' periods overlap
-                        && overlappingPeriods(cr1.getVisibility().getFrom(), cr1.getVisibility().getTo(), cr2.getVisibility().getFrom(), cr2.getVisibility().getTo())
+        // Select each pair of 2 different assigned ContactRequests of the same satellite, whose contacts' periods may
+        // overlap ...
+        return joinPossiblyOverlapping(constraintFactory, ContactRequest::getSatelliteKey,
+                        ContactRequest::getContactStartKey, ContactRequest::getContactEndKey)
+                .filter((cr1, cr2) ->
+                        // ... and do overlap, in different visibilities (the same one is a visibility conflict)
+                        cr1.getVisibility() != cr2.getVisibility() && overlappingContacts(cr1, cr2)
                 )
                 // ... and penalize each pair with a hard weight.
-                .penalize("Satellite conflict", HardSoftScore.ONE_HARD);
+                .penalize("Satellite conflict", HardMediumSoftScore.ONE_HARD);
     }
 
     // Can not use the same antenna to stablish more than one contact
     Constraint antennaConflict(ConstraintFactory constraintFactory) {
-        return constraintFactory
-                /// Select each pair of 2 different ContactRequests ...
-                .fromUniquePair(ContactRequest.class)
-                // ... select those that ...
-                .filter((cr1, cr2) -> 
-                        // ... have a visibility allocated ...
-                        cr1.getVisibility() != null && cr2.getVisibility() != null
-                        // ... and visibilities are on the same antenna ...
-                        && cr1.getVisibility().getAntenna().equals(cr2.getVisibility().getAntenna())
-                        // ... and the visibilities' periods overlap
-                        && overlappingPeriods(
-                                cr1.getVisibility().getFrom(), 
-                                cr1.getVisibility().getFrom().plus(cr1.getDuration()), 
-                                cr2.getVisibility().getFrom(), 
-                                cr2.getVisibility().getFrom().plus(cr2.getDuration()))
+        // Select each pair of 2 different assigned ContactRequests on the same antenna, whose contacts' periods may
+        // overlap ...
+        return joinPossiblyOverlapping(constraintFactory, ContactRequest::getAntennaKey,
+                        ContactRequest::getContactStartKey, ContactRequest::getContactEndKey)
+                .filter((cr1, cr2) ->
+                        // ... and do overlap, in different visibilities (the same one is a visibility conflict)
+                        cr1.getVisibility() != cr2.getVisibility() && overlappingContacts(cr1, cr2)
                 )
         // ... and penalize each pair with a hard weight.
-        .penalize("Antenna conflict", HardSoftScore.ONE_HARD);
+        .penalize("Antenna conflict", HardMediumSoftScore.ONE_HARD);
+    }
+
+    // Should serve as many contact requests as possible, the higher priorities first
+    Constraint unassignedRequest(ConstraintFactory constraintFactory) {
+        return constraintFactory
+                // Select contacts, the unassigned ones included ...
+                .fromUnfiltered(ContactRequest.class)
+                        // ... without visibility ...
+                        .filter(cr -> cr.getVisibility() == null)
+                // ... and penalize them with a medium weight, their priority.
+                .penalize("Unassigned request", HardMediumSoftScore.ONE_MEDIUM, ContactRequest::getPriority);
+    }
+
+    // Half-open periods sharing an instant, starting at the same time included
+    static boolean overlappingContacts(long fromLeft, long toLeft, long fromRight, long toRight) {
+        return fromLeft < toRight && fromRight < toLeft;
     }
 
-    static boolean overlappingPeriods(Instant fromLeft, Instant toLeft, Instant fromRight, Instant toRight) {
-        return fromLeft.isBefore(fromRight) && fromRight.isBefore(toLeft)
-                || fromRight.isBefore(fromLeft) && fromLeft.isBefore(toRight);
+    static boolean overlappingContacts(ContactRequest cr1, ContactRequest cr2) {
+        return overlappingContacts(cr1.getContactStart(), cr1.getContactEnd(), cr2.getContactStart(),
+                cr2.getContactEnd());
     }
 }
@@ -0,0 +1,295 @@
+package org.acme.sat.constraints;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.NameDictionary;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.calculator.ConstraintMatchAwareIncrementalScoreCalculator;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.impl.score.constraint.DefaultConstraintMatchTotal;
+
+/**
+ * Same score as {@link ContactPlanConstraintProvider}, calculated incrementally by hand: the requests of each
+ * visibility, the sum of the priorities of the unassigned requests, and per satellite and per antenna a timeline of
+ * the assigned requests sorted by start, in arrays by id in the {@link NameDictionary} of the plan. A variable change
+ * only looks up the requests starting close to the old and new periods, in O(log n) plus the few neighbours.
+ * <p>
+ * Constraint matches, for the score explanation and the indictments of the plan diagram, are calculated from scratch
+ * on demand, with the same constraint names.
+ */
+public class ContactPlanIncrementalScoreCalculator
+        implements ConstraintMatchAwareIncrementalScoreCalculator<ContactPlan, HardMediumSoftScore> {
+
+    private static final String VISIBILITY_CONFLICT = "Visibility conflict";
+    private static final String VISIBILITY_TOO_SHORT = "Visibility too short";
+    private static final String VISIBILITY_FOR_OTHER_SAT = "Visibility does not match sat";
+    private static final String SATELLITE_CONFLICT = "Satellite conflict";
+    private static final String ANTENNA_CONFLICT = "Antenna conflict";
+    private static final String UNASSIGNED_REQUEST = "Unassigned request";
+    // The constraint streams' default package
+    private static final String CONSTRAINT_PACKAGE = ContactPlan.class.getPackageName();
+
+    private ContactPlan workingSolution;
+    private Map<Visibility, List<ContactRequest>> requestsByVisibility;
+    // By id in the NameDictionary of the working solution
+    private Timeline[] satelliteTimelines;
+    private Timeline[] antennaTimelines;
+    private int hardScore;
+    private int mediumScore;
+
+    @Override
+    public void resetWorkingSolution(ContactPlan workingSolution) {
+        this.workingSolution = workingSolution;
+        requestsByVisibility = new HashMap<>();
+        satelliteTimelines = new Timeline[workingSolution.getSatelliteNames().size()];
+        antennaTimelines = new Timeline[workingSolution.getAntennaNames().size()];
+        hardScore = 0;
+        mediumScore = 0;
+        for (ContactRequest cr : workingSolution.getContactRequests()) {
+            insert(cr);
+        }
+    }
+
+    @Override
+    public void resetWorkingSolution(ContactPlan workingSolution, boolean constraintMatchEnabled) {
+        resetWorkingSolution(workingSolution);
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((ContactRequest) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((ContactRequest) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((ContactRequest) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((ContactRequest) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+    }
+
+    @Override
+    public HardMediumSoftScore calculateScore() {
+        return HardMediumSoftScore.of(hardScore, mediumScore, 0);
+    }
+
+    private void insert(ContactRequest cr) {
+        Visibility visibility = cr.getVisibility();
+        if (visibility == null) {
+            mediumScore -= cr.getPriority();
+            return;
+        }
+        List<ContactRequest> sameVisibility = requestsByVisibility.computeIfAbsent(visibility, k -> new ArrayList<>(1));
+        hardScore -= visibilityConflicts(cr, sameVisibility);
+        sameVisibility.add(cr);
+        hardScore -= unaryPenalty(cr);
+        satelliteTimelines = satelliteTimelines(satelliteTimelines, cr, workingSolution.getSatelliteNames());
+        hardScore -= satelliteTimelines[cr.getSatelliteId()].insert(cr, null);
+        antennaTimelines = antennaTimelines(antennaTimelines, cr, workingSolution.getAntennaNames());
+        hardScore -= antennaTimelines[cr.getAntennaId()].insert(cr, null);
+    }
+
+    private void retract(ContactRequest cr) {
+        Visibility visibility = cr.getVisibility();
+        if (visibility == null) {
+            mediumScore += cr.getPriority();
+            return;
+        }
+        List<ContactRequest> sameVisibility = requestsByVisibility.get(visibility);
+        sameVisibility.remove(cr);
+        if (sameVisibility.isEmpty()) {
+            requestsByVisibility.remove(visibility);
+        }
+        hardScore += visibilityConflicts(cr, sameVisibility);
+        hardScore += unaryPenalty(cr);
+        hardScore += satelliteTimelines[cr.getSatelliteId()].retract(cr);
+        hardScore += antennaTimelines[visibility.getAntennaId()].retract(cr);
+    }
+
+    // The requests of the same visibility whose contacts overlap the one of the request, a few at most
+    private static int visibilityConflicts(ContactRequest cr, List<ContactRequest> sameVisibility) {
+        int conflicts = 0;
+        for (ContactRequest other : sameVisibility) {
+            if (other != cr && ContactPlanConstraintProvider.overlappingContacts(cr, other)) {
+                conflicts++;
+            }
+        }
+        return conflicts;
+    }
+
+    private static int unaryPenalty(ContactRequest cr) {
+        Visibility visibility = cr.getVisibility();
+        return (isTooShort(cr, visibility) ? 1 : 0) + (isForOtherSat(cr, visibility) ? 1 : 0);
+    }
+
+    private static boolean isTooShort(ContactRequest cr, Visibility visibility) {
+        return cr.getDurationMillis() > visibility.getDurationMillis();
+    }
+
+    private static boolean isForOtherSat(ContactRequest cr, Visibility visibility) {
+        return cr.getSatelliteId() != visibility.getSatelliteId();
+    }
+
+    /**
+     * @return the timelines, grown if the satellite was interned after they were sized, with the timeline of the
+     * satellite of the request
+     */
+    private static Timeline[] satelliteTimelines(Timeline[] satelliteTimelines, ContactRequest cr,
+            NameDictionary satelliteNames) {
+        Timeline[] timelines = grown(satelliteTimelines, cr.getSatelliteId(), satelliteNames);
+        if (timelines[cr.getSatelliteId()] == null) {
+            timelines[cr.getSatelliteId()] = new Timeline();
+        }
+        return timelines;
+    }
+
+    private static Timeline[] antennaTimelines(Timeline[] antennaTimelines, ContactRequest cr,
+            NameDictionary antennaNames) {
+        Timeline[] timelines = grown(antennaTimelines, cr.getAntennaId(), antennaNames);
+        if (timelines[cr.getAntennaId()] == null) {
+            timelines[cr.getAntennaId()] = new Timeline();
+        }
+        return timelines;
+    }
+
+    private static Timeline[] grown(Timeline[] timelines, int id, NameDictionary dictionary) {
+        return id < timelines.length ? timelines : Arrays.copyOf(timelines, Math.max(id + 1, dictionary.size()));
+    }
+
+    @Override
+    public Collection<ConstraintMatchTotal<HardMediumSoftScore>> getConstraintMatchTotals() {
+        DefaultConstraintMatchTotal<HardMediumSoftScore> visibilityConflict = matchTotal(VISIBILITY_CONFLICT);
+        DefaultConstraintMatchTotal<HardMediumSoftScore> tooShort = matchTotal(VISIBILITY_TOO_SHORT);
+        DefaultConstraintMatchTotal<HardMediumSoftScore> otherSat = matchTotal(VISIBILITY_FOR_OTHER_SAT);
+        DefaultConstraintMatchTotal<HardMediumSoftScore> satelliteConflict = matchTotal(SATELLITE_CONFLICT);
+        DefaultConstraintMatchTotal<HardMediumSoftScore> antennaConflict = matchTotal(ANTENNA_CONFLICT);
+        DefaultConstraintMatchTotal<HardMediumSoftScore> unassigned = new DefaultConstraintMatchTotal<>(
+                CONSTRAINT_PACKAGE, UNASSIGNED_REQUEST, HardMediumSoftScore.ONE_MEDIUM, HardMediumSoftScore.ZERO);
+        Map<Visibility, List<ContactRequest>> requestsByVisibility = new HashMap<>();
+        Timeline[] satellites = new Timeline[workingSolution.getSatelliteNames().size()];
+        Timeline[] antennas = new Timeline[workingSolution.getAntennaNames().size()];
+        for (ContactRequest cr : workingSolution.getContactRequests()) {
+            Visibility visibility = cr.getVisibility();
+            if (visibility == null) {
+                unassigned.addConstraintMatch(List.of(cr), HardMediumSoftScore.ofMedium(-cr.getPriority()));
+                continue;
+            }
+            List<ContactRequest> sameVisibility = requestsByVisibility.computeIfAbsent(visibility, k -> new ArrayList<>());
+            for (ContactRequest other : sameVisibility) {
+                if (ContactPlanConstraintProvider.overlappingContacts(other, cr)) {
+                    addPairMatch(visibilityConflict, other, cr);
+                }
+            }
+            sameVisibility.add(cr);
+            if (isTooShort(cr, visibility)) {
+                tooShort.addConstraintMatch(List.of(cr), HardMediumSoftScore.ONE_HARD.negate());
+            }
+            if (isForOtherSat(cr, visibility)) {
+                otherSat.addConstraintMatch(List.of(cr), HardMediumSoftScore.ONE_HARD.negate());
+            }
+            satellites = satelliteTimelines(satellites, cr, workingSolution.getSatelliteNames());
+            satellites[cr.getSatelliteId()].insert(cr, (other, r) -> addPairMatch(satelliteConflict, other, r));
+            antennas = antennaTimelines(antennas, cr, workingSolution.getAntennaNames());
+            antennas[cr.getAntennaId()].insert(cr, (other, r) -> addPairMatch(antennaConflict, other, r));
+        }
+        return Arrays.asList(visibilityConflict, tooShort, otherSat, satelliteConflict, antennaConflict, unassigned);
+    }
+
+    private static DefaultConstraintMatchTotal<HardMediumSoftScore> matchTotal(String constraintName) {
+        return new DefaultConstraintMatchTotal<>(CONSTRAINT_PACKAGE, constraintName, HardMediumSoftScore.ONE_HARD,
+                HardMediumSoftScore.ZERO);
+    }
+
+    private static void addPairMatch(DefaultConstraintMatchTotal<HardMediumSoftScore> matchTotal, ContactRequest a,
+            ContactRequest b) {
+        matchTotal.addConstraintMatch(List.of(a, b), HardMediumSoftScore.ONE_HARD.negate());
+    }
+
+    @Override
+    public Map<Object, Indictment<HardMediumSoftScore>> getIndictmentMap() {
+        // Derived from the constraint match totals
+        return null;
+    }
+
+    /**
+     * The assigned requests of a satellite or an antenna sorted by contact start, each over its contact. The requests
+     * sharing a visibility are left to the visibility conflict.
+     */
+    private static class Timeline {
+        private final TreeMap<Long, List<ContactRequest>> requestsByStart = new TreeMap<>();
+        // Longest contact inserted so far, bounds the starts of the contacts overlapping a given start
+        private long maxLength;
+
+        /**
+         * @param onConflict called with each conflicting request and the inserted one, can be null
+         * @return the number of requests the inserted one conflicts with
+         */
+        int insert(ContactRequest cr, BiConsumer<ContactRequest, ContactRequest> onConflict) {
+            long crFrom = cr.getContactStart();
+            long crTo = crFrom + cr.getDurationMillis();
+            int conflicts = conflicts(cr, crFrom, crTo, onConflict);
+            requestsByStart.computeIfAbsent(crFrom, k -> new ArrayList<>(1)).add(cr);
+            maxLength = Math.max(maxLength, crTo - crFrom);
+            return conflicts;
+        }
+
+        /**
+         * @return the number of requests the retracted one conflicted with
+         */
+        int retract(ContactRequest cr) {
+            long crFrom = cr.getContactStart();
+            List<ContactRequest> sameStart = requestsByStart.get(crFrom);
+            sameStart.remove(cr);
+            if (sameStart.isEmpty()) {
+                requestsByStart.remove(crFrom);
+            }
+            return conflicts(cr, crFrom, crFrom + cr.getDurationMillis(), null);
+        }
+
+        // Contacts conflicting with [crFrom, crTo) start either inside it or less than maxLength before it
+        private int conflicts(ContactRequest cr, long crFrom, long crTo,
+                BiConsumer<ContactRequest, ContactRequest> onConflict) {
+            int conflicts = 0;
+            for (List<ContactRequest> others : requestsByStart
+                    .subMap(crFrom - maxLength, true, Math.max(crFrom, crTo), false).values()) {
+                for (ContactRequest other : others) {
+                    if (other != cr && other.getVisibility() != cr.getVisibility()
+                            && ContactPlanConstraintProvider.overlappingContacts(crFrom, crTo,
+                                    other.getContactStart(), other.getContactEnd())) {
+                        conflicts++;
+                        if (onConflict != null) {
+                            onConflict.accept(other, cr);
+                        }
+                    }
+                }
+            }
+            return conflicts;
+        }
+    }
+}
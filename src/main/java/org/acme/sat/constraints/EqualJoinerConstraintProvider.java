@@ -0,0 +1,27 @@
+package org.acme.sat.constraints;
+
+import java.util.function.Function;
+
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.Joiners;
+import org.optaplanner.core.api.score.stream.bi.BiConstraintStream;
+
+/**
+ * The constraints of {@link ContactPlanConstraintProvider}, the conflicts joined on equal keys only, the pair order
+ * being filtered and the periods left to the overlap filters of the conflicts: the Bavet constraint streams of
+ * OptaPlanner 8.12 only support a comparison joiner last, and no overlapping joiner. Each request is joined with all
+ * the others of its satellite or antenna, so the Drools version scales better.
+ */
+public class EqualJoinerConstraintProvider extends ContactPlanConstraintProvider {
+
+    @Override
+    protected BiConstraintStream<ContactRequest, ContactRequest> joinPossiblyOverlapping(
+            ConstraintFactory constraintFactory, Function<ContactRequest, ?> key,
+            Function<ContactRequest, Long> start, Function<ContactRequest, Long> end) {
+        return assignedRequests(constraintFactory)
+                .join(assignedRequests(constraintFactory), Joiners.equal(key))
+                // Each pair once
+                .filter((cr1, cr2) -> cr1.getId().compareTo(cr2.getId()) < 0);
+    }
+}
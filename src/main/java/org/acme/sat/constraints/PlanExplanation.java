@@ -0,0 +1,156 @@
+package org.acme.sat.constraints;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+/**
+ * The explanation of the score of a plan, calculated once for the summary and the plan diagram.
+ * <p>
+ * Unlike {@link org.optaplanner.core.api.score.ScoreManager#explainScore(Object)}, it does not build the
+ * indictments of every justification: only the requests with a negative hard score are kept, and with a limit per
+ * constraint only the matches of the limit requests with the most matches of each constraint. The other requests
+ * with a negative hard score are only counted and flagged, so the memory and the time spent reporting stay bounded
+ * however infeasible the plan is.
+ */
+public class PlanExplanation {
+
+    private final HardMediumSoftScore score;
+    private final int limitPerConstraint;
+    private final List<ConstraintMatchTotal<HardMediumSoftScore>> constraintMatchTotals;
+    // Whether each request has a negative hard score, and the matches kept for some of them
+    private final Set<ContactRequest> hardPenalizedRequests;
+    private final Map<ContactRequest, List<ConstraintMatch<HardMediumSoftScore>>> hardMatchesByRequest;
+
+    private PlanExplanation(HardMediumSoftScore score, int limitPerConstraint,
+            List<ConstraintMatchTotal<HardMediumSoftScore>> constraintMatchTotals, Set<ContactRequest> hardPenalizedRequests,
+            Map<ContactRequest, List<ConstraintMatch<HardMediumSoftScore>>> hardMatchesByRequest) {
+        this.score = score;
+        this.limitPerConstraint = limitPerConstraint;
+        this.constraintMatchTotals = constraintMatchTotals;
+        this.hardPenalizedRequests = hardPenalizedRequests;
+        this.hardMatchesByRequest = hardMatchesByRequest;
+    }
+
+    /**
+     * @param limitPerConstraint the most requests whose matches are kept per constraint, Integer.MAX_VALUE for all
+     */
+    public static PlanExplanation explain(SolverFactory<ContactPlan> solverFactory, ContactPlan plan,
+            int limitPerConstraint) {
+        @SuppressWarnings("unchecked")
+        InnerScoreDirector<ContactPlan, HardMediumSoftScore> constraintMatchScoreDirector =
+                (InnerScoreDirector<ContactPlan, HardMediumSoftScore>) ((DefaultSolverFactory<ContactPlan>) solverFactory)
+                        .getScoreDirectorFactory().buildScoreDirector(false, true);
+        try (InnerScoreDirector<ContactPlan, HardMediumSoftScore> scoreDirector = constraintMatchScoreDirector) {
+            scoreDirector.setWorkingSolution(plan);
+            HardMediumSoftScore score = scoreDirector.calculateScore();
+            List<ConstraintMatchTotal<HardMediumSoftScore>> constraintMatchTotals =
+                    new ArrayList<>(scoreDirector.getConstraintMatchTotalMap().values());
+            constraintMatchTotals.sort(Comparator.comparing(ConstraintMatchTotal<HardMediumSoftScore>::getScore)
+                    .thenComparing(ConstraintMatchTotal::getConstraintName));
+            Set<ContactRequest> hardPenalizedRequests = Collections.newSetFromMap(new IdentityHashMap<>());
+            Map<ContactRequest, List<ConstraintMatch<HardMediumSoftScore>>> hardMatchesByRequest = new IdentityHashMap<>();
+            for (ConstraintMatchTotal<HardMediumSoftScore> total : constraintMatchTotals) {
+                keepMostPenalized(total, limitPerConstraint, hardPenalizedRequests, hardMatchesByRequest);
+            }
+            return new PlanExplanation(score, limitPerConstraint, constraintMatchTotals, hardPenalizedRequests,
+                    hardMatchesByRequest);
+        }
+    }
+
+    private static void keepMostPenalized(ConstraintMatchTotal<HardMediumSoftScore> total, int limitPerConstraint,
+            Set<ContactRequest> hardPenalizedRequests,
+            Map<ContactRequest, List<ConstraintMatch<HardMediumSoftScore>>> hardMatchesByRequest) {
+        Map<ContactRequest, Integer> matchCounts = new IdentityHashMap<>();
+        for (ConstraintMatch<HardMediumSoftScore> match : total.getConstraintMatchSet()) {
+            if (match.getScore().getHardScore() < 0) {
+                for (Object justification : match.getJustificationList()) {
+                    if (justification instanceof ContactRequest) {
+                        matchCounts.merge((ContactRequest) justification, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        hardPenalizedRequests.addAll(matchCounts.keySet());
+        Set<ContactRequest> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (matchCounts.size() <= limitPerConstraint) {
+            kept.addAll(matchCounts.keySet());
+        } else {
+            matchCounts.entrySet().stream()
+                    .sorted(Map.Entry.<ContactRequest, Integer>comparingByValue().reversed()
+                            .thenComparing(entry -> entry.getKey().getId()))
+                    .limit(limitPerConstraint)
+                    .forEach(entry -> kept.add(entry.getKey()));
+        }
+        for (ConstraintMatch<HardMediumSoftScore> match : total.getConstraintMatchSet()) {
+            if (match.getScore().getHardScore() < 0) {
+                for (Object justification : match.getJustificationList()) {
+                    if (kept.contains(justification)) {
+                        hardMatchesByRequest.computeIfAbsent((ContactRequest) justification, k -> new ArrayList<>())
+                                .add(match);
+                    }
+                }
+            }
+        }
+    }
+
+    public HardMediumSoftScore getScore() {
+        return score;
+    }
+
+    /**
+     * @return true if the request has a negative hard score, whether its matches are kept or not
+     */
+    public boolean isHardPenalized(ContactRequest cr) {
+        return hardPenalizedRequests.contains(cr);
+    }
+
+    /**
+     * @return the hard matches kept for the request, empty if none
+     */
+    public List<ConstraintMatch<HardMediumSoftScore>> getHardMatches(ContactRequest cr) {
+        return hardMatchesByRequest.getOrDefault(cr, Collections.emptyList());
+    }
+
+    public String getSummary() {
+        String lb = System.lineSeparator();
+        StringBuilder summary = new StringBuilder("Explanation of score (").append(score).append("):").append(lb)
+                .append("    Constraint match totals:");
+        for (ConstraintMatchTotal<HardMediumSoftScore> total : constraintMatchTotals) {
+            if (total.getConstraintMatchCount() > 0) {
+                summary.append(lb).append("        ").append(total.getScore()).append(": constraint (")
+                        .append(total.getConstraintName()).append(") has ").append(total.getConstraintMatchCount())
+                        .append(" matches");
+            }
+        }
+        summary.append(lb).append("    ").append(hardPenalizedRequests.size()).append(" requests with a negative hard score");
+        if (limitPerConstraint != Integer.MAX_VALUE) {
+            summary.append(", the matches of ").append(hardMatchesByRequest.size())
+                    .append(" of them kept, at most ").append(limitPerConstraint).append(" per constraint");
+        }
+        // Most penalized first, in a stable order
+        Map<ContactRequest, Integer> matchCounts = new LinkedHashMap<>();
+        hardMatchesByRequest.entrySet().stream()
+                .sorted(Comparator.comparingInt((Map.Entry<ContactRequest, List<ConstraintMatch<HardMediumSoftScore>>> entry)
+                        -> entry.getValue().size()).reversed().thenComparing(entry -> entry.getKey().getId()))
+                .limit(5)
+                .forEach(entry -> matchCounts.put(entry.getKey(), entry.getValue().size()));
+        matchCounts.forEach((cr, count) -> summary.append(lb).append("        ").append(cr.getId()).append(": ")
+                .append(count).append(" hard matches"));
+        return summary.toString();
+    }
+}
@@ -6,37 +6,137 @@ import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
-import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.domain.solution.ProblemFactProperty;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 
 @PlanningSolution
 public class ContactPlan {
     @ProblemFactCollectionProperty
-    @ValueRangeProvider(id = "visibilityRange")
     private List<Visibility> visibilities;
     @PlanningEntityCollectionProperty
     private List<ContactRequest> contactRequests;
+    // Of this plan and those derived from it, see NameDictionary
+    @ProblemFactProperty
+    private NameDictionary satelliteNames;
+    @ProblemFactProperty
+    private NameDictionary antennaNames;
+    // Of the visibilities, built on first use, replaced rather than modified as they change
+    private VisibilityIndex visibilityIndex;
 
     @PlanningScore
-    private HardSoftScore score;
+    private HardMediumSoftScore score;
 
     public ContactPlan() {
     }
 
+    /**
+     * A plan of name dictionaries of its own, interning the names of the visibilities and requests, which are given
+     * their candidate visibilities.
+     */
     public ContactPlan(List<Visibility> visibilities, List<ContactRequest> contactRequests) {
+        this(visibilities, contactRequests, new NameDictionary(), new NameDictionary());
+    }
+
+    /**
+     * A plan of some of the visibilities and requests of the parent plan, or of copies of them, sharing its name
+     * dictionaries. The requests are given their candidate visibilities among those of this plan.
+     */
+    public ContactPlan(List<Visibility> visibilities, List<ContactRequest> contactRequests, ContactPlan parent) {
+        this(visibilities, contactRequests, parent.satelliteNames, parent.antennaNames);
+    }
+
+    private ContactPlan(List<Visibility> visibilities, List<ContactRequest> contactRequests,
+            NameDictionary satelliteNames, NameDictionary antennaNames) {
         this.visibilities = visibilities;
         this.contactRequests = contactRequests;
+        this.satelliteNames = satelliteNames;
+        this.antennaNames = antennaNames;
+        visibilities.forEach(this::intern);
+        contactRequests.forEach(this::intern);
+        visibilityIndex = new VisibilityIndex(visibilities);
+        for (ContactRequest cr : contactRequests) {
+            cr.setCandidateVisibilities(visibilityIndex.getCandidates(cr.getSatelliteId(), cr.getDuration()));
+        }
     }
 
     public List<Visibility> getVisibilities() {
         return visibilities;
     }
 
+    /**
+     * Also drops the index of the previous visibilities, see {@link #setVisibilityIndex(VisibilityIndex)}.
+     */
+    public void setVisibilities(List<Visibility> visibilities) {
+        this.visibilities = visibilities;
+        this.visibilityIndex = null;
+    }
+
+    /**
+     * @return the index of the visibilities of the plan, built once unless they are replaced
+     */
+    public VisibilityIndex getVisibilityIndex() {
+        if (visibilityIndex == null) {
+            visibilityIndex = new VisibilityIndex(visibilities);
+        }
+        return visibilityIndex;
+    }
+
+    /**
+     * @param visibilityIndex the index of the visibilities last set, derived from the previous one
+     */
+    public void setVisibilityIndex(VisibilityIndex visibilityIndex) {
+        this.visibilityIndex = visibilityIndex;
+    }
+
     public List<ContactRequest> getContactRequests() {
         return contactRequests;
     }
 
-    public HardSoftScore getScore() {
+    public void setContactRequests(List<ContactRequest> contactRequests) {
+        this.contactRequests = contactRequests;
+    }
+
+    /**
+     * Interns the names of a visibility added to the plan, or to a plan derived from it.
+     */
+    public void intern(Visibility visibility) {
+        visibility.internNames(satelliteNames, antennaNames);
+    }
+
+    /**
+     * Interns the satellite name of a request added to the plan, or to a plan derived from it.
+     */
+    public void intern(ContactRequest contactRequest) {
+        contactRequest.internNames(satelliteNames);
+    }
+
+    /**
+     * @return the dictionary of the satellite names of the plan, its size bounds their ids
+     */
+    public NameDictionary getSatelliteNames() {
+        return satelliteNames;
+    }
+
+    /**
+     * @return the dictionary of the antenna names of the plan, its size bounds their ids
+     */
+    public NameDictionary getAntennaNames() {
+        return antennaNames;
+    }
+
+    /**
+     * Shares the name dictionaries of the parent plan, for a plan filled with its visibilities and requests.
+     */
+    public void setNames(ContactPlan parent) {
+        this.satelliteNames = parent.satelliteNames;
+        this.antennaNames = parent.antennaNames;
+    }
+
+    public HardMediumSoftScore getScore() {
         return score;
-    }    
+    }
+
+    public void setScore(HardMediumSoftScore score) {
+        this.score = score;
+    }
 }
@@ -2,24 +2,53 @@ package org.acme.sat.domain;
 
 import java.time.Duration;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.UUID;
 
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.valuerange.CountableValueRange;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeFactory;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-@PlanningEntity
+@PlanningEntity(difficultyComparatorClass = ContactRequestDifficultyComparator.class)
 public class ContactRequest {
-    private static final Logger LOGGER = LoggerFactory.getLogger(ContactRequest.class);
+    /**
+     * The granularity of the contact start within its visibility.
+     */
+    public static final Duration START_OFFSET_STEP = Duration.ofSeconds(30);
+    private static final long START_OFFSET_STEP_MILLIS = START_OFFSET_STEP.toMillis();
 
     @PlanningId
     private String id;
     private String satellite;
-    private Duration duration;
-    @PlanningVariable(valueRangeProviderRefs = "visibilityRange")
+    // Id in the NameDictionary of the plan
+    private NameDictionary satelliteNames;
+    private int satelliteId = NameDictionary.NONE;
+    // Milliseconds
+    private long duration;
+    // Left unassigned when no visibility can serve the request without conflict
+    @PlanningVariable(valueRangeProviderRefs = "visibilityRange", nullable = true)
     private Visibility visibility;
+    // Contact start after the visibility start, in START_OFFSET_STEPs, within the slack of the visibility
+    @PlanningVariable(valueRangeProviderRefs = "startOffsetRange")
+    private Integer startOffset = 0;
+    // Weight of the request left unassigned
+    private int priority = 1;
+    // Committed contact, its visibility is not changed by the solver
+    @PlanningPin
+    private boolean pinned;
+    // Visibilities of the requested sat lasting at least the requested duration
+    private List<Visibility> candidateVisibilities;
+    // Start offsets up to the largest slack of the candidates
+    private CountableValueRange<Integer> startOffsetRange;
+    // Contact period in the visibility and at the offset it was computed for, boxed once for the constraint joiners
+    private Visibility contactKeysVisibility;
+    private int contactKeysStartOffset;
+    private Long contactStartKey;
+    private Long contactEndKey;
 
     public ContactRequest() {
     }
@@ -27,22 +56,33 @@ public class ContactRequest {
     public ContactRequest(String satellite, Duration duration) {
         this.id = getPseudoUniqueId();
         this.satellite = satellite;
+        this.duration = duration.toMillis();
+    }
+
+    /**
+     * @param duration millis
+     */
+    public ContactRequest(String id, String satellite, long duration) {
+        this.id = id;
+        this.satellite = satellite;
         this.duration = duration;
     }
 
+    /**
+     * @throws IllegalArgumentException if the line is malformed, see {@link org.acme.sat.io.CsvLoader} to load whole
+     * files.
+     */
     public ContactRequest(String csvLine) {
         String[] parts = csvLine.split(","); 
         if (parts.length<3) {
-            LOGGER.error("Malformed CVS line for ContactRequest: "+csvLine);
-            System.exit(1);
+            throw new IllegalArgumentException("Malformed CVS line for ContactRequest: "+csvLine);
         }
         this.id = parts[0];
         this.satellite = parts[2];
         try {
-        this.duration = Duration.parse(parts[1]);
+        this.duration = Duration.parse(parts[1]).toMillis();
         } catch (DateTimeParseException e) {
-            LOGGER.error("unable to parse duration from CVS line: "+parts[1]);
-            System.exit(1);
+            throw new IllegalArgumentException("unable to parse duration from CVS line: "+parts[1], e);
         }
     }
 
@@ -52,17 +92,48 @@ public class ContactRequest {
     public void setId(String id) {
         this.id = id;
     }
+    /**
+     * Interns the satellite name in the dictionary of the plan, keeping its instance only, see
+     * {@link ContactPlan#intern(ContactRequest)}.
+     */
+    void internNames(NameDictionary satelliteNames) {
+        this.satelliteNames = satelliteNames;
+        this.satelliteId = satelliteNames.intern(satellite);
+        this.satellite = satelliteNames.nameOf(satelliteId);
+    }
     public String getSatellite() {
         return satellite;
     }
     public void setSatellite(String satellite) {
         this.satellite = satellite;
+        this.satelliteId = satelliteNames == null ? NameDictionary.NONE : satelliteNames.intern(satellite);
+    }
+    /**
+     * @return the id of the satellite in the plan, {@link NameDictionary#NONE} until interned by it
+     */
+    public int getSatelliteId() {
+        return satelliteId;
+    }
+    public Integer getSatelliteKey() {
+        return satelliteNames == null ? null : satelliteNames.keyOf(satelliteId);
     }
     public Duration getDuration() {
-        return duration;
+        return Duration.ofMillis(duration);
     }
     public void setDuration(Duration duration) {
-        this.duration = duration;
+        this.duration = duration.toMillis();
+    }
+    public long getDurationMillis() {
+        return duration;
+    }
+    public int getPriority() {
+        return priority;
+    }
+    /**
+     * @param priority positive, the penalty of the request left unassigned
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
     }
     public Visibility getVisibility() {
         return visibility;
@@ -70,6 +141,112 @@ public class ContactRequest {
     public void setVisibility(Visibility visibility) {
         this.visibility = visibility;
     }
+    public Integer getStartOffset() {
+        return startOffset;
+    }
+    /**
+     * @param startOffset in {@link #START_OFFSET_STEP}s, clamped to the slack of the visibility
+     */
+    public void setStartOffset(Integer startOffset) {
+        this.startOffset = startOffset;
+    }
+    public boolean isPinned() {
+        return pinned;
+    }
+    /**
+     * @param pinned true only with an assigned visibility
+     */
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+    // Accessors of the assigned visibility, used by the constraint joiners
+    public String getAntenna() {
+        return visibility == null ? null : visibility.getAntenna();
+    }
+    public int getAntennaId() {
+        return visibility == null ? NameDictionary.NONE : visibility.getAntennaId();
+    }
+    public Integer getAntennaKey() {
+        return visibility == null ? null : visibility.getAntennaKey();
+    }
+    /**
+     * @return the epoch millis when the contact starts, the assigned visibility must not be null.
+     */
+    public long getContactStart() {
+        return getContactStartIn(visibility);
+    }
+    /**
+     * @return the epoch millis when the contact would start in the visibility, at its start offset
+     */
+    public long getContactStartIn(Visibility visibility) {
+        return getContactStartIn(visibility, startOffset);
+    }
+    /**
+     * @return the epoch millis when the contact would start in the visibility at the start offset, at most the
+     * slack of the visibility after its start
+     */
+    public long getContactStartIn(Visibility visibility, int startOffset) {
+        long slack = visibility.getDurationMillis() - duration;
+        return visibility.getFromMillis() + Math.max(0, Math.min(startOffset * START_OFFSET_STEP_MILLIS, slack));
+    }
+    /**
+     * @return the largest start offset of the contact in the visibility, the one ending it with the pass at the
+     * latest; the larger ones start at the same time
+     */
+    public int getMaxStartOffset(Visibility visibility) {
+        return maxStartOffset(visibility.getDurationMillis() - duration);
+    }
+    private static int maxStartOffset(long slack) {
+        return (int) ((Math.max(0, slack) + START_OFFSET_STEP_MILLIS - 1) / START_OFFSET_STEP_MILLIS);
+    }
+    /**
+     * @return the epoch millis when the contact ends, the assigned visibility must not be null.
+     */
+    public long getContactEnd() {
+        return getContactStart() + duration;
+    }
+    public Long getContactStartKey() {
+        updateContactKeys();
+        return contactStartKey;
+    }
+    public Long getContactEndKey() {
+        updateContactKeys();
+        return contactEndKey;
+    }
+    private void updateContactKeys() {
+        if (contactKeysVisibility != visibility || contactKeysStartOffset != startOffset) {
+            contactStartKey = getContactStart();
+            contactEndKey = contactStartKey + duration;
+            contactKeysVisibility = visibility;
+            contactKeysStartOffset = startOffset;
+        }
+    }
+    @ValueRangeProvider(id = "visibilityRange")
+    public List<Visibility> getCandidateVisibilities() {
+        return candidateVisibilities;
+    }
+    public void setCandidateVisibilities(List<Visibility> candidateVisibilities) {
+        this.candidateVisibilities = candidateVisibilities;
+        this.startOffsetRange = null;
+    }
+    /**
+     * @return the start offsets up to the largest slack of the candidate visibilities, 0 only without candidates. The
+     * offsets beyond the slack of the assigned visibility are filtered out of the local search change moves, see
+     * {@link #getMaxStartOffset(Visibility)}.
+     */
+    @ValueRangeProvider(id = "startOffsetRange")
+    public CountableValueRange<Integer> getStartOffsetRange() {
+        if (startOffsetRange == null) {
+            long maxSlack = 0;
+            if (candidateVisibilities != null) {
+                for (Visibility v : candidateVisibilities) {
+                    maxSlack = Math.max(maxSlack, v.getDurationMillis() - duration);
+                }
+            }
+            startOffsetRange = ValueRangeFactory.createIntValueRange(0, maxStartOffset(maxSlack) + 1);
+        }
+        return startOffsetRange;
+    }
 
     private String getPseudoUniqueId() {
         return UUID.randomUUID().toString().substring(0, 5);
@@ -77,14 +254,26 @@ public class ContactRequest {
 
     @Override
     public String toString() {
-        return "ContactRequest [duration=" + duration + ", id=" + id + ", satellite=" + satellite + ", "
+        return "ContactRequest [duration=" + getDuration() + ", id=" + id + ", satellite=" + getSatellite() + ", "
                 + visibility + "]";
     }    
 
     /**
      * @param pin generates the CSV entry with this ContactRequest pinned.
+     * @return id,duration,satellite followed, once assigned, by the visibility id and the pin flag, then the
+     * priority if not 1 or if followed by the start offset (a duration, when not 0), the visibility id - if
+     * unassigned
      */
     public String toCSV(boolean pin) {
-        return id + "," + duration + "," + satellite;
+        String csv = id + "," + getDuration() + "," + getSatellite();
+        boolean offset = visibility != null && startOffset != 0;
+        if (priority != 1 || offset) {
+            return csv + "," + (visibility == null ? "-" : visibility.getId()) + "," + (visibility != null && pin) + ","
+                    + priority + (offset ? "," + START_OFFSET_STEP.multipliedBy(startOffset) : "");
+        }
+        if (visibility == null) {
+            return csv;
+        }
+        return csv + "," + visibility.getId() + "," + pin;
     }
 }
@@ -0,0 +1,17 @@
+package org.acme.sat.domain;
+
+import java.util.Comparator;
+
+/**
+ * Longer contacts are more difficult to fit, so they are assigned first by the decreasing construction heuristics.
+ */
+public class ContactRequestDifficultyComparator implements Comparator<ContactRequest> {
+    private static final Comparator<ContactRequest> COMPARATOR = Comparator
+            .comparingLong(ContactRequest::getDurationMillis)
+            .thenComparing(ContactRequest::getId);
+
+    @Override
+    public int compare(ContactRequest a, ContactRequest b) {
+        return COMPARATOR.compare(a, b);
+    }
+}
@@ -0,0 +1,76 @@
+package org.acme.sat.domain;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dense int ids of the satellite or antenna names of a plan, from 0 in order of first use.
+ * <p>
+ * Each loaded plan has a dictionary of each kind of name, a problem fact of the {@link ContactPlan} interning the
+ * names of its visibilities and requests: the constraints, indexes and timelines join and compare the ids, and size
+ * their arrays by the {@link #size()} of the plan's dictionaries, the names only come back at output time. The
+ * plans derived from a plan, such as its partitions, windows and components, share its dictionaries so that their
+ * ids stay consistent.
+ */
+public final class NameDictionary {
+
+    /**
+     * Id of no name, such as the antenna of an unassigned request.
+     */
+    public static final int NONE = -1;
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // Written under the lock before the id is published in ids, replaced when grown
+    private volatile String[] names = new String[64];
+    // The ids boxed once, for the constraint joiners
+    private volatile Integer[] keys = new Integer[64];
+    private int size;
+
+    /**
+     * @return the id of the name, a new one if it is not known yet, {@link #NONE} for null
+     */
+    public int intern(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer id = ids.get(name);
+        return id != null ? id : add(name);
+    }
+
+    private synchronized int add(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            names = Arrays.copyOf(names, size * 2);
+        }
+        id = size++;
+        keys[id] = id;
+        names[id] = name;
+        ids.put(name, id);
+        return id;
+    }
+
+    /**
+     * @return the name of the id, null for {@link #NONE}
+     */
+    public String nameOf(int id) {
+        return id == NONE ? null : names[id];
+    }
+
+    /**
+     * @return the id boxed, the same instance for every call, null for {@link #NONE}
+     */
+    public Integer keyOf(int id) {
+        return id == NONE ? null : keys[id];
+    }
+
+    /**
+     * @return the number of ids, the ids of the names interned so far are below it
+     */
+    public int size() {
+        return ids.size();
+    }
+}
@@ -5,52 +5,96 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.UUID;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
 
 /**
  * Model of a satellite visibility.
  */
 public class Visibility {
-    private static final Logger LOGGER = LoggerFactory.getLogger(Visibility.class);
     private static final int CSV_PARTS = 5;
 
     private String satellite;
     private String antenna;
-    private Instant from;
-    private Instant to;
-    private Duration duration;
+    // Ids in the NameDictionary of the plan, the constraints compare them instead of the names
+    private NameDictionary satelliteNames;
+    private NameDictionary antennaNames;
+    private int satelliteId = NameDictionary.NONE;
+    private int antennaId = NameDictionary.NONE;
+    // Epoch milliseconds, to compare periods without allocating
+    private long from;
+    private long to;
+    private long duration;
+    // Boxed once, for the constraint joiners which need Comparable keys
+    private Long fromKey;
+    private Long toKey;
+    // Required to look up visibilities from the move threads
+    @PlanningId
     private String id;
 
     
     public Visibility(String satellite, String antenna, Instant from, Instant to) {
+        this.satellite = satellite;
+        this.antenna = antenna;
+        this.from = from.toEpochMilli();
+        this.to = to.toEpochMilli();
+        this.duration = this.to - this.from;
+        this.fromKey = this.from;
+        this.toKey = this.to;
+        this.id = UUID.randomUUID().toString();
+    }
+
+    /**
+     * @param from epoch millis
+     * @param to epoch millis
+     */
+    public Visibility(String id, String satellite, String antenna, long from, long to) {
+        this.id = id;
         this.satellite = satellite;
         this.antenna = antenna;
         this.from = from;
         this.to = to;
-        this.duration = Duration.between(from, to);
-        this.id = UUID.randomUUID().toString();
+        this.duration = to - from;
+        this.fromKey = from;
+        this.toKey = to;
     }
 
+    /**
+     * @throws IllegalArgumentException if the line is malformed, see {@link org.acme.sat.io.CsvLoader} to load whole
+     * files.
+     */
     public Visibility(String csvLine) {
         String[] parts = csvLine.split(","); 
         if (parts.length<CSV_PARTS) {
-            LOGGER.error("Malformed CVS line for Visibility: "+csvLine);
-            System.exit(1);
+            throw new IllegalArgumentException("Malformed CVS line for Visibility: "+csvLine);
         }
         this.id = parts[0];
         this.satellite = parts[1];
-        this.antenna = parts[2];        
+        this.antenna = parts[2];
         try {
-            this.from = Instant.parse(parts[3]);
-            this.to = Instant.parse(parts[4]);
+            this.from = Instant.parse(parts[3]).toEpochMilli();
+            this.to = Instant.parse(parts[4]).toEpochMilli();
         } catch (DateTimeParseException e) {
-            LOGGER.error("unable to parse instant from CVS line: "+e.toString());
-            System.exit(1);
+            throw new IllegalArgumentException("unable to parse instant from CVS line: "+csvLine, e);
         }
-        this.duration = Duration.between(this.from, this.to);
+        this.duration = this.to - this.from;
+        this.fromKey = this.from;
+        this.toKey = this.to;
     }
 
+    /**
+     * Interns the names in the dictionaries of the plan, keeping their instances only, see
+     * {@link ContactPlan#intern(Visibility)}.
+     */
+    void internNames(NameDictionary satelliteNames, NameDictionary antennaNames) {
+        this.satelliteNames = satelliteNames;
+        this.antennaNames = antennaNames;
+        this.satelliteId = satelliteNames.intern(satellite);
+        this.satellite = satelliteNames.nameOf(satelliteId);
+        this.antennaId = antennaNames.intern(antenna);
+        this.antenna = antennaNames.nameOf(antennaId);
+    }
+
+
     public String getSatellite() {
         return satellite;
     }
@@ -58,6 +102,20 @@ public class Visibility {
 
     public void setSatellite(String satellite) {
         this.satellite = satellite;
+        this.satelliteId = satelliteNames == null ? NameDictionary.NONE : satelliteNames.intern(satellite);
+    }
+
+
+    /**
+     * @return the id of the satellite in the plan, {@link NameDictionary#NONE} until interned by it
+     */
+    public int getSatelliteId() {
+        return satelliteId;
+    }
+
+
+    public Integer getSatelliteKey() {
+        return satelliteNames == null ? null : satelliteNames.keyOf(satelliteId);
     }
 
 
@@ -68,41 +126,93 @@ public class Visibility {
 
     public void setAntenna(String antenna) {
         this.antenna = antenna;
+        this.antennaId = antennaNames == null ? NameDictionary.NONE : antennaNames.intern(antenna);
+    }
+
+
+    /**
+     * @return the id of the antenna in the plan, {@link NameDictionary#NONE} until interned by it
+     */
+    public int getAntennaId() {
+        return antennaId;
+    }
+
+
+    public Integer getAntennaKey() {
+        return antennaNames == null ? null : antennaNames.keyOf(antennaId);
     }
 
 
     public Instant getFrom() {
-        return from;
+        return Instant.ofEpochMilli(from);
     }
 
 
     public void setFrom(Instant from) {
-        this.from = from;
+        this.from = from.toEpochMilli();
+        this.duration = this.to - this.from;
+        this.fromKey = this.from;
     }
 
 
     public Instant getTo() {
-        return to;
+        return Instant.ofEpochMilli(to);
     }
 
 
     public void setTo(Instant to) {
-        this.to = to;
+        this.to = to.toEpochMilli();
+        this.duration = this.to - this.from;
+        this.toKey = this.to;
     }
 
 
     public Duration getDuration() {
+        return Duration.ofMillis(duration);
+    }
+
+
+    public long getFromMillis() {
+        return from;
+    }
+
+
+    public long getToMillis() {
+        return to;
+    }
+
+
+    public long getDurationMillis() {
         return duration;
     }
 
+
+    public Long getFromKey() {
+        return fromKey;
+    }
+
+
+    public Long getToKey() {
+        return toKey;
+    }
+
     
     public String getId() {
         return id;
     }
 
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     @Override
     public String toString() {
-        return "Visibility [antenna=" + antenna + ", duration=" + duration + ", satellite=" + satellite + "]";
+        return "Visibility [antenna=" + getAntenna() + ", duration=" + getDuration() + ", satellite=" + getSatellite() + "]";
+    }
+
+    public String toCSV() {
+        return id + "," + getSatellite() + "," + getAntenna() + "," + getFrom() + "," + getTo();
     }
     
     
@@ -0,0 +1,83 @@
+package org.acme.sat.domain;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Index of visibilities grouped by satellite and sorted by duration.
+ * Used to build the candidate visibilities of each contact request. An index is not modified once built, so the
+ * candidates it returned stay valid.
+ */
+public class VisibilityIndex {
+    // By id of the satellite in the NameDictionary of the plan, null for the satellites without visibility
+    private final List<List<Visibility>> visibilitiesBySat;
+
+    public VisibilityIndex(List<Visibility> visibilities) {
+        int satelliteCount = visibilities.stream().mapToInt(Visibility::getSatelliteId).max().orElse(-1) + 1;
+        visibilitiesBySat = new ArrayList<>(Collections.nCopies(satelliteCount, null));
+        for (Visibility v : visibilities) {
+            if (visibilitiesBySat.get(v.getSatelliteId()) == null) {
+                visibilitiesBySat.set(v.getSatelliteId(), new ArrayList<>());
+            }
+            visibilitiesBySat.get(v.getSatelliteId()).add(v);
+        }
+        for (List<Visibility> satVisibilities : visibilitiesBySat) {
+            if (satVisibilities != null) {
+                satVisibilities.sort(Comparator.comparingLong(Visibility::getDurationMillis));
+            }
+        }
+    }
+
+    // The index with other visibilities for a satellite, null if none
+    private VisibilityIndex(VisibilityIndex index, int satelliteId, List<Visibility> satVisibilities) {
+        visibilitiesBySat = new ArrayList<>(index.visibilitiesBySat);
+        visibilitiesBySat.set(satelliteId, satVisibilities);
+    }
+
+    /**
+     * @return an index of the visibilities of this one but the given one, sharing those of the other satellites
+     */
+    public VisibilityIndex without(Visibility visibility) {
+        int satelliteId = visibility.getSatelliteId();
+        List<Visibility> satVisibilities = satelliteId >= 0 && satelliteId < visibilitiesBySat.size()
+                ? visibilitiesBySat.get(satelliteId) : null;
+        if (satVisibilities == null || !satVisibilities.contains(visibility)) {
+            return this;
+        }
+        List<Visibility> remaining = new ArrayList<>(satVisibilities);
+        remaining.remove(visibility);
+        return new VisibilityIndex(this, satelliteId, remaining.isEmpty() ? null : remaining);
+    }
+
+    /**
+     * @return the visibilities of the satellite lasting at least minDuration, shortest first, empty if none fits
+     * or the satellite has no visibility: the request can then only be left unassigned.
+     */
+    public List<Visibility> getCandidates(int satelliteId, Duration minDuration) {
+        List<Visibility> satVisibilities = satelliteId >= 0 && satelliteId < visibilitiesBySat.size()
+                ? visibilitiesBySat.get(satelliteId) : null;
+        if (satVisibilities == null) {
+            return Collections.emptyList();
+        }
+        int first = firstLastingAtLeast(satVisibilities, minDuration.toMillis());
+        return Collections.unmodifiableList(satVisibilities.subList(first, satVisibilities.size()));
+    }
+
+    // Binary search of the first visibility (sorted by duration) lasting at least minDuration
+    private static int firstLastingAtLeast(List<Visibility> sortedVisibilities, long minDuration) {
+        int low = 0;
+        int high = sortedVisibilities.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedVisibilities.get(mid).getDurationMillis() < minDuration) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,291 @@
+package org.acme.sat.generator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deterministic generator of synthetic contact planning problems.
+ * <p>
+ * Each satellite orbits with its own period and phase. On every orbit it passes over each antenna with
+ * a given probability, at a time depending on the antenna location, so passes are periodic per (sat, antenna).
+ * Contact requests are generated per satellite at a target oversubscription ratio: 1.0 means as many requests
+ * as passes, above 1.0 the problem is infeasible.
+ * <p>
+ * Can be run to write the CSV inputs read by {@link org.acme.sat.ContactPlanApp}, see {@link #main(String[])}.
+ */
+public class ScenarioGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioGenerator.class);
+
+    private long seed = 0;
+    private int satelliteCount = 10;
+    private int antennaCount = 5;
+    private int regionCount = 1;
+    private Instant start = Instant.parse("2000-01-01T00:00:00.00Z");
+    private Duration horizon = Duration.ofDays(1);
+    private Duration orbitPeriod = Duration.ofMinutes(95);
+    private double passProbability = 0.3;
+    private Duration minPassDuration = Duration.ofMinutes(4);
+    private Duration maxPassDuration = Duration.ofMinutes(12);
+    private Duration minRequestDuration = Duration.ofMinutes(2);
+    private Duration maxRequestDuration = Duration.ofMinutes(4);
+    private double oversubscription = 0.8;
+    private Integer requestCount = null;
+
+    /**
+     * @return a generator of requestCount requests with about 2 passes per request,
+     * 100 requests per sat and 1 antenna per 10 sats. The reference scale of the benchmarks and scaling tests.
+     */
+    public static ScenarioGenerator forRequestCount(int requestCount) {
+        return forRequestCount(requestCount, 1);
+    }
+
+    /**
+     * @return a generator at the scale of {@link #forRequestCount(int)}, over regionCount regions of at least
+     * 2 antennas each
+     */
+    public static ScenarioGenerator forRequestCount(int requestCount, int regionCount) {
+        ScenarioGenerator generator = new ScenarioGenerator();
+        int satelliteCount = Math.max(regionCount, requestCount / 100);
+        int antennaCount = Math.max(2 * regionCount, satelliteCount / 10);
+        double passesPerDay = satelliteCount * (antennaCount / regionCount) * generator.passProbability
+                * Duration.ofDays(1).toMillis() / generator.orbitPeriod.toMillis();
+        long horizonHours = Math.max(24, Math.round(24 * 2 * requestCount / passesPerDay));
+        return generator
+                .withSatelliteCount(satelliteCount)
+                .withAntennaCount(antennaCount)
+                .withRegionCount(regionCount)
+                .withHorizon(Duration.ofHours(horizonHours))
+                .withRequestCount(requestCount);
+    }
+
+    public ScenarioGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public ScenarioGenerator withSatelliteCount(int satelliteCount) {
+        this.satelliteCount = satelliteCount;
+        return this;
+    }
+
+    public ScenarioGenerator withAntennaCount(int antennaCount) {
+        this.antennaCount = antennaCount;
+        return this;
+    }
+
+    /**
+     * @param regionCount number of regions the satellites and antennas are spread over, a satellite only passing
+     * over the antennas of its region. The regions are independent problems.
+     */
+    public ScenarioGenerator withRegionCount(int regionCount) {
+        this.regionCount = regionCount;
+        return this;
+    }
+
+    public ScenarioGenerator withStart(Instant start) {
+        this.start = start;
+        return this;
+    }
+
+    public ScenarioGenerator withHorizon(Duration horizon) {
+        this.horizon = horizon;
+        return this;
+    }
+
+    /**
+     * @param orbitPeriod mean orbit period, each satellite deviates from it by up to 5%.
+     */
+    public ScenarioGenerator withOrbitPeriod(Duration orbitPeriod) {
+        this.orbitPeriod = orbitPeriod;
+        return this;
+    }
+
+    /**
+     * @param passProbability probability for a satellite to be visible from a given antenna on a given orbit.
+     */
+    public ScenarioGenerator withPassProbability(double passProbability) {
+        this.passProbability = passProbability;
+        return this;
+    }
+
+    public ScenarioGenerator withPassDuration(Duration minPassDuration, Duration maxPassDuration) {
+        this.minPassDuration = minPassDuration;
+        this.maxPassDuration = maxPassDuration;
+        return this;
+    }
+
+    public ScenarioGenerator withRequestDuration(Duration minRequestDuration, Duration maxRequestDuration) {
+        this.minRequestDuration = minRequestDuration;
+        this.maxRequestDuration = maxRequestDuration;
+        return this;
+    }
+
+    /**
+     * @param oversubscription number of requests per pass of each satellite.
+     */
+    public ScenarioGenerator withOversubscription(double oversubscription) {
+        this.oversubscription = oversubscription;
+        return this;
+    }
+
+    /**
+     * @param requestCount total number of requests, spread over the satellites in proportion to their passes.
+     * Overrides the oversubscription ratio, null to use it.
+     */
+    public ScenarioGenerator withRequestCount(Integer requestCount) {
+        this.requestCount = requestCount;
+        return this;
+    }
+
+    /**
+     * @return a new problem, the same for the same settings.
+     */
+    public ContactPlan generate() {
+        Random random = new Random(seed);
+        List<Visibility> visibilities = generateVisibilities(random);
+        List<ContactRequest> contactRequests = generateContactRequests(random, visibilities);
+        return new ContactPlan(visibilities, contactRequests);
+    }
+
+    private List<Visibility> generateVisibilities(Random random) {
+        long periodMillis = orbitPeriod.toMillis();
+        long horizonMillis = horizon.toMillis();
+        // Where each antenna sees the satellites within an orbit
+        double[] antennaOffsets = new double[antennaCount];
+        for (int a = 0; a < antennaCount; a++) {
+            antennaOffsets[a] = random.nextDouble();
+        }
+
+        List<Visibility> visibilities = new ArrayList<>();
+        int id = 1;
+        for (int s = 1; s <= satelliteCount; s++) {
+            long satPeriodMillis = (long) (periodMillis * (0.95 + 0.1 * random.nextDouble()));
+            long satPhaseMillis = (long) (satPeriodMillis * random.nextDouble());
+            for (long orbitStart = satPhaseMillis - satPeriodMillis; orbitStart < horizonMillis; orbitStart += satPeriodMillis) {
+                for (int a = 0; a < antennaCount; a++) {
+                    if ((s - 1) % regionCount != a % regionCount) {
+                        continue;
+                    }
+                    if (random.nextDouble() >= passProbability) {
+                        continue;
+                    }
+                    long from = orbitStart + (long) (antennaOffsets[a] * satPeriodMillis);
+                    long to = from + randomMillis(random, minPassDuration, maxPassDuration);
+                    if (from < 0 || to > horizonMillis) {
+                        continue;
+                    }
+                    Visibility visibility = new Visibility("sat" + s, "ls" + (a + 1),
+                            start.plusMillis(from), start.plusMillis(to));
+                    visibility.setId(Integer.toString(id++));
+                    visibilities.add(visibility);
+                }
+            }
+        }
+        return visibilities;
+    }
+
+    private List<ContactRequest> generateContactRequests(Random random, List<Visibility> visibilities) {
+        List<String> requestedSats = new ArrayList<>();
+        if (requestCount == null) {
+            Map<String, Integer> passCounts = new LinkedHashMap<>();
+            for (Visibility v : visibilities) {
+                passCounts.merge(v.getSatellite(), 1, Integer::sum);
+            }
+            passCounts.forEach((satellite, passCount) -> {
+                long satRequestCount = Math.round(oversubscription * passCount);
+                for (long i = 0; i < satRequestCount; i++) {
+                    requestedSats.add(satellite);
+                }
+            });
+        } else if (!visibilities.isEmpty()) {
+            // Picking the sat of a random pass spreads the requests in proportion to the passes
+            for (int i = 0; i < requestCount; i++) {
+                requestedSats.add(visibilities.get(random.nextInt(visibilities.size())).getSatellite());
+            }
+        }
+
+        List<ContactRequest> contactRequests = new ArrayList<>(requestedSats.size());
+        int id = 1;
+        for (String satellite : requestedSats) {
+            ContactRequest cr = new ContactRequest(satellite,
+                    Duration.ofMillis(randomMillis(random, minRequestDuration, maxRequestDuration)));
+            cr.setId(Integer.toString(id++));
+            contactRequests.add(cr);
+        }
+        return contactRequests;
+    }
+
+    // Whole seconds, as in the CSV inputs
+    private static long randomMillis(Random random, Duration min, Duration max) {
+        long minSeconds = min.getSeconds();
+        long spanSeconds = max.getSeconds() - minSeconds;
+        return (minSeconds + (spanSeconds <= 0 ? 0 : (long) (random.nextDouble() * (spanSeconds + 1)))) * 1000;
+    }
+
+    /**
+     * Writes the problem in the CSV formats read by {@link org.acme.sat.ContactPlanApp}.
+     */
+    public static void write(ContactPlan plan, Path visibilitiesCsv, Path contactRequestsCsv) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(visibilitiesCsv)) {
+            for (Visibility v : plan.getVisibilities()) {
+                writer.write(v.toCSV());
+                writer.newLine();
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(contactRequestsCsv)) {
+            for (ContactRequest cr : plan.getContactRequests()) {
+                writer.write(cr.toCSV(false));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Generates a problem configured by system properties and writes it as CSV, for instance:
+     * <pre>
+     * mvn compile exec:java -Dexec.mainClass=org.acme.sat.generator.ScenarioGenerator \
+     *     -Dgenerator.satellites=50 -Dgenerator.antennas=12 -Dgenerator.horizonHours=48 -Dgenerator.oversubscription=1.2
+     * </pre>
+     */
+    public static void main(String[] args) {
+        ScenarioGenerator generator = new ScenarioGenerator()
+                .withSeed(Long.getLong("generator.seed", 0))
+                .withSatelliteCount(Integer.getInteger("generator.satellites", 10))
+                .withAntennaCount(Integer.getInteger("generator.antennas", 5))
+                .withRegionCount(Integer.getInteger("generator.regions", 1))
+                .withHorizon(Duration.ofHours(Long.getLong("generator.horizonHours", 24)))
+                .withOrbitPeriod(Duration.ofMinutes(Long.getLong("generator.orbitMinutes", 95)))
+                .withPassProbability(Double.parseDouble(System.getProperty("generator.passProbability", "0.3")))
+                .withOversubscription(Double.parseDouble(System.getProperty("generator.oversubscription", "0.8")))
+                .withRequestCount(Integer.getInteger("generator.requests"));
+        Path visibilitiesCsv = Paths.get(System.getProperty("generator.visibilitiesFile", "generated-visibilities.csv"));
+        Path contactRequestsCsv = Paths.get(System.getProperty("generator.contactRequestsFile", "generated-contact-requests.csv"));
+
+        ContactPlan plan = generator.generate();
+        try {
+            write(plan, visibilitiesCsv, contactRequestsCsv);
+        } catch (IOException e) {
+            LOGGER.error("Unable to write the generated problem");
+            LOGGER.error(e.toString());
+            System.exit(1);
+        }
+        LOGGER.info("Generated " + plan.getVisibilities().size() + " visibilities in " + visibilitiesCsv
+                + " and " + plan.getContactRequests().size() + " contact requests in " + contactRequestsCsv);
+    }
+}
@@ -0,0 +1,179 @@
+package org.acme.sat.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.NameDictionary;
+
+/**
+ * A compact binary export of the contact plan, for the downstream tools: big-endian, as written by
+ * {@link DataOutputStream}.
+ * <pre>
+ * int magic "CPLN", short version
+ * int satellite count, the satellite names (modified UTF-8)
+ * int antenna count, the antenna names
+ * int contact count, then per contact request in plan order:
+ *     UTF id, int satellite index, int antenna index (-1 unassigned),
+ *     long start (epoch millis, 0 unassigned), long duration (millis), byte flags (1 pinned, 2 hard penalized)
+ * </pre>
+ * The names are indexed per file, in order of first use. The contacts are written and read one at a time.
+ */
+public final class CompactPlanFormat {
+
+    public static final int MAGIC = 0x43504C4E;
+    public static final short VERSION = 1;
+    public static final int PINNED = 1;
+    public static final int HARD_PENALIZED = 2;
+
+    private CompactPlanFormat() {
+    }
+
+    public static void write(ContactPlan plan, PlanExplanation explanation, Path file) throws IOException {
+        // Id in the NameDictionary of the plan to file index, and back
+        NameDictionary satelliteNames = plan.getSatelliteNames();
+        NameDictionary antennaNames = plan.getAntennaNames();
+        int[] satelliteIndexes = newIndexes(satelliteNames);
+        int[] antennaIndexes = newIndexes(antennaNames);
+        int[] satelliteIds = new int[satelliteNames.size()];
+        int[] antennaIds = new int[antennaNames.size()];
+        int satelliteCount = 0;
+        int antennaCount = 0;
+        for (ContactRequest cr : plan.getContactRequests()) {
+            if (satelliteIndexes[cr.getSatelliteId()] < 0) {
+                satelliteIds[satelliteCount] = cr.getSatelliteId();
+                satelliteIndexes[cr.getSatelliteId()] = satelliteCount++;
+            }
+            if (cr.getAntennaId() != NameDictionary.NONE && antennaIndexes[cr.getAntennaId()] < 0) {
+                antennaIds[antennaCount] = cr.getAntennaId();
+                antennaIndexes[cr.getAntennaId()] = antennaCount++;
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            writeNames(out, satelliteNames, satelliteIds, satelliteCount);
+            writeNames(out, antennaNames, antennaIds, antennaCount);
+            out.writeInt(plan.getContactRequests().size());
+            for (ContactRequest cr : plan.getContactRequests()) {
+                boolean assigned = cr.getVisibility() != null;
+                out.writeUTF(cr.getId());
+                out.writeInt(satelliteIndexes[cr.getSatelliteId()]);
+                out.writeInt(assigned ? antennaIndexes[cr.getAntennaId()] : -1);
+                out.writeLong(assigned ? cr.getContactStart() : 0L);
+                out.writeLong(cr.getDurationMillis());
+                out.writeByte((cr.isPinned() ? PINNED : 0)
+                        | (explanation != null && explanation.isHardPenalized(cr) ? HARD_PENALIZED : 0));
+            }
+        }
+    }
+
+    private static int[] newIndexes(NameDictionary dictionary) {
+        int[] indexes = new int[dictionary.size()];
+        Arrays.fill(indexes, -1);
+        return indexes;
+    }
+
+    private static void writeNames(DataOutputStream out, NameDictionary dictionary, int[] ids, int count)
+            throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeUTF(dictionary.nameOf(ids[i]));
+        }
+    }
+
+    /**
+     * Reads the contacts of a file one at a time, the same {@link Contact} being updated for each.
+     *
+     * @return the number of contacts read
+     */
+    public static int read(Path file, Consumer<Contact> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a compact contact plan");
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException(file + " has the unsupported version " + version);
+            }
+            String[] satellites = readNames(in);
+            String[] antennas = readNames(in);
+            int count = in.readInt();
+            Contact contact = new Contact();
+            for (int i = 0; i < count; i++) {
+                contact.id = in.readUTF();
+                contact.satellite = satellites[in.readInt()];
+                int antennaIndex = in.readInt();
+                contact.antenna = antennaIndex < 0 ? null : antennas[antennaIndex];
+                contact.startMillis = in.readLong();
+                contact.durationMillis = in.readLong();
+                contact.flags = in.readByte();
+                consumer.accept(contact);
+            }
+            return count;
+        }
+    }
+
+    private static String[] readNames(DataInputStream in) throws IOException {
+        String[] names = new String[in.readInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        return names;
+    }
+
+    /**
+     * A contact read back from a compact plan.
+     */
+    public static final class Contact {
+        private String id;
+        private String satellite;
+        private String antenna;
+        private long startMillis;
+        private long durationMillis;
+        private int flags;
+
+        private Contact() {
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSatellite() {
+            return satellite;
+        }
+
+        /**
+         * @return the antenna, null if the request is unassigned
+         */
+        public String getAntenna() {
+            return antenna;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public boolean isPinned() {
+            return (flags & PINNED) != 0;
+        }
+
+        public boolean isHardPenalized() {
+            return (flags & HARD_PENALIZED) != 0;
+        }
+    }
+}
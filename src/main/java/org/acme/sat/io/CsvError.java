@@ -0,0 +1,36 @@
+package org.acme.sat.io;
+
+/**
+ * A CSV line which could not be loaded.
+ */
+public class CsvError {
+    private final long lineNumber;
+    private final String line;
+    private final String message;
+
+    public CsvError(long lineNumber, String line, String message) {
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.message = message;
+    }
+
+    /**
+     * @return the 1 based number of the line in its file
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public String getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + lineNumber + ": " + message + ": " + line;
+    }
+}
@@ -0,0 +1,173 @@
+package org.acme.sat.io;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Allocation free parsers of the CSV timestamps and durations, working on raw bytes.
+ * Formats other than the fixed ones fall back to {@link Instant#parse} and {@link Duration#parse}.
+ */
+public final class CsvFields {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private CsvFields() {
+    }
+
+    /**
+     * @return the epoch millis of an ISO-8601 instant, such as 2000-01-01T00:00:01.00Z
+     * @throws java.time.format.DateTimeParseException if it is not an instant
+     */
+    public static long parseEpochMillis(byte[] bytes, int start, int end) {
+        long millis = parseFixedEpochMillis(bytes, start, end);
+        if (millis != Long.MIN_VALUE) {
+            return millis;
+        }
+        return Instant.parse(new String(bytes, start, end - start, StandardCharsets.UTF_8)).toEpochMilli();
+    }
+
+    /**
+     * @return the millis of an ISO-8601 duration, such as PT6S or PT2M54S
+     * @throws java.time.format.DateTimeParseException if it is not a duration
+     */
+    public static long parseDurationMillis(byte[] bytes, int start, int end) {
+        long millis = parseFixedDurationMillis(bytes, start, end);
+        if (millis != Long.MIN_VALUE) {
+            return millis;
+        }
+        return Duration.parse(new String(bytes, start, end - start, StandardCharsets.UTF_8)).toMillis();
+    }
+
+    // yyyy-MM-ddTHH:mm:ss[.fraction]Z, or Long.MIN_VALUE
+    private static long parseFixedEpochMillis(byte[] b, int start, int end) {
+        if (end - start < 20 || b[start + 4] != '-' || b[start + 7] != '-' || b[start + 10] != 'T'
+                || b[start + 13] != ':' || b[start + 16] != ':' || b[end - 1] != 'Z') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(b, start, 4);
+        int month = digits(b, start + 5, 2);
+        int day = digits(b, start + 8, 2);
+        int hour = digits(b, start + 11, 2);
+        int minute = digits(b, start + 14, 2);
+        int second = digits(b, start + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        int millis = 0;
+        int i = start + 19;
+        if (i < end - 1) {
+            if (b[i] != '.' || end - 1 - (i + 1) < 1 || end - 1 - (i + 1) > 9) {
+                return Long.MIN_VALUE;
+            }
+            int scale = 100;
+            for (i++; i < end - 1; i++) {
+                int digit = b[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    return Long.MIN_VALUE;
+                }
+                millis += digit * scale;
+                scale /= 10;
+            }
+        }
+        return epochDay(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+    }
+
+    // PT[nH][nM][n[.fraction]S], or Long.MIN_VALUE
+    private static long parseFixedDurationMillis(byte[] b, int start, int end) {
+        if (end - start < 4 || b[start] != 'P' || b[start + 1] != 'T') {
+            return Long.MIN_VALUE;
+        }
+        long millis = 0;
+        int unitRank = 0;
+        int i = start + 2;
+        while (i < end) {
+            long value = 0;
+            int digitsStart = i;
+            while (i < end && b[i] >= '0' && b[i] <= '9' && i - digitsStart < 12) {
+                value = value * 10 + (b[i++] - '0');
+            }
+            if (i == digitsStart || i == end) {
+                return Long.MIN_VALUE;
+            }
+            int fraction = 0;
+            if (b[i] == '.') {
+                int scale = 100;
+                int fractionStart = ++i;
+                while (i < end && b[i] >= '0' && b[i] <= '9' && i - fractionStart < 9) {
+                    fraction += (b[i++] - '0') * scale;
+                    scale /= 10;
+                }
+                if (i == fractionStart || i == end || b[i] != 'S') {
+                    return Long.MIN_VALUE;
+                }
+            }
+            switch (b[i]) {
+                case 'H':
+                    if (unitRank >= 1) {
+                        return Long.MIN_VALUE;
+                    }
+                    unitRank = 1;
+                    millis += value * 3_600_000L;
+                    break;
+                case 'M':
+                    if (unitRank >= 2) {
+                        return Long.MIN_VALUE;
+                    }
+                    unitRank = 2;
+                    millis += value * 60_000L;
+                    break;
+                case 'S':
+                    if (unitRank >= 3) {
+                        return Long.MIN_VALUE;
+                    }
+                    unitRank = 3;
+                    millis += value * 1000L + fraction;
+                    break;
+                default:
+                    return Long.MIN_VALUE;
+            }
+            i++;
+        }
+        return millis;
+    }
+
+    // Non negative number of count digits, or -1
+    private static int digits(byte[] b, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = b[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // Days since 1970-01-01 of a proleptic Gregorian date
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
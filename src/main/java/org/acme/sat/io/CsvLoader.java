@@ -0,0 +1,291 @@
+package org.acme.sat.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+
+/**
+ * Loads the visibilities and contact requests CSV files.
+ * <p>
+ * Files are memory mapped and cut into chunks of whole lines, parsed in parallel without regular expressions
+ * nor intermediate line strings. Malformed lines do not stop the loading: they are skipped and reported in
+ * the {@link CsvResult}. Blank lines are ignored.
+ */
+public class CsvLoader {
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int VISIBILITY_FIELDS = 5;
+    private static final int CONTACT_REQUEST_FIELDS = 3;
+    private static final int PLANNED_CONTACT_REQUEST_FIELDS = 7;
+    // Visibility id of the unassigned requests of a plan file with priorities
+    private static final String UNASSIGNED = "-";
+
+    private final int chunkSize;
+
+    public CsvLoader() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize approximate number of bytes parsed by each parallel task
+     */
+    public CsvLoader(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param file lines of id,satellite,antenna,from,to
+     */
+    public CsvResult<Visibility> loadVisibilities(Path file) throws IOException {
+        return load(file, VISIBILITY_FIELDS, VISIBILITY_FIELDS, (b, starts, ends, fields) -> new Visibility(
+                string(b, starts[0], ends[0]), string(b, starts[1], ends[1]), string(b, starts[2], ends[2]),
+                CsvFields.parseEpochMillis(b, starts[3], ends[3]), CsvFields.parseEpochMillis(b, starts[4], ends[4])));
+    }
+
+    /**
+     * @param file lines of id,duration,satellite, assignments of plan files are ignored
+     */
+    public CsvResult<ContactRequest> loadContactRequests(Path file) throws IOException {
+        return load(file, CONTACT_REQUEST_FIELDS, CONTACT_REQUEST_FIELDS, CsvLoader::parseContactRequest);
+    }
+
+    /**
+     * Loads a contact requests file or a plan file, as written by {@link ContactRequest#toCSV(boolean)}.
+     * Assigned requests keep their visibility, the pinned ones are not changed by the solver.
+     *
+     * @param file lines of id,duration,satellite[,visibilityId[,pinned[,priority[,startOffset]]]], pinned being true
+     * or false, visibilityId - for an unassigned request, which cannot be pinned, priority a positive integer, 1 by
+     * default, startOffset a duration in {@link ContactRequest#START_OFFSET_STEP}s, PT0S by default
+     * @param visibilities the visibilities assigned in the file
+     */
+    public CsvResult<ContactRequest> loadContactRequests(Path file, List<Visibility> visibilities) throws IOException {
+        Map<String, Visibility> visibilitiesById = new HashMap<>(visibilities.size() * 2);
+        for (Visibility visibility : visibilities) {
+            visibilitiesById.put(visibility.getId(), visibility);
+        }
+        return load(file, CONTACT_REQUEST_FIELDS, PLANNED_CONTACT_REQUEST_FIELDS,
+                (b, starts, ends, fields) -> parsePlannedContactRequest(visibilitiesById, b, starts, ends, fields));
+    }
+
+    /**
+     * Parses a single unassigned contact request, as a line of {@link #loadContactRequests(Path, List)} without
+     * visibility: id,duration,satellite[,-[,false[,priority[,startOffset]]]].
+     *
+     * @throws RuntimeException if the line is malformed, with the message a file would report for it
+     */
+    public static ContactRequest parseContactRequest(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int[] fieldStarts = new int[PLANNED_CONTACT_REQUEST_FIELDS];
+        int[] fieldEnds = new int[PLANNED_CONTACT_REQUEST_FIELDS];
+        int fields = splitFields(bytes, 0, bytes.length, CONTACT_REQUEST_FIELDS, fieldStarts, fieldEnds);
+        return parsePlannedContactRequest(Map.of(), bytes, fieldStarts, fieldEnds, fields);
+    }
+
+    private static ContactRequest parsePlannedContactRequest(Map<String, Visibility> visibilitiesById, byte[] b,
+            int[] starts, int[] ends, int fields) {
+        ContactRequest cr = parseContactRequest(b, starts, ends, fields);
+        String visibilityId = fields > 3 ? string(b, starts[3], ends[3]) : UNASSIGNED;
+        if (!visibilityId.equals(UNASSIGNED)) {
+            Visibility visibility = visibilitiesById.get(visibilityId);
+            if (visibility == null) {
+                throw new IllegalArgumentException("unknown visibility " + visibilityId);
+            }
+            cr.setVisibility(visibility);
+        }
+        if (fields > 4) {
+            cr.setPinned(parseBoolean(b, starts[4], ends[4]));
+            if (cr.isPinned() && cr.getVisibility() == null) {
+                throw new IllegalArgumentException("pinned without visibility");
+            }
+        }
+        if (fields > 5) {
+            cr.setPriority(parsePriority(b, starts[5], ends[5]));
+        }
+        if (fields > 6) {
+            cr.setStartOffset(parseStartOffset(b, starts[6], ends[6]));
+        }
+        return cr;
+    }
+
+    private static ContactRequest parseContactRequest(byte[] b, int[] starts, int[] ends, int fields) {
+        return new ContactRequest(string(b, starts[0], ends[0]), string(b, starts[2], ends[2]),
+                CsvFields.parseDurationMillis(b, starts[1], ends[1]));
+    }
+
+    private static boolean parseBoolean(byte[] b, int start, int end) {
+        String value = string(b, start, end);
+        if (value.equals("true")) {
+            return true;
+        } else if (value.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("expected true or false but found " + value);
+    }
+
+    private static int parsePriority(byte[] b, int start, int end) {
+        String value = string(b, start, end);
+        int priority = Integer.parseInt(value);
+        if (priority <= 0) {
+            throw new IllegalArgumentException("expected a positive priority but found " + value);
+        }
+        return priority;
+    }
+
+    private static int parseStartOffset(byte[] b, int start, int end) {
+        long millis = CsvFields.parseDurationMillis(b, start, end);
+        long stepMillis = ContactRequest.START_OFFSET_STEP.toMillis();
+        if (millis < 0 || millis % stepMillis != 0) {
+            throw new IllegalArgumentException("expected a start offset in steps of " + ContactRequest.START_OFFSET_STEP
+                    + " but found " + string(b, start, end));
+        }
+        return Math.toIntExact(millis / stepMillis);
+    }
+
+    @FunctionalInterface
+    private interface RecordParser<T> {
+        // Throws a RuntimeException on malformed fields
+        T parse(byte[] bytes, int[] fieldStarts, int[] fieldEnds, int fieldCount);
+    }
+
+    // Lines have between minFieldCount and maxFieldCount fields, extra fields are ignored
+    private <T> CsvResult<T> load(Path file, int minFieldCount, int maxFieldCount, RecordParser<T> parser)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            List<Chunk<T>> chunks;
+            try {
+                chunks = IntStream.range(0, bounds.length - 1).parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], minFieldCount, maxFieldCount, parser))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            List<T> records = new ArrayList<>(chunks.stream().mapToInt(c -> c.records.size()).sum());
+            List<CsvError> errors = new ArrayList<>();
+            long lineOffset = 0;
+            for (Chunk<T> chunk : chunks) {
+                records.addAll(chunk.records);
+                for (CsvError error : chunk.errors) {
+                    errors.add(new CsvError(lineOffset + error.getLineNumber(), error.getLine(), error.getMessage()));
+                }
+                lineOffset += chunk.lineCount;
+            }
+            return new CsvResult<>(records, errors);
+        }
+    }
+
+    // Chunk i spans [bounds[i], bounds[i + 1]), each ending after a line feed except the last one
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = -1;
+            while (lineEnd < 0 && position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineEnd = position + i + 1;
+                        break;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineEnd < 0 || lineEnd >= size) {
+                break;
+            }
+            bounds.add(lineEnd);
+            position = lineEnd + chunkSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static <T> Chunk<T> parseChunk(FileChannel channel, long start, long end, int minFieldCount,
+            int maxFieldCount, RecordParser<T> parser) {
+        byte[] bytes = new byte[(int) (end - start)];
+        try {
+            channel.map(FileChannel.MapMode.READ_ONLY, start, end - start).get(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Chunk<T> chunk = new Chunk<>();
+        int[] fieldStarts = new int[maxFieldCount];
+        int[] fieldEnds = new int[maxFieldCount];
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineFeed = lineStart;
+            while (lineFeed < bytes.length && bytes[lineFeed] != '\n') {
+                lineFeed++;
+            }
+            int lineEnd = lineFeed > lineStart && bytes[lineFeed - 1] == '\r' ? lineFeed - 1 : lineFeed;
+            chunk.lineCount++;
+            if (lineEnd > lineStart) {
+                parseLine(bytes, lineStart, lineEnd, minFieldCount, fieldStarts, fieldEnds, parser, chunk);
+            }
+            lineStart = lineFeed + 1;
+        }
+        return chunk;
+    }
+
+    private static <T> void parseLine(byte[] bytes, int lineStart, int lineEnd, int minFieldCount, int[] fieldStarts,
+            int[] fieldEnds, RecordParser<T> parser, Chunk<T> chunk) {
+        try {
+            int fieldCount = splitFields(bytes, lineStart, lineEnd, minFieldCount, fieldStarts, fieldEnds);
+            chunk.records.add(parser.parse(bytes, fieldStarts, fieldEnds, fieldCount));
+        } catch (RuntimeException e) {
+            chunk.errors.add(new CsvError(chunk.lineCount, string(bytes, lineStart, lineEnd), e.getMessage()));
+        }
+    }
+
+    // Returns the number of fields of the line, at most the length of the arrays, extra fields being ignored
+    private static int splitFields(byte[] bytes, int lineStart, int lineEnd, int minFieldCount, int[] fieldStarts,
+            int[] fieldEnds) {
+        int fieldStart = lineStart;
+        int field = 0;
+        for (; field < fieldStarts.length && fieldStart <= lineEnd; field++) {
+            int fieldEnd = fieldStart;
+            while (fieldEnd < lineEnd && bytes[fieldEnd] != ',') {
+                fieldEnd++;
+            }
+            if (fieldEnd == fieldStart) {
+                throw new IllegalArgumentException("field " + (field + 1) + " is empty");
+            }
+            fieldStarts[field] = fieldStart;
+            fieldEnds[field] = fieldEnd;
+            fieldStart = fieldEnd + 1;
+        }
+        if (field < minFieldCount) {
+            throw new IllegalArgumentException("expected " + minFieldCount + " fields but found " + field);
+        }
+        return field;
+    }
+
+    private static String string(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // Records and errors of a chunk, errors numbered from the first line of the chunk
+    private static class Chunk<T> {
+        private final List<T> records = new ArrayList<>();
+        private final List<CsvError> errors = new ArrayList<>();
+        private long lineCount = 0;
+    }
+}
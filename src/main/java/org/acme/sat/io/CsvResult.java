@@ -0,0 +1,45 @@
+package org.acme.sat.io;
+
+import java.util.List;
+
+/**
+ * The records loaded from a CSV file, in file order, and the lines which could not be loaded.
+ */
+public class CsvResult<T> {
+    private static final int REPORTED_ERROR_LIMIT = 20;
+
+    private final List<T> records;
+    private final List<CsvError> errors;
+
+    public CsvResult(List<T> records, List<CsvError> errors) {
+        this.records = records;
+        this.errors = errors;
+    }
+
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public List<CsvError> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    /**
+     * @return a summary of the errors, listing the first ones.
+     */
+    public String getErrorReport(String fileName) {
+        String lb = System.lineSeparator();
+        StringBuilder report = new StringBuilder(errors.size() + " malformed lines skipped in " + fileName);
+        for (int i = 0; i < Math.min(errors.size(), REPORTED_ERROR_LIMIT); i++) {
+            report.append(lb).append("    ").append(errors.get(i));
+        }
+        if (errors.size() > REPORTED_ERROR_LIMIT) {
+            report.append(lb).append("    ...");
+        }
+        return report.toString();
+    }
+}
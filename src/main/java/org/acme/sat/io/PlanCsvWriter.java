@@ -0,0 +1,32 @@
+package org.acme.sat.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+
+/**
+ * Writes the contact requests of a plan with their assigned visibility, see {@link ContactRequest#toCSV(boolean)}.
+ * The plan file can be loaded back as contact requests file to warm start the next solve.
+ */
+public final class PlanCsvWriter {
+
+    private PlanCsvWriter() {
+    }
+
+    /**
+     * @param pinUntil epoch millis, the contacts starting before are pinned, in addition to those already pinned
+     */
+    public static void write(ContactPlan plan, Path file, long pinUntil) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (ContactRequest cr : plan.getContactRequests()) {
+                boolean pin = cr.isPinned() || (cr.getVisibility() != null && cr.getContactStart() < pinUntil);
+                writer.write(cr.toCSV(pin));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.acme.sat.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+
+/**
+ * Writes the visibilities and the contact plan as PlantUML timing diagrams, one line per satellite, the times in
+ * seconds from t0.
+ * <p>
+ * The diagrams are streamed to buffered files as they are written, without building them in memory, and can be
+ * split in one file per antenna or per day (UTC), each readable on its own. The files of a split are written in
+ * parallel.
+ */
+public class PlantUmlWriter {
+
+    public enum Split {
+        NONE,
+        ANTENNA,
+        DAY
+    }
+
+    private static final String LB = System.lineSeparator();
+
+    private final Instant t0;
+    private final Split split;
+
+    public PlantUmlWriter(Instant t0, Split split) {
+        this.t0 = t0;
+        this.split = split;
+    }
+
+    /**
+     * @return the files written, prefix.pu in the directory, or prefix-antenna.pu or prefix-yyyy-mm-dd.pu per group
+     * of the split
+     */
+    public List<Path> writeVisibilities(List<Visibility> visibilities, Path directory, String prefix)
+            throws IOException {
+        return writeGroups(group(visibilities, Visibility::getAntenna, Visibility::getFromMillis), directory, prefix,
+                this::writeVisibilities);
+    }
+
+    /**
+     * The requests with a negative hard score are drawn in red, with a note listing their hard constraint matches
+     * if they are kept by the explanation. The unassigned requests are not drawn.
+     *
+     * @return the files written, as {@link #writeVisibilities(List, Path, String)}
+     */
+    public List<Path> writeContactPlan(List<ContactRequest> contactRequests, PlanExplanation explanation,
+            Path directory, String prefix) throws IOException {
+        List<ContactRequest> assigned = new ArrayList<>(contactRequests.size());
+        for (ContactRequest cr : contactRequests) {
+            if (cr.getVisibility() != null) {
+                assigned.add(cr);
+            }
+        }
+        return writeGroups(group(assigned, ContactRequest::getAntenna, ContactRequest::getContactStart),
+                directory, prefix, (requests, writer) -> writeContactPlan(requests, explanation, writer));
+    }
+
+    public void writeVisibilities(List<Visibility> visibilities, Writer writer) throws IOException {
+        writer.append("@startuml").append(LB);
+        Set<String> satAlreadySeen = new HashSet<>();
+        for (Visibility v : visibilities) {
+            String satellite = v.getSatellite();
+            if (satAlreadySeen.add(satellite)) {
+                writer.append("concise ").append(satellite).append(LB);
+            }
+            long starts = secondsFromT0(v.getFromMillis());
+            writer.append('@').append(Long.toString(starts)).append(LB);
+            writer.append(satellite).append(" is \"visible @").append(v.getAntenna()).append('"').append(LB);
+            writer.append('@').append(Long.toString(starts + v.getDuration().getSeconds())).append(LB);
+            writer.append(satellite).append(" is {-}").append(LB);
+        }
+        writer.append("@enduml");
+    }
+
+    public void writeContactPlan(List<ContactRequest> contactRequests, PlanExplanation explanation, Writer writer)
+            throws IOException {
+        writer.append("@startuml").append(LB);
+        Set<String> satAlreadySeen = new HashSet<>();
+        for (ContactRequest cr : contactRequests) {
+            if (cr.getVisibility() == null) {
+                continue;
+            }
+            String satellite = cr.getSatellite();
+            if (satAlreadySeen.add(satellite)) {
+                writer.append("concise ").append(satellite).append(LB);
+            }
+            long starts = secondsFromT0(cr.getContactStart());
+            writer.append('@').append(Long.toString(starts)).append(LB);
+            String color = "#lightgreen";
+            String contactId = "contact " + cr.getId();
+            if (explanation.isHardPenalized(cr)) {
+                List<ConstraintMatch<HardMediumSoftScore>> hardMatches = explanation.getHardMatches(cr);
+                if (!hardMatches.isEmpty()) {
+                    writer.append("note top of ").append(satellite).append(" : ");
+                    writeConstraints(hardMatches, writer);
+                    writer.append(LB);
+                }
+                color = "#red";
+                contactId = "contact ?";
+            }
+            writer.append(satellite).append(" is \"").append(contactId).append(" @")
+                    .append(cr.getVisibility().getAntenna()).append("\" ").append(color).append(LB);
+            writer.append('@').append(Long.toString(starts + cr.getDuration().getSeconds())).append(LB);
+            writer.append(satellite).append(" is {-}").append(LB);
+        }
+        writer.append("@enduml");
+    }
+
+    private static void writeConstraints(List<ConstraintMatch<HardMediumSoftScore>> constraintMatches, Writer writer)
+            throws IOException {
+        for (ConstraintMatch<HardMediumSoftScore> constraintMatch : constraintMatches) {
+            writer.append(constraintMatch.getConstraintName()).append("\\n");
+            for (Object justification : constraintMatch.getJustificationList()) {
+                writer.append("\\t").append(justification.toString()).append("\\n");
+            }
+        }
+    }
+
+    private long secondsFromT0(long epochMillis) {
+        return Math.floorDiv(epochMillis - t0.toEpochMilli(), 1000L);
+    }
+
+    /**
+     * @return the items by name of their file suffix, in order, a single group of the items themselves without split
+     */
+    private <T> Map<String, List<T>> group(List<T> items, Function<T, String> antenna, ToLongFunction<T> start) {
+        if (split == Split.NONE) {
+            return Collections.singletonMap("", items);
+        }
+        Map<String, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            String suffix = split == Split.ANTENNA ? antenna.apply(item)
+                    : Instant.ofEpochMilli(start.applyAsLong(item)).atOffset(ZoneOffset.UTC).toLocalDate().toString();
+            groups.computeIfAbsent(suffix, s -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    private interface GroupWriter<T> {
+        void write(List<T> items, Writer writer) throws IOException;
+    }
+
+    private static <T> List<Path> writeGroups(Map<String, List<T>> groups, Path directory, String prefix,
+            GroupWriter<T> groupWriter) throws IOException {
+        List<Path> files = new ArrayList<>(groups.size());
+        for (String suffix : groups.keySet()) {
+            files.add(directory.resolve(suffix.isEmpty() ? prefix + ".pu"
+                    : prefix + "-" + suffix.replaceAll("[^A-Za-z0-9._-]", "_") + ".pu"));
+        }
+        List<List<T>> items = new ArrayList<>(groups.values());
+        try {
+            IntStream.range(0, files.size()).parallel().forEach(i -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(files.get(i))) {
+                    groupWriter.write(items.get(i), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return files;
+    }
+}
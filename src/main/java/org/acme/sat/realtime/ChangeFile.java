@@ -0,0 +1,72 @@
+package org.acme.sat.realtime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.io.CsvError;
+import org.acme.sat.io.CsvLoader;
+import org.acme.sat.io.CsvResult;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Reads the changes of a change file, one change per line:
+ * <pre>
+ * add,id,duration,satellite[,-,false,priority]   adds a contact request, unassigned in the plan CSV format
+ * remove,id                                     removes a contact request
+ * retract,id                                    retracts a visibility
+ * </pre>
+ * Malformed lines are skipped and reported in the {@link CsvResult}. Blank lines are ignored.
+ */
+public final class ChangeFile {
+
+    private ChangeFile() {
+    }
+
+    public static CsvResult<ProblemFactChange<ContactPlan>> read(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    static CsvResult<ProblemFactChange<ContactPlan>> parse(List<String> lines) {
+        List<ProblemFactChange<ContactPlan>> changes = new ArrayList<>();
+        List<CsvError> errors = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int comma = line.indexOf(',');
+            String verb = comma < 0 ? line : line.substring(0, comma);
+            String arguments = comma < 0 ? "" : line.substring(comma + 1);
+            try {
+                changes.add(parseChange(verb, arguments));
+            } catch (RuntimeException e) {
+                errors.add(new CsvError(i + 1, line, e.getMessage()));
+            }
+        }
+        return new CsvResult<>(changes, errors);
+    }
+
+    private static ProblemFactChange<ContactPlan> parseChange(String verb, String arguments) {
+        switch (verb) {
+            case "add":
+                return ContactPlanChanges.addContactRequest(CsvLoader.parseContactRequest(arguments));
+            case "remove":
+                return ContactPlanChanges.removeContactRequest(id(arguments));
+            case "retract":
+                return ContactPlanChanges.retractVisibility(id(arguments));
+            default:
+                throw new IllegalArgumentException("unknown change " + verb);
+        }
+    }
+
+    private static String id(String arguments) {
+        if (arguments.isEmpty() || arguments.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("expected a single id");
+        }
+        return arguments;
+    }
+}
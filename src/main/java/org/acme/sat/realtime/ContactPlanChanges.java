@@ -0,0 +1,110 @@
+package org.acme.sat.realtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.domain.VisibilityIndex;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+
+/**
+ * Problem fact changes applied to the working solution of a running solver.
+ * <p>
+ * The collections of the working solution are replaced rather than modified in place: problem fact collections
+ * are shared with the best solution clones already published.
+ */
+public final class ContactPlanChanges {
+
+    private ContactPlanChanges() {
+    }
+
+    /**
+     * Adds a new contact request, its satellite interned and its candidate visibilities taken from the visibility
+     * index of the working solution.
+     */
+    public static ProblemFactChange<ContactPlan> addContactRequest(ContactRequest contactRequest) {
+        return scoreDirector -> {
+            ContactPlan plan = scoreDirector.getWorkingSolution();
+            plan.intern(contactRequest);
+            contactRequest.setVisibility(null);
+            contactRequest.setCandidateVisibilities(plan.getVisibilityIndex()
+                    .getCandidates(contactRequest.getSatelliteId(), contactRequest.getDuration()));
+
+            List<ContactRequest> contactRequests = new ArrayList<>(plan.getContactRequests());
+            scoreDirector.beforeEntityAdded(contactRequest);
+            contactRequests.add(contactRequest);
+            plan.setContactRequests(contactRequests);
+            scoreDirector.afterEntityAdded(contactRequest);
+            scoreDirector.triggerVariableListeners();
+        };
+    }
+
+    /**
+     * Removes the contact request with that id, if any.
+     */
+    public static ProblemFactChange<ContactPlan> removeContactRequest(String contactRequestId) {
+        return scoreDirector -> {
+            ContactPlan plan = scoreDirector.getWorkingSolution();
+            List<ContactRequest> contactRequests = new ArrayList<>(plan.getContactRequests());
+            ContactRequest contactRequest = contactRequests.stream()
+                    .filter(cr -> cr.getId().equals(contactRequestId))
+                    .findFirst().orElse(null);
+            if (contactRequest == null) {
+                return;
+            }
+            scoreDirector.beforeEntityRemoved(contactRequest);
+            contactRequests.remove(contactRequest);
+            plan.setContactRequests(contactRequests);
+            scoreDirector.afterEntityRemoved(contactRequest);
+            scoreDirector.triggerVariableListeners();
+        };
+    }
+
+    /**
+     * Retracts the visibility with that id, if any, for instance when its antenna goes down for maintenance.
+     * The contact requests assigned to it are unassigned and unpinned, to be assigned again by the construction
+     * heuristic the solver restarts with, and it is removed from their candidate visibilities.
+     */
+    public static ProblemFactChange<ContactPlan> retractVisibility(String visibilityId) {
+        return scoreDirector -> {
+            ContactPlan plan = scoreDirector.getWorkingSolution();
+            List<Visibility> visibilities = new ArrayList<>(plan.getVisibilities());
+            Visibility visibility = visibilities.stream()
+                    .filter(v -> v.getId().equals(visibilityId))
+                    .findFirst().orElse(null);
+            if (visibility == null) {
+                return;
+            }
+            visibilities.remove(visibility);
+            VisibilityIndex visibilityIndex = plan.getVisibilityIndex().without(visibility);
+
+            for (ContactRequest cr : plan.getContactRequests()) {
+                if (cr.getVisibility() == visibility) {
+                    if (cr.isPinned()) {
+                        scoreDirector.beforeProblemPropertyChanged(cr);
+                        cr.setPinned(false);
+                        scoreDirector.afterProblemPropertyChanged(cr);
+                    }
+                    scoreDirector.beforeVariableChanged(cr, "visibility");
+                    cr.setVisibility(null);
+                    scoreDirector.afterVariableChanged(cr, "visibility");
+                }
+                // The candidates are the visibilities of the satellite lasting long enough, see VisibilityIndex
+                if (cr.getSatelliteId() == visibility.getSatelliteId()
+                        && cr.getDurationMillis() <= visibility.getDurationMillis()) {
+                    scoreDirector.beforeProblemPropertyChanged(cr);
+                    cr.setCandidateVisibilities(visibilityIndex.getCandidates(cr.getSatelliteId(), cr.getDuration()));
+                    scoreDirector.afterProblemPropertyChanged(cr);
+                }
+            }
+
+            scoreDirector.beforeProblemFactRemoved(visibility);
+            plan.setVisibilities(visibilities);
+            plan.setVisibilityIndex(visibilityIndex);
+            scoreDirector.afterProblemFactRemoved(visibility);
+            scoreDirector.triggerVariableListeners();
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package org.acme.sat.realtime;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.io.CsvResult;
+import org.acme.sat.io.PlanCsvWriter;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long running replanning: solves the input files like {@link ContactPlanApp}, then keeps the plan up to date
+ * with the change files dropped in the inbox directory (see {@link ChangeFile} for their format):
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=org.acme.sat.realtime.ContactPlanDaemon -Ddaemon.inbox=inbox
+ * </pre>
+ * Change files should be moved into the inbox once complete; they are deleted once submitted.
+ * Each new best plan is written to the daemon.plan file (contact-plan.csv by default) by {@link PlanCsvWriter},
+ * ready to warm start another solve. The solver sleeps once the best plan has not improved for
+ * daemon.unimprovedSeconds (2 by default).
+ */
+public class ContactPlanDaemon {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanDaemon.class);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path inbox = Paths.get(System.getProperty("daemon.inbox", "inbox"));
+        Path planFile = Paths.get(System.getProperty("daemon.plan", "contact-plan.csv"));
+        Files.createDirectories(inbox);
+
+        ContactPlan problem = ContactPlanApp.loadData(Instant.parse("2000-01-01T00:00:00.00Z"));
+        PlanWriter planWriter = new PlanWriter(planFile);
+        ContactPlanReplanner replanner = new ContactPlanReplanner(buildSolverConfig(), planWriter::publish);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            replanner.close();
+            planWriter.close();
+        }));
+        replanner.start(problem);
+
+        try (WatchService watchService = inbox.getFileSystem().newWatchService()) {
+            inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            LOGGER.info("Watching " + inbox.toAbsolutePath() + " for change files");
+            submitChangeFiles(inbox, replanner);
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                submitChangeFiles(inbox, replanner);
+                if (!key.reset()) {
+                    LOGGER.error(inbox + " is no longer accessible");
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The solver configuration of {@link ContactPlanApp}, sleeping once the best plan stops improving.
+     */
+    public static SolverConfig buildSolverConfig() {
+        return ContactPlanApp.buildSolverConfig().withTerminationConfig(new TerminationConfig()
+                .withUnimprovedSpentLimit(Duration.ofSeconds(Long.getLong("daemon.unimprovedSeconds", 2))));
+    }
+
+    // All the files of the inbox, oldest first, each file submitted as one batch of changes
+    private static void submitChangeFiles(Path inbox, ContactPlanReplanner replanner) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(inbox, Files::isRegularFile)) {
+            stream.forEach(files::add);
+        }
+        files.sort((a, b) -> {
+            try {
+                return Files.getLastModifiedTime(a).compareTo(Files.getLastModifiedTime(b));
+            } catch (IOException e) {
+                return 0;
+            }
+        });
+        for (Path file : files) {
+            CsvResult<ProblemFactChange<ContactPlan>> changes = ChangeFile.read(file);
+            if (changes.hasErrors()) {
+                LOGGER.warn(changes.getErrorReport(file.toString()));
+            }
+            if (!changes.getRecords().isEmpty()) {
+                LOGGER.info("Submitting " + changes.getRecords().size() + " changes from " + file.getFileName());
+                replanner.submit(changes.getRecords());
+            }
+            Files.delete(file);
+        }
+    }
+
+    // Writes the latest plan out of the solver thread, skipping the plans superseded in the meantime
+    private static class PlanWriter {
+        private final Path planFile;
+        private final AtomicReference<ContactPlan> latestPlan = new AtomicReference<>();
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "PlanWriter"));
+
+        PlanWriter(Path planFile) {
+            this.planFile = planFile;
+        }
+
+        void publish(ContactPlan plan) {
+            if (latestPlan.getAndSet(plan) == null) {
+                executor.execute(() -> write(latestPlan.getAndSet(null)));
+            }
+        }
+
+        private void write(ContactPlan plan) {
+            try {
+                Path tmpFile = planFile.resolveSibling(planFile.getFileName() + ".tmp");
+                PlanCsvWriter.write(plan, tmpFile, Long.MIN_VALUE);
+                Files.move(tmpFile, planFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.error("Unable to write " + planFile + ": " + e.getMessage());
+            }
+        }
+
+        void close() {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.acme.sat.realtime;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import org.optaplanner.core.impl.solver.scope.SolverScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a contact plan solved while its requests and visibilities change.
+ * <p>
+ * The solver runs in daemon mode on its own thread: once its termination is reached it sleeps, keeping the
+ * best plan warm, until changes are submitted. Changes restart it from the best plan, the construction heuristic
+ * only assigning the requests left unassigned by the changes.
+ * <p>
+ * Each new best plan is given to the publisher, on the solver thread. The replanning latency is the time from
+ * the submission of a change to the first feasible best plan including all the changes submitted so far in which
+ * the requests they left unassigned (the added ones, those of a retracted visibility) are all assigned again. As
+ * the plan stays feasible with unassigned requests, some of them may never be assigned: the latency is then the
+ * time to the last best plan, once the solver sleeps because the best score stopped changing, if that plan is
+ * feasible. Otherwise the changes are reported as not replanned, with the time until the solver slept. The
+ * initial solve counts as a change submitted on start, leaving all the unassigned requests of the problem
+ * unassigned.
+ */
+public class ContactPlanReplanner implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanReplanner.class);
+    private static final long NO_PENDING_CHANGE = -1;
+
+    private final Solver<ContactPlan> solver;
+    private final Consumer<ContactPlan> publisher;
+    private final ExecutorService solverExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Replanner"));
+    private Consumer<Duration> latencyListener = latency -> {};
+    private Consumer<Duration> infeasibleListener = timeSpent -> {};
+    private Future<ContactPlan> solving;
+
+    // System.nanoTime() of the oldest change not yet replanned and of the last best plan, guarded by this
+    private long pendingChangeSince = NO_PENDING_CHANGE;
+    private long bestPlanSince;
+    // The ids of the requests left unassigned by the changes not yet replanned, on the solver thread once started
+    private final Set<String> changedRequestIds = new HashSet<>();
+    private volatile ContactPlan bestPlan;
+
+    /**
+     * @param solverConfig its termination decides when the solver sleeps, waiting for changes
+     * @param publisher called with each new best plan, must not modify it
+     */
+    public ContactPlanReplanner(SolverConfig solverConfig, Consumer<ContactPlan> publisher) {
+        this.solver = SolverFactory.<ContactPlan>create(new SolverConfig(solverConfig).withDaemon(true)).buildSolver();
+        this.publisher = publisher;
+        solver.addEventListener(this::bestSolutionChanged);
+        ((DefaultSolver<ContactPlan>) solver).addPhaseLifecycleListener(new PhaseLifecycleListenerAdapter<>() {
+            @Override
+            public void solvingEnded(SolverScope<ContactPlan> solverScope) {
+                ContactPlanReplanner.this.solvingEnded();
+            }
+        });
+    }
+
+    /**
+     * @param latencyListener called with the replanning latency each time the changes are replanned
+     */
+    public void setLatencyListener(Consumer<Duration> latencyListener) {
+        this.latencyListener = latencyListener;
+    }
+
+    /**
+     * @param infeasibleListener called with the time spent on the changes each time the solver sleeps without a
+     * feasible plan for them
+     */
+    public void setInfeasibleListener(Consumer<Duration> infeasibleListener) {
+        this.infeasibleListener = infeasibleListener;
+    }
+
+    public synchronized void start(ContactPlan problem) {
+        if (solving != null) {
+            throw new IllegalStateException("The replanner is already started.");
+        }
+        bestPlan = problem;
+        pendingChangeSince = System.nanoTime();
+        changedRequestIds.addAll(unassignedRequestIds(problem));
+        solving = solverExecutor.submit(() -> solver.solve(problem));
+    }
+
+    /**
+     * Submits changes, applied together by the solver thread.
+     */
+    public synchronized void submit(List<ProblemFactChange<ContactPlan>> changes) {
+        if (pendingChangeSince == NO_PENDING_CHANGE) {
+            pendingChangeSince = System.nanoTime();
+        }
+        solver.addProblemFactChanges(changes.stream().map(this::recordingChangedRequests).collect(Collectors.toList()));
+    }
+
+    private ProblemFactChange<ContactPlan> recordingChangedRequests(ProblemFactChange<ContactPlan> change) {
+        return scoreDirector -> {
+            Set<String> unassignedBefore = unassignedRequestIds(scoreDirector.getWorkingSolution());
+            change.doChange(scoreDirector);
+            for (String id : unassignedRequestIds(scoreDirector.getWorkingSolution())) {
+                if (!unassignedBefore.contains(id)) {
+                    changedRequestIds.add(id);
+                }
+            }
+        };
+    }
+
+    private static Set<String> unassignedRequestIds(ContactPlan plan) {
+        Set<String> ids = new HashSet<>();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            if (cr.getVisibility() == null) {
+                ids.add(cr.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return the best plan so far, including or not the last changes submitted
+     */
+    public ContactPlan getBestPlan() {
+        return bestPlan;
+    }
+
+    private synchronized void bestSolutionChanged(BestSolutionChangedEvent<ContactPlan> event) {
+        ContactPlan plan = event.getNewBestSolution();
+        bestPlan = plan;
+        bestPlanSince = System.nanoTime();
+        publisher.accept(plan);
+        if (pendingChangeSince != NO_PENDING_CHANGE && event.isEveryProblemFactChangeProcessed()
+                && event.getNewBestScore().isFeasible()
+                && Collections.disjoint(changedRequestIds, unassignedRequestIds(plan))) {
+            replanned(bestPlanSince, "Replanned");
+        }
+    }
+
+    // The solver goes to sleep, its best plan no longer improving, restarts with new changes or is closed
+    private synchronized void solvingEnded() {
+        if (pendingChangeSince != NO_PENDING_CHANGE && solver.isEveryProblemFactChangeProcessed()
+                && !solver.isTerminateEarly()) {
+            HardMediumSoftScore score = bestPlan.getScore();
+            if (score != null && score.isFeasible()) {
+                replanned(Math.max(bestPlanSince, pendingChangeSince), "Replanned with requests left unassigned");
+            } else {
+                Duration timeSpent = Duration.ofNanos(System.nanoTime() - pendingChangeSince);
+                pendingChangeSince = NO_PENDING_CHANGE;
+                changedRequestIds.clear();
+                LOGGER.warn("Not replanned into a feasible plan in {} ms: {}", timeSpent.toMillis(), score);
+                infeasibleListener.accept(timeSpent);
+            }
+        }
+    }
+
+    private void replanned(long until, String message) {
+        Duration latency = Duration.ofNanos(until - pendingChangeSince);
+        pendingChangeSince = NO_PENDING_CHANGE;
+        changedRequestIds.clear();
+        LOGGER.info("{} in {} ms: {}", message, latency.toMillis(), bestPlan.getScore());
+        latencyListener.accept(latency);
+    }
+
+    /**
+     * Terminates the solver and waits for its thread.
+     */
+    @Override
+    public void close() {
+        solver.terminateEarly();
+        solverExecutor.shutdown();
+        if (solving != null) {
+            try {
+                solving.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.error("Replanning failed", e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.acme.sat.solver;
+
+import org.acme.sat.domain.ContactPlan;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.phase.scope.AbstractStepScope;
+
+/**
+ * Terminates a solve once its time budget is spent or its best score reaches its bound, checked at the end of each
+ * step. Reset before each solve of a reused solver, such as the components of {@link ContactPlanDecomposer} or the
+ * windows of {@link RollingHorizonSolver}.
+ */
+class BudgetTermination extends PhaseLifecycleListenerAdapter<ContactPlan> {
+    private final Solver<ContactPlan> solver;
+    private long deadline;
+    private HardMediumSoftScore bound;
+
+    BudgetTermination(Solver<ContactPlan> solver) {
+        this.solver = solver;
+    }
+
+    void reset(long budgetMillis, HardMediumSoftScore bound) {
+        this.deadline = System.nanoTime() + budgetMillis * 1_000_000;
+        this.bound = bound;
+    }
+
+    @Override
+    public void stepEnded(AbstractStepScope<ContactPlan> stepScope) {
+        HardMediumSoftScore bestScore = stepScope.getPhaseScope().getBestScore();
+        if (System.nanoTime() >= deadline || bestScore.compareTo(bound) >= 0) {
+            solver.terminateEarly();
+        }
+    }
+}
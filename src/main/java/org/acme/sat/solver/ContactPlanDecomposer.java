@@ -0,0 +1,241 @@
+package org.acme.sat.solver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.NameDictionary;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves the independent components of a contact plan as plans of their own, concurrently, and merges them.
+ * <p>
+ * Two satellites are in the same component when a request of one is assigned a visibility of the other, or
+ * when their visibilities on an antenna overlap, transitively. No constraint matches requests of different
+ * components, so the score of the plan is the sum of the scores of its components.
+ * <p>
+ * The components are spread over at most threadCount threads, largest first to the least loaded thread, each
+ * thread solving its components one after the other. A component gets the time left to its thread in proportion
+ * to its share of the requests left to the thread, so the threads all end with the spent limit. A component
+ * ends early once it reaches the best score bound of its {@link FeasibilityAnalysis}, leaving its time to the next
+ * ones. The solver of a thread is reused for its components.
+ */
+public class ContactPlanDecomposer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContactPlanDecomposer.class);
+
+    private final SolverConfig solverConfig;
+    private final int threadCount;
+
+    /**
+     * @param solverConfig its termination is replaced for each component
+     */
+    public ContactPlanDecomposer(SolverConfig solverConfig, int threadCount) {
+        this.solverConfig = solverConfig;
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @return the best plans of the components merged, the requests in the order of the problem
+     */
+    public ContactPlan solve(ContactPlan problem, Duration spentLimit) {
+        List<ContactPlan> components = decompose(problem);
+        int binCount = Math.max(1, Math.min(threadCount, components.size()));
+        List<List<Integer>> bins = new ArrayList<>(binCount);
+        int[] binLoads = new int[binCount];
+        for (int i = 0; i < binCount; i++) {
+            bins.add(new ArrayList<>());
+        }
+        for (int i = 0; i < components.size(); i++) {
+            int bin = 0;
+            for (int j = 1; j < binCount; j++) {
+                if (binLoads[j] < binLoads[bin]) {
+                    bin = j;
+                }
+            }
+            bins.get(bin).add(i);
+            binLoads[bin] += components.get(i).getContactRequests().size();
+        }
+        LOGGER.info("Solving {} requests in {} components on {} threads.", problem.getContactRequests().size(),
+                components.size(), binCount);
+
+        // The termination of each component is up to its BudgetTermination, the spent limit is only a safeguard
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig(solverConfig)
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(spentLimit)));
+        // Each thread sets the elements of its components, read once the threads are done
+        ContactPlan[] solvedComponents = new ContactPlan[components.size()];
+        ExecutorService executor = Executors.newFixedThreadPool(binCount, r -> new Thread(r, "ComponentSolver"));
+        try {
+            List<Future<?>> futures = new ArrayList<>(binCount);
+            for (List<Integer> bin : bins) {
+                futures.add(executor.submit(
+                        () -> solveOneAfterTheOther(solverFactory, bin, components, solvedComponents, spentLimit)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving the components", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solving a component failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return merge(problem, components, Arrays.asList(solvedComponents));
+    }
+
+    // A single solver for the components of a thread, built once: building a solver also builds its score director
+    private static void solveOneAfterTheOther(SolverFactory<ContactPlan> solverFactory, List<Integer> bin,
+            List<ContactPlan> components, ContactPlan[] solvedComponents, Duration spentLimit) {
+        Solver<ContactPlan> solver = solverFactory.buildSolver();
+        // As for a single solver, the time spent building it is not counted
+        long deadline = System.nanoTime() + spentLimit.toNanos();
+        BudgetTermination termination = new BudgetTermination(solver);
+        ((DefaultSolver<ContactPlan>) solver).addPhaseLifecycleListener(termination);
+        long requestsLeft = bin.stream().mapToLong(i -> components.get(i).getContactRequests().size()).sum();
+        for (int i : bin) {
+            ContactPlan component = components.get(i);
+            int requestCount = component.getContactRequests().size();
+            long budgetMillis = Math.max(1, (deadline - System.nanoTime()) / 1_000_000 * requestCount / requestsLeft);
+            requestsLeft -= requestCount;
+            termination.reset(budgetMillis, FeasibilityAnalysis.analyze(component).getBestScoreBound());
+            long start = System.nanoTime();
+            ContactPlan solved = solver.solve(component);
+            solvedComponents[i] = solved;
+            LOGGER.info("Component {} of {} requests solved in {} of {} ms: {}", i, requestCount,
+                    (System.nanoTime() - start) / 1_000_000, budgetMillis, solved.getScore());
+        }
+    }
+
+    /**
+     * @return the components with requests, largest first, sharing the request and visibility instances of the plan
+     */
+    public static List<ContactPlan> decompose(ContactPlan plan) {
+        // Union-find of the satellites, by id in the NameDictionary of the plan
+        int[] parents = new int[plan.getSatelliteNames().size()];
+        Arrays.setAll(parents, satelliteId -> satelliteId);
+        // Assigned too short, a contact lasts longer than its visibility
+        long[] longestRequestBySatellite = new long[parents.length];
+        for (ContactRequest cr : plan.getContactRequests()) {
+            int satelliteId = cr.getSatelliteId();
+            longestRequestBySatellite[satelliteId] = Math.max(longestRequestBySatellite[satelliteId],
+                    cr.getDurationMillis());
+            // The candidates of other satellites are ignored, the solver can only assign them against a hard
+            // constraint: a request for an unknown satellite would otherwise join all the satellites together
+            if (cr.getVisibility() != null) {
+                union(parents, satelliteId, cr.getVisibility().getSatelliteId());
+            }
+        }
+
+        // Sweep of the contacts each visibility of an antenna can hold, by antenna then start
+        Visibility[] visibilities = plan.getVisibilities().toArray(new Visibility[0]);
+        Arrays.sort(visibilities, Comparator.comparingInt(Visibility::getAntennaId)
+                .thenComparingLong(Visibility::getFromMillis));
+        long overlapEnd = Long.MIN_VALUE;
+        int overlapSatellite = NameDictionary.NONE;
+        for (int i = 0; i < visibilities.length; i++) {
+            Visibility v = visibilities[i];
+            if (i > 0 && visibilities[i - 1].getAntennaId() != v.getAntennaId()) {
+                overlapEnd = Long.MIN_VALUE;
+            }
+            long end = Math.max(v.getToMillis(), v.getFromMillis() + longestRequestBySatellite[v.getSatelliteId()]);
+            if (v.getFromMillis() < overlapEnd) {
+                union(parents, overlapSatellite, v.getSatelliteId());
+            }
+            if (end > overlapEnd) {
+                overlapEnd = end;
+                overlapSatellite = v.getSatelliteId();
+            }
+        }
+
+        ContactPlan[] componentsByRoot = new ContactPlan[parents.length];
+        List<ContactPlan> components = new ArrayList<>();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            int root = find(parents, cr.getSatelliteId());
+            if (componentsByRoot[root] == null) {
+                componentsByRoot[root] = emptyPlan(plan);
+                components.add(componentsByRoot[root]);
+            }
+            componentsByRoot[root].getContactRequests().add(cr);
+        }
+        for (Visibility v : plan.getVisibilities()) {
+            ContactPlan component = componentsByRoot[find(parents, v.getSatelliteId())];
+            if (component != null) {
+                component.getVisibilities().add(v);
+            }
+        }
+        components.sort(Comparator.comparingInt((ContactPlan c) -> c.getContactRequests().size()).reversed());
+        return components;
+    }
+
+    // Keeps the candidate visibilities of the requests, unlike the constructor indexing the visibilities
+    private static ContactPlan emptyPlan(ContactPlan parent) {
+        ContactPlan plan = new ContactPlan();
+        plan.setNames(parent);
+        plan.setVisibilities(new ArrayList<>());
+        plan.setContactRequests(new ArrayList<>());
+        return plan;
+    }
+
+    private static int find(int[] parents, int satelliteId) {
+        int root = satelliteId;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        // Path compression
+        while (parents[satelliteId] != root) {
+            int parent = parents[satelliteId];
+            parents[satelliteId] = root;
+            satelliteId = parent;
+        }
+        return root;
+    }
+
+    private static void union(int[] parents, int satelliteId, int otherSatelliteId) {
+        parents[find(parents, otherSatelliteId)] = find(parents, satelliteId);
+    }
+
+    /**
+     * @return a plan of the solved requests of the components, in the order of the problem, its score the sum of
+     * the scores of the components
+     */
+    static ContactPlan merge(ContactPlan problem, List<ContactPlan> components, List<ContactPlan> solvedComponents) {
+        Map<ContactRequest, ContactRequest> solvedRequests = new IdentityHashMap<>();
+        HardMediumSoftScore score = HardMediumSoftScore.ZERO;
+        for (int i = 0; i < components.size(); i++) {
+            List<ContactRequest> requests = components.get(i).getContactRequests();
+            List<ContactRequest> solved = solvedComponents.get(i).getContactRequests();
+            for (int j = 0; j < requests.size(); j++) {
+                solvedRequests.put(requests.get(j), solved.get(j));
+            }
+            score = score.add(solvedComponents.get(i).getScore());
+        }
+        ContactPlan merged = new ContactPlan();
+        merged.setNames(problem);
+        merged.setVisibilities(problem.getVisibilities());
+        merged.setContactRequests(problem.getContactRequests().stream().map(solvedRequests::get)
+                .collect(Collectors.toList()));
+        merged.setScore(score);
+        return merged;
+    }
+}
@@ -0,0 +1,85 @@
+package org.acme.sat.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+
+/**
+ * Splits a contact plan into parts made of whole satellites: the requests of a satellite and its visibilities
+ * always end up in the same part. Parts are balanced by number of requests.
+ * <p>
+ * A request can only be satisfied by a visibility of its own satellite, so the only conflicts between parts are
+ * antenna conflicts, left to the local search phase following the partitioned search.
+ */
+public class ContactPlanPartitioner implements SolutionPartitioner<ContactPlan> {
+
+    private int partCount = 4;
+
+    // Custom property of the partitioned search phase configuration
+    public void setPartCount(int partCount) {
+        this.partCount = partCount;
+    }
+
+    @Override
+    public List<ContactPlan> splitWorkingSolution(ScoreDirector<ContactPlan> scoreDirector, Integer runnablePartThreadLimit) {
+        ContactPlan plan = scoreDirector.getWorkingSolution();
+        Map<Integer, List<ContactRequest>> requestsBySat = new LinkedHashMap<>();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            requestsBySat.computeIfAbsent(cr.getSatelliteKey(), k -> new ArrayList<>()).add(cr);
+        }
+        Map<Integer, List<Visibility>> visibilitiesBySat = new LinkedHashMap<>();
+        for (Visibility v : plan.getVisibilities()) {
+            visibilitiesBySat.computeIfAbsent(v.getSatelliteKey(), k -> new ArrayList<>()).add(v);
+        }
+
+        // Largest satellites first, each to the part with the fewest requests so far
+        int parts = Math.max(1, Math.min(partCount, requestsBySat.size()));
+        List<List<Visibility>> partVisibilities = new ArrayList<>(parts);
+        List<List<ContactRequest>> partRequests = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            partVisibilities.add(new ArrayList<>());
+            partRequests.add(new ArrayList<>());
+        }
+        List<Integer> satellites = new ArrayList<>(requestsBySat.keySet());
+        satellites.sort(Comparator.comparingInt((Integer sat) -> requestsBySat.get(sat).size()).reversed());
+        for (Integer satellite : satellites) {
+            int part = 0;
+            for (int i = 1; i < parts; i++) {
+                if (partRequests.get(i).size() < partRequests.get(part).size()) {
+                    part = i;
+                }
+            }
+            for (ContactRequest cr : requestsBySat.get(satellite)) {
+                partRequests.get(part).add(copy(cr));
+            }
+            partVisibilities.get(part).addAll(visibilitiesBySat.getOrDefault(satellite, new ArrayList<>()));
+        }
+
+        List<ContactPlan> partPlans = new ArrayList<>(parts);
+        for (int i = 0; i < parts; i++) {
+            partPlans.add(new ContactPlan(partVisibilities.get(i), partRequests.get(i), plan));
+        }
+        return partPlans;
+    }
+
+    // Parts need their own entities, matched back to the working solution by planning id
+    private static ContactRequest copy(ContactRequest cr) {
+        ContactRequest copy = new ContactRequest();
+        copy.setId(cr.getId());
+        copy.setSatellite(cr.getSatellite());
+        copy.setDuration(cr.getDuration());
+        copy.setPriority(cr.getPriority());
+        copy.setVisibility(cr.getVisibility());
+        copy.setStartOffset(cr.getStartOffset());
+        copy.setPinned(cr.isPinned());
+        return copy;
+    }
+}
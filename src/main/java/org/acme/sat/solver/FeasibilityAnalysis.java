@@ -0,0 +1,275 @@
+package org.acme.sat.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.NameDictionary;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+/**
+ * Bounds the best score of a plan before solving it, from the graph of the compatible request and visibility
+ * pairs: the candidate visibilities of the request satellite lasting long enough, or the visibility of a pinned
+ * request.
+ * <p>
+ * A visibility hosts several contacts one after the other, at their start offsets, at most as many as the shortest
+ * of its compatible requests fits in it: the visibility is split in as many slots. In a plan without hard penalty,
+ * each request is either assigned a slot of a compatible visibility used by no other request, or left unassigned.
+ * The first are a matching of the graph, so at least the requests left out of its maximum matching are unassigned,
+ * and the medium score is at most minus the sum of their smallest possible priorities: those of the requests
+ * without compatible visibility, and the lowest of the others. The satellite and antenna conflicts are not
+ * considered, the bound may not be reached.
+ * <p>
+ * The requests without compatible visibility can never be satisfied. The other requests left out of some maximum
+ * matching are contested: together with the requests reachable from them by alternating paths, they are more than
+ * the slots they can use.
+ */
+public class FeasibilityAnalysis {
+
+    private static final int REPORTED_ID_LIMIT = 20;
+
+    private final int requestCount;
+    private final int maximumMatchingSize;
+    private final long unassignedPriorityBound;
+    private final List<ContactRequest> unsatisfiableRequests;
+    private final Map<String, Contention> contentions;
+    private final long timeMillisSpent;
+
+    private FeasibilityAnalysis(int requestCount, int maximumMatchingSize, long unassignedPriorityBound,
+            List<ContactRequest> unsatisfiableRequests, Map<String, Contention> contentions, long timeMillisSpent) {
+        this.requestCount = requestCount;
+        this.maximumMatchingSize = maximumMatchingSize;
+        this.unassignedPriorityBound = unassignedPriorityBound;
+        this.unsatisfiableRequests = unsatisfiableRequests;
+        this.contentions = contentions;
+        this.timeMillisSpent = timeMillisSpent;
+    }
+
+    public static FeasibilityAnalysis analyze(ContactPlan plan) {
+        long start = System.nanoTime();
+        List<ContactRequest> requests = plan.getContactRequests();
+        Map<Visibility, Integer> visibilityIndexes = new HashMap<>();
+        List<Visibility> indexedVisibilities = new ArrayList<>();
+        // Requests of a satellite with close durations have the same compatible visibilities, indexed once
+        Map<List<Object>, int[]> adjacencies = new HashMap<>();
+        int[][] adjacency = new int[requests.size()][];
+        for (int i = 0; i < requests.size(); i++) {
+            ContactRequest cr = requests.get(i);
+            List<Visibility> candidates = cr.isPinned() ? Collections.singletonList(cr.getVisibility())
+                    : cr.getCandidateVisibilities() == null ? Collections.emptyList() : cr.getCandidateVisibilities();
+            adjacency[i] = adjacencies.computeIfAbsent(List.of(candidates, cr.getSatelliteKey(), cr.getDurationMillis()),
+                    k -> candidates.stream()
+                            .filter(v -> v != null && v.getSatelliteId() == cr.getSatelliteId()
+                                    && v.getDurationMillis() >= cr.getDurationMillis())
+                            .mapToInt(v -> visibilityIndexes.computeIfAbsent(v, key -> {
+                                indexedVisibilities.add(key);
+                                return indexedVisibilities.size() - 1;
+                            }))
+                            .toArray());
+        }
+        // As many slots as the shortest compatible request fits in each visibility, the slots of one in a row
+        long[] shortestDurations = new long[indexedVisibilities.size()];
+        Arrays.fill(shortestDurations, Long.MAX_VALUE);
+        for (int i = 0; i < requests.size(); i++) {
+            for (int visibility : adjacency[i]) {
+                shortestDurations[visibility] = Math.min(shortestDurations[visibility],
+                        requests.get(i).getDurationMillis());
+            }
+        }
+        int[] firstSlots = new int[indexedVisibilities.size() + 1];
+        for (int visibility = 0; visibility < indexedVisibilities.size(); visibility++) {
+            long capacity = Math.max(1, indexedVisibilities.get(visibility).getDurationMillis()
+                    / Math.max(1, shortestDurations[visibility]));
+            firstSlots[visibility + 1] = Math.toIntExact(firstSlots[visibility] + capacity);
+        }
+        int slotCount = firstSlots[indexedVisibilities.size()];
+        int[] visibilityOfSlot = new int[slotCount];
+        for (int visibility = 0; visibility < indexedVisibilities.size(); visibility++) {
+            Arrays.fill(visibilityOfSlot, firstSlots[visibility], firstSlots[visibility + 1], visibility);
+        }
+        Map<int[], int[]> slotAdjacencies = new IdentityHashMap<>();
+        int[][] slotAdjacency = new int[requests.size()][];
+        for (int i = 0; i < requests.size(); i++) {
+            slotAdjacency[i] = slotAdjacencies.computeIfAbsent(adjacency[i], visibilities -> Arrays.stream(visibilities)
+                    .flatMap(visibility -> IntStream.range(firstSlots[visibility], firstSlots[visibility + 1]))
+                    .toArray());
+        }
+        int[] matchOfRequest = HopcroftKarp.maximumMatching(slotAdjacency, slotCount);
+        int maximumMatchingSize = (int) Arrays.stream(matchOfRequest).filter(v -> v != HopcroftKarp.FREE).count();
+
+        // Alternating breadth first search from the unmatched requests
+        int[] requestOfSlot = new int[slotCount];
+        Arrays.fill(requestOfSlot, HopcroftKarp.FREE);
+        for (int i = 0; i < matchOfRequest.length; i++) {
+            if (matchOfRequest[i] != HopcroftKarp.FREE) {
+                requestOfSlot[matchOfRequest[i]] = i;
+            }
+        }
+        boolean[] reachedRequests = new boolean[requests.size()];
+        boolean[] reachedSlots = new boolean[slotCount];
+        boolean[] reachedVisibilities = new boolean[indexedVisibilities.size()];
+        int[] queue = new int[requests.size()];
+        int queueEnd = 0;
+        List<ContactRequest> unsatisfiableRequests = new ArrayList<>();
+        for (int i = 0; i < matchOfRequest.length; i++) {
+            if (matchOfRequest[i] == HopcroftKarp.FREE) {
+                if (adjacency[i].length == 0) {
+                    unsatisfiableRequests.add(requests.get(i));
+                } else {
+                    reachedRequests[i] = true;
+                    queue[queueEnd++] = i;
+                }
+            }
+        }
+        // By id of the satellite in the NameDictionary of the plan, named once filled
+        NameDictionary satelliteNames = plan.getSatelliteNames();
+        Contention[] contentionsBySatellite = new Contention[satelliteNames.size()];
+        for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+            int request = queue[queueStart];
+            int satelliteId = requests.get(request).getSatelliteId();
+            if (contentionsBySatellite[satelliteId] == null) {
+                contentionsBySatellite[satelliteId] = new Contention();
+            }
+            Contention contention = contentionsBySatellite[satelliteId];
+            contention.requestCount++;
+            for (int slot : slotAdjacency[request]) {
+                if (!reachedSlots[slot]) {
+                    reachedSlots[slot] = true;
+                    contention.slotCount++;
+                    if (!reachedVisibilities[visibilityOfSlot[slot]]) {
+                        reachedVisibilities[visibilityOfSlot[slot]] = true;
+                        contention.visibilityCount++;
+                    }
+                    // Matched, or the matching would not be maximum
+                    int matchedRequest = requestOfSlot[slot];
+                    if (!reachedRequests[matchedRequest]) {
+                        reachedRequests[matchedRequest] = true;
+                        queue[queueEnd++] = matchedRequest;
+                    }
+                }
+            }
+        }
+        // The unsatisfiable requests, then the lowest priorities of the others, up to the requests left out
+        long unassignedPriorityBound = 0;
+        for (ContactRequest cr : unsatisfiableRequests) {
+            unassignedPriorityBound += cr.getPriority();
+        }
+        int[] priorities = new int[requests.size() - unsatisfiableRequests.size()];
+        for (int i = 0, j = 0; i < requests.size(); i++) {
+            if (adjacency[i].length > 0) {
+                priorities[j++] = requests.get(i).getPriority();
+            }
+        }
+        Arrays.sort(priorities);
+        for (int i = 0; i < requests.size() - maximumMatchingSize - unsatisfiableRequests.size(); i++) {
+            unassignedPriorityBound += priorities[i];
+        }
+        Map<String, Contention> contentions = new TreeMap<>();
+        for (int satelliteId = 0; satelliteId < contentionsBySatellite.length; satelliteId++) {
+            if (contentionsBySatellite[satelliteId] != null) {
+                contentions.put(satelliteNames.nameOf(satelliteId), contentionsBySatellite[satelliteId]);
+            }
+        }
+        return new FeasibilityAnalysis(requests.size(), maximumMatchingSize, unassignedPriorityBound,
+                unsatisfiableRequests, contentions, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return the most requests assignable at the same time to compatible visibility slots without visibility
+     * conflict
+     */
+    public int getMaximumMatchingSize() {
+        return maximumMatchingSize;
+    }
+
+    /**
+     * @return the requests left unsatisfied by any plan, at least
+     */
+    public int getUnassignableRequestCount() {
+        return requestCount - maximumMatchingSize;
+    }
+
+    /**
+     * @return the best score a plan can reach, a best score limit ending the solve once reached
+     */
+    public HardMediumSoftScore getBestScoreBound() {
+        return HardMediumSoftScore.ofMedium(-Math.toIntExact(unassignedPriorityBound));
+    }
+
+    /**
+     * @return the requests without compatible visibility
+     */
+    public List<ContactRequest> getUnsatisfiableRequests() {
+        return unsatisfiableRequests;
+    }
+
+    /**
+     * @return by satellite, the contested requests and the visibilities they compete for
+     */
+    public Map<String, Contention> getContentions() {
+        return contentions;
+    }
+
+    public String getReport() {
+        StringBuilder report = new StringBuilder("Feasibility analysis of ").append(requestCount)
+                .append(" requests in ").append(timeMillisSpent).append(" ms: at most ").append(maximumMatchingSize)
+                .append(" can be satisfied, the best score is at most ").append(getBestScoreBound()).append('.');
+        if (!unsatisfiableRequests.isEmpty()) {
+            report.append(System.lineSeparator()).append(unsatisfiableRequests.size())
+                    .append(" requests have no visibility of their satellite lasting long enough and can never be satisfied: ")
+                    .append(unsatisfiableRequests.stream().limit(REPORTED_ID_LIMIT).map(ContactRequest::getId)
+                            .collect(Collectors.joining(", ")));
+            if (unsatisfiableRequests.size() > REPORTED_ID_LIMIT) {
+                report.append(" and ").append(unsatisfiableRequests.size() - REPORTED_ID_LIMIT).append(" more");
+            }
+        }
+        contentions.forEach((satellite, contention) -> report.append(System.lineSeparator())
+                .append(satellite).append(": ").append(contention.getRequestCount()).append(" requests compete for ")
+                .append(contention.getVisibilityCount()).append(" visibilities hosting at most ")
+                .append(contention.getSlotCount()).append(" contacts, ")
+                .append(contention.getUnassignableRequestCount()).append(" of them cannot be satisfied."));
+        return report.toString();
+    }
+
+    /**
+     * Requests of a satellite more than the visibility slots they can use.
+     */
+    public static class Contention {
+        private int requestCount;
+        private int visibilityCount;
+        private int slotCount;
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        public int getVisibilityCount() {
+            return visibilityCount;
+        }
+
+        /**
+         * @return the most contacts the visibilities host, at least one each
+         */
+        public int getSlotCount() {
+            return slotCount;
+        }
+
+        public int getUnassignableRequestCount() {
+            return requestCount - slotCount;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.acme.sat.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.phase.custom.CustomPhaseCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Assigns the unassigned contact requests greedily, as in interval scheduling: scarcest requests first (fewest
+ * candidate visibilities, then longest), each to the earliest candidate lasting long enough, at its earliest start
+ * offset whose contact is free on both the satellite and the antenna occupancy timelines, so that short requests
+ * share long passes. A request with no such candidate is left unassigned, at the cost of a medium penalty rather
+ * than a hard conflict: the local search may still serve it by moving the others.
+ * <p>
+ * With the startOffsets custom property set to false, each contact starts with its pass, as without start offsets.
+ * <p>
+ * Requests already assigned, pinned or not, occupy their timelines first, so a warm started plan is completed
+ * around them. Unlike the construction heuristics the score is not calculated for each candidate, the timelines
+ * only being checked as the constraints would: the contact on both the satellite and the antenna.
+ */
+public class GreedyConstructionPhaseCommand implements CustomPhaseCommand<ContactPlan> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GreedyConstructionPhaseCommand.class);
+
+    private static final Comparator<ContactRequest> SCARCITY_ORDER = Comparator
+            .comparingInt((ContactRequest cr) -> candidates(cr).size())
+            .thenComparing(Comparator.comparingLong(ContactRequest::getDurationMillis).reversed())
+            .thenComparing(ContactRequest::getId);
+    private static final Comparator<Visibility> START_ORDER = Comparator.comparingLong(Visibility::getFromMillis)
+            .thenComparing(Visibility::getId);
+
+    private boolean startOffsets = true;
+
+    // Custom property of the custom phase configuration
+    public void setStartOffsets(boolean startOffsets) {
+        this.startOffsets = startOffsets;
+    }
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<ContactPlan> scoreDirector) {
+        long start = System.nanoTime();
+        // By id in the NameDictionary of the plan
+        ContactPlan plan = scoreDirector.getWorkingSolution();
+        OccupancyTimeline[] satelliteTimelines = new OccupancyTimeline[plan.getSatelliteNames().size()];
+        OccupancyTimeline[] antennaTimelines = new OccupancyTimeline[plan.getAntennaNames().size()];
+        List<ContactRequest> unassigned = new ArrayList<>();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            if (cr.getVisibility() == null) {
+                unassigned.add(cr);
+            } else {
+                occupy(cr, cr.getVisibility(), satelliteTimelines, antennaTimelines);
+            }
+        }
+        unassigned.sort(SCARCITY_ORDER);
+
+        // Requests of a satellite with close durations have equal candidate lists, sorted once
+        Map<List<Visibility>, Visibility[]> sortedCandidates = new HashMap<>();
+        int assignedCount = 0;
+        for (ContactRequest cr : unassigned) {
+            Visibility[] candidates = sortedCandidates.computeIfAbsent(candidates(cr), c -> {
+                Visibility[] sorted = c.toArray(new Visibility[0]);
+                Arrays.sort(sorted, START_ORDER);
+                return sorted;
+            });
+            Visibility chosen = earliestFree(cr, candidates, satelliteTimelines, antennaTimelines);
+            if (chosen == null) {
+                continue;
+            }
+            int startOffset = earliestFreeStartOffset(cr, chosen, satelliteTimelines, antennaTimelines);
+            scoreDirector.beforeVariableChanged(cr, "visibility");
+            cr.setVisibility(chosen);
+            scoreDirector.afterVariableChanged(cr, "visibility");
+            scoreDirector.beforeVariableChanged(cr, "startOffset");
+            cr.setStartOffset(startOffset);
+            scoreDirector.afterVariableChanged(cr, "startOffset");
+            occupy(cr, chosen, satelliteTimelines, antennaTimelines);
+            assignedCount++;
+        }
+        scoreDirector.triggerVariableListeners();
+        LOGGER.info("Greedy construction assigned {} requests, left {} unassigned, in {} ms.", assignedCount,
+                unassigned.size() - assignedCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return the earliest candidate of the satellite lasting long enough and free on both timelines, at some start
+     * offset, null if none
+     */
+    private Visibility earliestFree(ContactRequest cr, Visibility[] candidates,
+            OccupancyTimeline[] satelliteTimelines, OccupancyTimeline[] antennaTimelines) {
+        for (Visibility v : candidates) {
+            if (v.getSatelliteId() == cr.getSatelliteId() && v.getDurationMillis() >= cr.getDurationMillis()
+                    && earliestFreeStartOffset(cr, v, satelliteTimelines, antennaTimelines) >= 0) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the earliest start offset of the request in the visibility free on both timelines, up to the one
+     * ending the contact with the pass, -1 if none
+     */
+    private int earliestFreeStartOffset(ContactRequest cr, Visibility v, OccupancyTimeline[] satelliteTimelines,
+            OccupancyTimeline[] antennaTimelines) {
+        int lastStartOffset = startOffsets ? cr.getMaxStartOffset(v) : 0;
+        OccupancyTimeline satelliteTimeline = timeline(satelliteTimelines, v.getSatelliteId());
+        OccupancyTimeline antennaTimeline = timeline(antennaTimelines, v.getAntennaId());
+        for (int startOffset = 0; startOffset <= lastStartOffset; startOffset++) {
+            long start = cr.getContactStartIn(v, startOffset);
+            long end = start + cr.getDurationMillis();
+            if (satelliteTimeline.isFree(start, end) && antennaTimeline.isFree(start, end)) {
+                return startOffset;
+            }
+        }
+        return -1;
+    }
+
+    private static void occupy(ContactRequest cr, Visibility v, OccupancyTimeline[] satelliteTimelines,
+            OccupancyTimeline[] antennaTimelines) {
+        long start = cr.getContactStartIn(v);
+        timeline(satelliteTimelines, v.getSatelliteId()).occupy(start, start + cr.getDurationMillis());
+        timeline(antennaTimelines, v.getAntennaId()).occupy(start, start + cr.getDurationMillis());
+    }
+
+    private static OccupancyTimeline timeline(OccupancyTimeline[] timelines, int id) {
+        if (timelines[id] == null) {
+            timelines[id] = new OccupancyTimeline();
+        }
+        return timelines[id];
+    }
+
+    private static List<Visibility> candidates(ContactRequest cr) {
+        List<Visibility> candidates = cr.getCandidateVisibilities();
+        return candidates == null ? Collections.emptyList() : candidates;
+    }
+}
@@ -0,0 +1,125 @@
+package org.acme.sat.solver;
+
+import java.util.Arrays;
+
+/**
+ * Maximum matching of a bipartite graph by Hopcroft-Karp, in O(E sqrt(V)): each phase finds a maximal set of
+ * shortest vertex disjoint augmenting paths, by a breadth first search layering the left vertices and depth first
+ * searches along the layers. The depth first searches are iterative, augmenting paths can be as long as the graph.
+ */
+final class HopcroftKarp {
+    static final int FREE = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final int[][] adjacency;
+    private final int[] matchOfLeft;
+    private final int[] matchOfRight;
+    private final int[] layer;
+    // Index in its adjacency of the next edge to try from each left vertex, and the current path
+    private final int[] nextEdge;
+    private final int[] path;
+
+    private HopcroftKarp(int[][] adjacency, int rightCount) {
+        this.adjacency = adjacency;
+        matchOfLeft = new int[adjacency.length];
+        matchOfRight = new int[rightCount];
+        Arrays.fill(matchOfLeft, FREE);
+        Arrays.fill(matchOfRight, FREE);
+        layer = new int[adjacency.length];
+        nextEdge = new int[adjacency.length];
+        path = new int[adjacency.length];
+    }
+
+    /**
+     * @param adjacency the right vertices, from 0 to rightCount excluded, adjacent to each left vertex
+     * @return the right vertex matched to each left vertex, {@link #FREE} if none
+     */
+    static int[] maximumMatching(int[][] adjacency, int rightCount) {
+        HopcroftKarp hopcroftKarp = new HopcroftKarp(adjacency, rightCount);
+        hopcroftKarp.matchGreedily();
+        while (hopcroftKarp.layer()) {
+            Arrays.fill(hopcroftKarp.nextEdge, 0);
+            for (int left = 0; left < adjacency.length; left++) {
+                if (hopcroftKarp.matchOfLeft[left] == FREE) {
+                    hopcroftKarp.augment(left);
+                }
+            }
+        }
+        return hopcroftKarp.matchOfLeft;
+    }
+
+    // Most of the matching, leaving the phases only the augmenting paths
+    private void matchGreedily() {
+        for (int left = 0; left < adjacency.length; left++) {
+            for (int right : adjacency[left]) {
+                if (matchOfRight[right] == FREE) {
+                    matchOfLeft[left] = right;
+                    matchOfRight[right] = left;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Layers the left vertices by their alternating distance from the free left vertices.
+     *
+     * @return true if a free right vertex is reachable, that is if the matching has an augmenting path
+     */
+    private boolean layer() {
+        int[] queue = new int[adjacency.length];
+        int queueEnd = 0;
+        for (int left = 0; left < adjacency.length; left++) {
+            if (matchOfLeft[left] == FREE) {
+                layer[left] = 0;
+                queue[queueEnd++] = left;
+            } else {
+                layer[left] = UNREACHED;
+            }
+        }
+        boolean augmentable = false;
+        for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+            int left = queue[queueStart];
+            for (int right : adjacency[left]) {
+                int matchedLeft = matchOfRight[right];
+                if (matchedLeft == FREE) {
+                    augmentable = true;
+                } else if (layer[matchedLeft] == UNREACHED) {
+                    layer[matchedLeft] = layer[left] + 1;
+                    queue[queueEnd++] = matchedLeft;
+                }
+            }
+        }
+        return augmentable;
+    }
+
+    // Depth first search of an augmenting path from the free left vertex root along the layers, flipping it if found
+    private void augment(int root) {
+        path[0] = root;
+        int depth = 1;
+        while (depth > 0) {
+            int left = path[depth - 1];
+            if (nextEdge[left] == adjacency[left].length) {
+                // Dead end for the rest of the phase
+                layer[left] = UNREACHED;
+                depth--;
+                continue;
+            }
+            int right = adjacency[left][nextEdge[left]++];
+            int matchedLeft = matchOfRight[right];
+            if (matchedLeft == FREE) {
+                // Each left vertex of the path is matched to the right vertex of the edge it was left by
+                for (int i = depth - 1; i >= 0; i--) {
+                    int pathLeft = path[i];
+                    int pathRight = adjacency[pathLeft][nextEdge[pathLeft] - 1];
+                    matchOfLeft[pathLeft] = pathRight;
+                    matchOfRight[pathRight] = pathLeft;
+                }
+                return;
+            }
+            if (layer[matchedLeft] == layer[left] + 1) {
+                path[depth++] = matchedLeft;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.acme.sat.solver;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The busy periods of an antenna or a satellite, in epoch millis. Occupied periods are merged, so that a period
+ * can be checked against its two neighbours only.
+ */
+class OccupancyTimeline {
+    // Start to end of disjoint busy periods
+    private final TreeMap<Long, Long> busy = new TreeMap<>();
+
+    /**
+     * @return true if [from, to) does not overlap any busy period
+     */
+    boolean isFree(long from, long to) {
+        Map.Entry<Long, Long> before = busy.floorEntry(from);
+        if (before != null && before.getValue() > from) {
+            return false;
+        }
+        Map.Entry<Long, Long> after = busy.higherEntry(from);
+        return after == null || after.getKey() >= to;
+    }
+
+    /**
+     * Marks [from, to) busy, it may overlap busy periods.
+     */
+    void occupy(long from, long to) {
+        Map.Entry<Long, Long> before = busy.floorEntry(from);
+        if (before != null && before.getValue() >= from) {
+            from = before.getKey();
+            to = Math.max(to, before.getValue());
+        }
+        for (Map.Entry<Long, Long> after = busy.ceilingEntry(from); after != null && after.getKey() <= to;
+                after = busy.ceilingEntry(from)) {
+            to = Math.max(to, after.getValue());
+            busy.remove(after.getKey());
+        }
+        busy.put(from, to);
+    }
+}
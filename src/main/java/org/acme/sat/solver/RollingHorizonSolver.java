@@ -0,0 +1,342 @@
+package org.acme.sat.solver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.domain.VisibilityIndex;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solves a long horizon as a sequence of windows, each only holding the visibilities starting within the lookahead
+ * of its start, so the constraints only join the contacts of a window.
+ * <p>
+ * The requests not committed yet are queued in the order of the problem. The requests having no due time, a window
+ * admits at most the share of the queued requests of each satellite its lookahead is of the rest of the horizon, first
+ * queued first, and only those with a candidate free on both the satellite and the antenna timelines, as in the
+ * greedy construction, starting from it. Once the window is solved, the contacts without hard conflict starting
+ * before its commit point (its start plus the step) are committed: they are frozen, and carried as pinned contacts
+ * into the next windows they overlap. The other admitted requests go back to the queue, those starting after the
+ * commit point keeping their visibility as initial value in the next window, which starts at the commit point.
+ * <p>
+ * The requests still queued at the end of the horizon are left unassigned. Each window is solved until its spent
+ * limit or its best score bound, see {@link FeasibilityAnalysis}, by a single solver reused from one window to the
+ * next.
+ */
+public class RollingHorizonSolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RollingHorizonSolver.class);
+
+    private final SolverConfig solverConfig;
+    private final Duration lookahead;
+    private final Duration step;
+    private final List<Step> steps = new ArrayList<>();
+
+    /**
+     * @param solverConfig its termination is replaced for each window
+     * @param step the time from the start of a window to its commit point, at most the lookahead
+     */
+    public RollingHorizonSolver(SolverConfig solverConfig, Duration lookahead, Duration step) {
+        if (step.isNegative() || step.isZero() || step.compareTo(lookahead) > 0) {
+            throw new IllegalArgumentException("The step (" + step + ") must be positive and at most the lookahead ("
+                    + lookahead + ").");
+        }
+        this.solverConfig = solverConfig;
+        this.lookahead = lookahead;
+        this.step = step;
+    }
+
+    /**
+     * @param stepSpentLimit the most time spent solving each window
+     * @return a plan of the problem visibilities and new requests, in the order of the problem, assigned as committed,
+     * with its score
+     */
+    public ContactPlan solve(ContactPlan problem, Duration stepSpentLimit) {
+        steps.clear();
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig(solverConfig)
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(stepSpentLimit)));
+        Solver<ContactPlan> solver = solverFactory.buildSolver();
+        BudgetTermination termination = new BudgetTermination(solver);
+        ((DefaultSolver<ContactPlan>) solver).addPhaseLifecycleListener(termination);
+
+        List<Visibility> visibilities = new ArrayList<>(problem.getVisibilities());
+        visibilities.sort(Comparator.comparingLong(Visibility::getFromMillis));
+        long horizonEnd = visibilities.stream().mapToLong(Visibility::getToMillis).max().orElse(Long.MIN_VALUE);
+        // Committed contact (the pinned request or its solved clone) or initial visibility of each problem request, by
+        // identity
+        Map<ContactRequest, ContactRequest> committed = new IdentityHashMap<>();
+        Map<ContactRequest, Visibility> initialValues = new IdentityHashMap<>();
+        List<ContactRequest> queued = new ArrayList<>();
+        for (ContactRequest cr : problem.getContactRequests()) {
+            if (cr.isPinned() && cr.getVisibility() != null) {
+                committed.put(cr, cr);
+            } else {
+                queued.add(cr);
+                if (cr.getVisibility() != null) {
+                    initialValues.put(cr, cr.getVisibility());
+                }
+            }
+        }
+
+        int first = 0;
+        long windowStart = visibilities.isEmpty() ? Long.MAX_VALUE : visibilities.get(0).getFromMillis();
+        while (windowStart < horizonEnd && !queued.isEmpty()) {
+            long windowEnd = windowStart + lookahead.toMillis();
+            boolean last = windowEnd >= horizonEnd;
+            long commitPoint = last ? Long.MAX_VALUE : windowStart + step.toMillis();
+            while (first < visibilities.size() && visibilities.get(first).getFromMillis() < windowStart) {
+                first++;
+            }
+            int end = first;
+            while (end < visibilities.size() && visibilities.get(end).getFromMillis() < windowEnd) {
+                end++;
+            }
+            List<Visibility> windowVisibilities = new ArrayList<>(visibilities.subList(first, end));
+            Map<ContactRequest, ContactRequest> admitted = new IdentityHashMap<>();
+            ContactPlan window = buildWindow(problem, windowStart, windowEnd, horizonEnd, windowVisibilities,
+                    committed, queued, initialValues, admitted);
+            if (admitted.isEmpty()) {
+                windowStart = commitPoint;
+                continue;
+            }
+
+            long start = System.nanoTime();
+            termination.reset(stepSpentLimit.toMillis(), FeasibilityAnalysis.analyze(window).getBestScoreBound());
+            ContactPlan solved = solver.solve(window);
+            long solveMillis = (System.nanoTime() - start) / 1_000_000;
+            PlanExplanation explanation = PlanExplanation.explain(solverFactory, solved, 0);
+
+            // The solved plan is a clone, its requests in the order of the window
+            List<ContactRequest> solvedRequests = solved.getContactRequests();
+            List<ContactRequest> windowRequests = window.getContactRequests();
+            int committedCount = 0;
+            for (int i = 0; i < windowRequests.size(); i++) {
+                ContactRequest cr = admitted.get(windowRequests.get(i));
+                if (cr == null) {
+                    continue;
+                }
+                ContactRequest solvedRequest = solvedRequests.get(i);
+                if (solvedRequest.getVisibility() == null) {
+                    initialValues.remove(cr);
+                } else if (!explanation.isHardPenalized(solvedRequest) && solvedRequest.getContactStart() < commitPoint) {
+                    committed.put(cr, solvedRequest);
+                    initialValues.remove(cr);
+                    committedCount++;
+                } else if (solvedRequest.getContactStart() >= commitPoint) {
+                    initialValues.put(cr, solvedRequest.getVisibility());
+                } else {
+                    initialValues.remove(cr);
+                }
+            }
+            queued.removeIf(committed::containsKey);
+            steps.add(new Step(Instant.ofEpochMilli(windowStart), windowVisibilities.size(), admitted.size(),
+                    committedCount, solveMillis, solved.getScore()));
+            LOGGER.info("Window from {}: {} visibilities, {} requests admitted, {} committed, {} queued, solved in {} ms: {}",
+                    Instant.ofEpochMilli(windowStart), windowVisibilities.size(), admitted.size(), committedCount,
+                    queued.size(), solveMillis, solved.getScore());
+            windowStart = commitPoint;
+        }
+        ContactPlan plan = merge(problem, committed);
+        ScoreManager.create(solverFactory).updateScore(plan);
+        return plan;
+    }
+
+    /**
+     * @param admitted filled with the admitted problem request of each window request
+     * @return a plan of the window visibilities, the committed contacts overlapping the window pinned, and the
+     * admitted requests with their initial value if still in the window, sharing the name dictionaries of the problem
+     */
+    private static ContactPlan buildWindow(ContactPlan problem, long windowStart, long windowEnd, long horizonEnd,
+            List<Visibility> windowVisibilities,
+            Map<ContactRequest, ContactRequest> committed, List<ContactRequest> queued,
+            Map<ContactRequest, Visibility> initialValues, Map<ContactRequest, ContactRequest> admitted) {
+        VisibilityIndex visibilityIndex = new VisibilityIndex(windowVisibilities);
+        List<ContactRequest> windowRequests = new ArrayList<>();
+        committed.forEach((cr, contact) -> {
+            Visibility v = contact.getVisibility();
+            if (Math.max(v.getToMillis(), v.getFromMillis() + cr.getDurationMillis()) > windowStart
+                    && v.getFromMillis() < windowEnd) {
+                ContactRequest frozen = copy(cr);
+                frozen.setVisibility(v);
+                frozen.setStartOffset(contact.getStartOffset());
+                frozen.setPinned(true);
+                frozen.setCandidateVisibilities(Collections.singletonList(v));
+                windowRequests.add(frozen);
+                if (v.getFromMillis() < windowStart) {
+                    windowVisibilities.add(v);
+                }
+            }
+        });
+        // The requests have no due time: those of each satellite spread over the rest of the horizon
+        double ratio = Math.min(1.0, (double) (windowEnd - windowStart) / (horizonEnd - windowStart));
+        int[] quotas = new int[problem.getSatelliteNames().size()];
+        for (ContactRequest cr : queued) {
+            quotas[cr.getSatelliteId()]++;
+        }
+        for (int satelliteId = 0; satelliteId < quotas.length; satelliteId++) {
+            quotas[satelliteId] = (int) Math.ceil(quotas[satelliteId] * ratio);
+        }
+        // Admitted if free on the timelines, after the frozen contacts, as by the greedy construction
+        OccupancyTimeline[] satelliteTimelines = new OccupancyTimeline[quotas.length];
+        OccupancyTimeline[] antennaTimelines = new OccupancyTimeline[problem.getAntennaNames().size()];
+        for (ContactRequest frozen : windowRequests) {
+            occupy(frozen, frozen.getVisibility(), satelliteTimelines, antennaTimelines);
+        }
+        for (ContactRequest cr : queued) {
+            if (quotas[cr.getSatelliteId()] == 0) {
+                continue;
+            }
+            List<Visibility> candidates = visibilityIndex.getCandidates(cr.getSatelliteId(), cr.getDuration());
+            Visibility initialValue = initialValues.get(cr);
+            Visibility free = initialValue != null && initialValue.getFromMillis() >= windowStart
+                    && candidates.contains(initialValue)
+                    && isFree(cr, initialValue, satelliteTimelines, antennaTimelines) ? initialValue : null;
+            for (int i = 0; free == null && i < candidates.size(); i++) {
+                Visibility v = candidates.get(i);
+                if (isFree(cr, v, satelliteTimelines, antennaTimelines)) {
+                    free = v;
+                }
+            }
+            if (free == null) {
+                continue;
+            }
+            quotas[cr.getSatelliteId()]--;
+            occupy(cr, free, satelliteTimelines, antennaTimelines);
+            ContactRequest windowRequest = copy(cr);
+            windowRequest.setCandidateVisibilities(candidates);
+            windowRequest.setVisibility(free);
+            windowRequests.add(windowRequest);
+            admitted.put(windowRequest, cr);
+        }
+        ContactPlan window = new ContactPlan();
+        window.setNames(problem);
+        window.setVisibilities(windowVisibilities);
+        window.setContactRequests(windowRequests);
+        windowRequests.forEach(window::intern);
+        return window;
+    }
+
+    private static boolean isFree(ContactRequest cr, Visibility v, OccupancyTimeline[] satelliteTimelines,
+            OccupancyTimeline[] antennaTimelines) {
+        long start = cr.getContactStartIn(v);
+        long end = start + cr.getDurationMillis();
+        return timeline(satelliteTimelines, v.getSatelliteId()).isFree(start, end)
+                && timeline(antennaTimelines, v.getAntennaId()).isFree(start, end);
+    }
+
+    private static void occupy(ContactRequest cr, Visibility v, OccupancyTimeline[] satelliteTimelines,
+            OccupancyTimeline[] antennaTimelines) {
+        long start = cr.getContactStartIn(v);
+        long end = start + cr.getDurationMillis();
+        timeline(satelliteTimelines, v.getSatelliteId()).occupy(start, end);
+        timeline(antennaTimelines, v.getAntennaId()).occupy(start, end);
+    }
+
+    private static OccupancyTimeline timeline(OccupancyTimeline[] timelines, int id) {
+        if (timelines[id] == null) {
+            timelines[id] = new OccupancyTimeline();
+        }
+        return timelines[id];
+    }
+
+    private static ContactRequest copy(ContactRequest cr) {
+        ContactRequest copy = new ContactRequest(cr.getId(), cr.getSatellite(), cr.getDurationMillis());
+        copy.setPriority(cr.getPriority());
+        copy.setStartOffset(cr.getStartOffset());
+        return copy;
+    }
+
+    private static ContactPlan merge(ContactPlan problem, Map<ContactRequest, ContactRequest> committed) {
+        List<ContactRequest> contactRequests = new ArrayList<>(problem.getContactRequests().size());
+        for (ContactRequest cr : problem.getContactRequests()) {
+            contactRequests.add(copy(cr));
+        }
+        ContactPlan plan = new ContactPlan(problem.getVisibilities(), contactRequests, problem);
+        for (int i = 0; i < contactRequests.size(); i++) {
+            ContactRequest cr = problem.getContactRequests().get(i);
+            ContactRequest contact = committed.get(cr);
+            if (contact != null) {
+                contactRequests.get(i).setVisibility(contact.getVisibility());
+                contactRequests.get(i).setStartOffset(contact.getStartOffset());
+                contactRequests.get(i).setPinned(cr.isPinned());
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * @return the windows of the last solve, in order
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * The solve of a window.
+     */
+    public static class Step {
+        private final Instant windowStart;
+        private final int visibilityCount;
+        private final int admittedCount;
+        private final int committedCount;
+        private final long solveMillis;
+        private final HardMediumSoftScore score;
+
+        Step(Instant windowStart, int visibilityCount, int admittedCount, int committedCount, long solveMillis,
+                HardMediumSoftScore score) {
+            this.windowStart = windowStart;
+            this.visibilityCount = visibilityCount;
+            this.admittedCount = admittedCount;
+            this.committedCount = committedCount;
+            this.solveMillis = solveMillis;
+            this.score = score;
+        }
+
+        public Instant getWindowStart() {
+            return windowStart;
+        }
+
+        /**
+         * @return the visibilities of the window, including those of the pinned contacts starting before it
+         */
+        public int getVisibilityCount() {
+            return visibilityCount;
+        }
+
+        public int getAdmittedCount() {
+            return admittedCount;
+        }
+
+        public int getCommittedCount() {
+            return committedCount;
+        }
+
+        public long getSolveMillis() {
+            return solveMillis;
+        }
+
+        /**
+         * @return the best score of the window, pinned contacts included
+         */
+        public HardMediumSoftScore getScore() {
+            return score;
+        }
+    }
+}
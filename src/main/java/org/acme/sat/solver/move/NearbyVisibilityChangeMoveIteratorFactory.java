@@ -0,0 +1,85 @@
+package org.acme.sat.solver.move;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+/**
+ * Changes the visibility of a random contact request to one of its candidates starting near its current
+ * visibility, the nearest ones being the most likely (nearby selection by {@link VisibilityTimeDistanceMeter}).
+ * <p>
+ * The built-in nearby selection does not fit: it ranks the destinations once per phase from the origin entity,
+ * while here the origin is the current visibility of the request, which changes at every step.
+ * Random selection only.
+ */
+public class NearbyVisibilityChangeMoveIteratorFactory implements MoveIteratorFactory<ContactPlan, VisibilityChangeMove> {
+
+    private int nearbyLimit = 20;
+    private VisibilityTimelines timelines;
+    private List<ContactRequest> movableRequests;
+
+    // Custom property: the candidates farther than the nearbyLimit nearest ones are never selected
+    public void setNearbyLimit(int nearbyLimit) {
+        this.nearbyLimit = nearbyLimit;
+    }
+
+    @Override
+    public void phaseStarted(ScoreDirector<ContactPlan> scoreDirector) {
+        timelines = new VisibilityTimelines();
+        movableRequests = scoreDirector.getWorkingSolution().getContactRequests().stream()
+                // Without candidate a request has no visibility to change to
+                .filter(cr -> !cr.isPinned() && !cr.getCandidateVisibilities().isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<ContactPlan> scoreDirector) {
+        timelines = null;
+        movableRequests = null;
+    }
+
+    @Override
+    public long getSize(ScoreDirector<ContactPlan> scoreDirector) {
+        return (long) movableRequests.size() * nearbyLimit;
+    }
+
+    @Override
+    public Iterator<VisibilityChangeMove> createOriginalMoveIterator(ScoreDirector<ContactPlan> scoreDirector) {
+        throw new UnsupportedOperationException("Nearby visibility changes only support random selection.");
+    }
+
+    @Override
+    public Iterator<VisibilityChangeMove> createRandomMoveIterator(ScoreDirector<ContactPlan> scoreDirector, Random random) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !movableRequests.isEmpty();
+            }
+
+            @Override
+            public VisibilityChangeMove next() {
+                ContactRequest cr = movableRequests.get(random.nextInt(movableRequests.size()));
+                List<Visibility> candidates = cr.getCandidateVisibilities();
+                if (cr.getVisibility() == null) {
+                    return new VisibilityChangeMove(cr, candidates.get(random.nextInt(candidates.size())));
+                }
+                // Quadratic distribution of the rank: favours the nearest candidates
+                double u = random.nextDouble();
+                int rank = 1 + (int) (u * u * Math.min(nearbyLimit, candidates.size()));
+                Visibility nearby = timelines.getNearby(candidates, cr.getVisibility(), rank);
+                if (nearby == null) {
+                    nearby = timelines.getNearby(candidates, cr.getVisibility(), 1);
+                }
+                // Not doable if the request has no other candidate
+                return new VisibilityChangeMove(cr, nearby == null ? cr.getVisibility() : nearby);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.acme.sat.solver.move;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.NameDictionary;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.SwapMove;
+
+/**
+ * Keeps the swaps between requests of the same satellite or on the same antenna: other requests can rarely
+ * take each other's visibility, as candidate visibilities belong to the requested satellite. An unassigned request
+ * only swaps with the requests of its satellite.
+ */
+public class SameSatelliteOrAntennaSwapFilter implements SelectionFilter<ContactPlan, SwapMove<ContactPlan>> {
+
+    @Override
+    public boolean accept(ScoreDirector<ContactPlan> scoreDirector, SwapMove<ContactPlan> move) {
+        ContactRequest left = (ContactRequest) move.getLeftEntity();
+        ContactRequest right = (ContactRequest) move.getRightEntity();
+        return left.getSatelliteId() == right.getSatelliteId()
+                || left.getAntennaId() != NameDictionary.NONE && left.getAntennaId() == right.getAntennaId();
+    }
+}
@@ -0,0 +1,112 @@
+package org.acme.sat.solver.move;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.move.CompositeMove;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.factory.MoveIteratorFactory;
+
+/**
+ * Shifts a chain of contacts of a satellite to later passes: a random contact request and the next ones of the
+ * same satellite, by contact start, each move to their next later candidate visibility. This frees the pass
+ * of the first contact in one move, where single changes would have to go through conflicting plans.
+ * Random selection only.
+ */
+public class ShiftChainMoveIteratorFactory implements MoveIteratorFactory<ContactPlan, Move<ContactPlan>> {
+
+    private static final Comparator<ContactRequest> CONTACT_START_ORDER =
+            Comparator.comparingLong(ContactRequest::getContactStart).thenComparing(ContactRequest::getId);
+
+    private int maxChainLength = 3;
+    private VisibilityTimelines timelines;
+    private List<ContactRequest> movableRequests;
+    // By id of the satellite in the NameDictionary of the plan
+    private List<List<ContactRequest>> movableRequestsBySatellite;
+
+    // Custom property: number of contacts shifted at most, at least 2
+    public void setMaxChainLength(int maxChainLength) {
+        this.maxChainLength = maxChainLength;
+    }
+
+    @Override
+    public void phaseStarted(ScoreDirector<ContactPlan> scoreDirector) {
+        timelines = new VisibilityTimelines();
+        movableRequests = new ArrayList<>();
+        movableRequestsBySatellite = new ArrayList<>();
+        for (ContactRequest cr : scoreDirector.getWorkingSolution().getContactRequests()) {
+            if (!cr.isPinned()) {
+                movableRequests.add(cr);
+                while (movableRequestsBySatellite.size() <= cr.getSatelliteId()) {
+                    movableRequestsBySatellite.add(new ArrayList<>());
+                }
+                movableRequestsBySatellite.get(cr.getSatelliteId()).add(cr);
+            }
+        }
+    }
+
+    @Override
+    public void phaseEnded(ScoreDirector<ContactPlan> scoreDirector) {
+        timelines = null;
+        movableRequests = null;
+        movableRequestsBySatellite = null;
+    }
+
+    @Override
+    public long getSize(ScoreDirector<ContactPlan> scoreDirector) {
+        return (long) movableRequests.size() * (maxChainLength - 1);
+    }
+
+    @Override
+    public Iterator<Move<ContactPlan>> createOriginalMoveIterator(ScoreDirector<ContactPlan> scoreDirector) {
+        throw new UnsupportedOperationException("Shift chain moves only support random selection.");
+    }
+
+    @Override
+    public Iterator<Move<ContactPlan>> createRandomMoveIterator(ScoreDirector<ContactPlan> scoreDirector, Random random) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !movableRequests.isEmpty();
+            }
+
+            @Override
+            public Move<ContactPlan> next() {
+                ContactRequest first = movableRequests.get(random.nextInt(movableRequests.size()));
+                if (first.getVisibility() == null) {
+                    return new VisibilityChangeMove(first, null);
+                }
+                // The order changes with every step, sorting the few contacts of a satellite is cheap enough
+                List<ContactRequest> chain = new ArrayList<>();
+                for (ContactRequest cr : movableRequestsBySatellite.get(first.getSatelliteId())) {
+                    if (cr.getVisibility() != null && CONTACT_START_ORDER.compare(cr, first) >= 0) {
+                        chain.add(cr);
+                    }
+                }
+                chain.sort(CONTACT_START_ORDER);
+                int chainLength = Math.min(chain.size(), 2 + random.nextInt(Math.max(1, maxChainLength - 1)));
+
+                List<VisibilityChangeMove> moves = new ArrayList<>(chainLength);
+                for (ContactRequest cr : chain.subList(0, chainLength)) {
+                    Visibility later = timelines.getNextLater(cr.getCandidateVisibilities(), cr.getVisibility());
+                    if (later == null) {
+                        break;
+                    }
+                    moves.add(new VisibilityChangeMove(cr, later));
+                }
+                if (moves.isEmpty()) {
+                    // Not doable: the first contact is already on its last pass
+                    return new VisibilityChangeMove(first, first.getVisibility());
+                }
+                return CompositeMove.buildMove(moves);
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package org.acme.sat.solver.move;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.selector.common.decorator.SelectionFilter;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
+
+/**
+ * Skips the start offset changes that cannot move the contact: those of an unassigned request, and those beyond the
+ * slack of the assigned visibility, which would only end the contact with the pass like the largest offset within
+ * it. The value range of the start offset is shared by all the candidate visibilities of the request, up to the
+ * largest slack, so on a short pass most of its values are such duplicates. The visibility changes are all kept.
+ */
+public class StartOffsetWithinPassFilter implements SelectionFilter<ContactPlan, ChangeMove<ContactPlan>> {
+
+    @Override
+    public boolean accept(ScoreDirector<ContactPlan> scoreDirector, ChangeMove<ContactPlan> move) {
+        if (!"startOffset".equals(move.getVariableName())) {
+            return true;
+        }
+        ContactRequest cr = (ContactRequest) move.getEntity();
+        return cr.getVisibility() != null
+                && (Integer) move.getToPlanningValue() <= cr.getMaxStartOffset(cr.getVisibility());
+    }
+}
@@ -0,0 +1,85 @@
+package org.acme.sat.solver.move;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.heuristic.move.AbstractMove;
+
+/**
+ * Assigns another visibility to a contact request.
+ */
+public class VisibilityChangeMove extends AbstractMove<ContactPlan> {
+
+    private final ContactRequest contactRequest;
+    private final Visibility toVisibility;
+
+    public VisibilityChangeMove(ContactRequest contactRequest, Visibility toVisibility) {
+        this.contactRequest = contactRequest;
+        this.toVisibility = toVisibility;
+    }
+
+    @Override
+    public boolean isMoveDoable(ScoreDirector<ContactPlan> scoreDirector) {
+        return toVisibility != contactRequest.getVisibility();
+    }
+
+    @Override
+    protected VisibilityChangeMove createUndoMove(ScoreDirector<ContactPlan> scoreDirector) {
+        return new VisibilityChangeMove(contactRequest, contactRequest.getVisibility());
+    }
+
+    @Override
+    protected void doMoveOnGenuineVariables(ScoreDirector<ContactPlan> scoreDirector) {
+        scoreDirector.beforeVariableChanged(contactRequest, "visibility");
+        contactRequest.setVisibility(toVisibility);
+        scoreDirector.afterVariableChanged(contactRequest, "visibility");
+    }
+
+    @Override
+    public VisibilityChangeMove rebase(ScoreDirector<ContactPlan> destinationScoreDirector) {
+        return new VisibilityChangeMove(destinationScoreDirector.lookUpWorkingObject(contactRequest),
+                destinationScoreDirector.lookUpWorkingObject(toVisibility));
+    }
+
+    @Override
+    public String getSimpleMoveTypeDescription() {
+        return "VisibilityChangeMove(ContactRequest.visibility)";
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningEntities() {
+        return Collections.singletonList(contactRequest);
+    }
+
+    @Override
+    public Collection<? extends Object> getPlanningValues() {
+        return Collections.singletonList(toVisibility);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VisibilityChangeMove other = (VisibilityChangeMove) o;
+        return contactRequest == other.contactRequest && toVisibility == other.toVisibility;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(contactRequest), System.identityHashCode(toVisibility));
+    }
+
+    @Override
+    public String toString() {
+        return contactRequest.getId() + " {" + contactRequest.getVisibility() + " -> " + toVisibility + "}";
+    }
+}
@@ -0,0 +1,15 @@
+package org.acme.sat.solver.move;
+
+import org.acme.sat.domain.Visibility;
+import org.optaplanner.core.impl.heuristic.selector.common.nearby.NearbyDistanceMeter;
+
+/**
+ * Distance in milliseconds between the starts of two visibilities.
+ */
+public class VisibilityTimeDistanceMeter implements NearbyDistanceMeter<Visibility, Visibility> {
+
+    @Override
+    public double getNearbyDistance(Visibility origin, Visibility destination) {
+        return Math.abs(destination.getFromMillis() - origin.getFromMillis());
+    }
+}
@@ -0,0 +1,95 @@
+package org.acme.sat.solver.move;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.sat.domain.Visibility;
+
+/**
+ * The candidate visibilities of the contact requests sorted by start, shared by the requests with equal
+ * candidate lists (each request has its own list view). Built for a phase: candidate lists must not change during
+ * the phase.
+ */
+class VisibilityTimelines {
+    private static final VisibilityTimeDistanceMeter DISTANCE_METER = new VisibilityTimeDistanceMeter();
+
+    // By candidate list instance, so that a move does not hash nor compare the whole list
+    private final Map<List<Visibility>, Visibility[]> timelinesByCandidates = new IdentityHashMap<>();
+    // By candidate list content, to share a timeline between the views of equal lists, each hashed once
+    private final Map<List<Visibility>, Visibility[]> sharedTimelines = new HashMap<>();
+
+    Visibility[] getTimeline(List<Visibility> candidates) {
+        Visibility[] timeline = timelinesByCandidates.get(candidates);
+        if (timeline == null) {
+            timeline = sharedTimelines.computeIfAbsent(candidates, c -> {
+                Visibility[] sorted = c.toArray(new Visibility[0]);
+                Arrays.sort(sorted, Comparator.comparingLong(Visibility::getFromMillis));
+                return sorted;
+            });
+            timelinesByCandidates.put(candidates, timeline);
+        }
+        return timeline;
+    }
+
+    /**
+     * @param rank 1 for the nearest candidate in time, 2 for the next one...
+     * @return the candidate of that rank by time distance from the origin, the origin excluded, or null if
+     * there are fewer candidates
+     */
+    Visibility getNearby(List<Visibility> candidates, Visibility origin, int rank) {
+        Visibility[] timeline = getTimeline(candidates);
+        int position = position(timeline, origin);
+        int before = position - 1;
+        int after = position < timeline.length && timeline[position] == origin ? position + 1 : position;
+        Visibility nearby = null;
+        for (int i = 0; i < rank; i++) {
+            if (before < 0 && after >= timeline.length) {
+                return null;
+            }
+            if (after >= timeline.length || (before >= 0 && DISTANCE_METER.getNearbyDistance(origin, timeline[before])
+                    <= DISTANCE_METER.getNearbyDistance(origin, timeline[after]))) {
+                nearby = timeline[before--];
+            } else {
+                nearby = timeline[after++];
+            }
+        }
+        return nearby;
+    }
+
+    /**
+     * @return the first candidate starting after the origin, or null if none
+     */
+    Visibility getNextLater(List<Visibility> candidates, Visibility origin) {
+        Visibility[] timeline = getTimeline(candidates);
+        for (int i = position(timeline, origin); i < timeline.length; i++) {
+            if (timeline[i].getFromMillis() > origin.getFromMillis()) {
+                return timeline[i];
+            }
+        }
+        return null;
+    }
+
+    // Position of the origin in the timeline, or of the first visibility starting after it if it is not in it
+    private static int position(Visibility[] timeline, Visibility origin) {
+        int low = 0;
+        int high = timeline.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeline[mid].getFromMillis() < origin.getFromMillis()) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < timeline.length && timeline[i].getFromMillis() == origin.getFromMillis(); i++) {
+            if (timeline[i] == origin) {
+                return i;
+            }
+        }
+        return low;
+    }
+}
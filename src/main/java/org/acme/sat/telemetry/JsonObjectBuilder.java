@@ -0,0 +1,52 @@
+package org.acme.sat.telemetry;
+
+/**
+ * A JSON object on a single line, for the telemetry timeline.
+ */
+final class JsonObjectBuilder {
+    private final StringBuilder json = new StringBuilder("{");
+
+    JsonObjectBuilder add(String key, String value) {
+        return addRaw(key, value == null ? "null" : quote(value));
+    }
+
+    JsonObjectBuilder add(String key, long value) {
+        return addRaw(key, Long.toString(value));
+    }
+
+    JsonObjectBuilder add(String key, boolean value) {
+        return addRaw(key, Boolean.toString(value));
+    }
+
+    JsonObjectBuilder add(String key, JsonObjectBuilder value) {
+        return addRaw(key, value.toString());
+    }
+
+    private JsonObjectBuilder addRaw(String key, String value) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append(quote(key)).append(':').append(value);
+        return this;
+    }
+
+    private static String quote(String s) {
+        StringBuilder quoted = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    @Override
+    public String toString() {
+        return json + "}";
+    }
+}
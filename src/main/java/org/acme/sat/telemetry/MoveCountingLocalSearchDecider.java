@@ -0,0 +1,26 @@
+package org.acme.sat.telemetry;
+
+import org.acme.sat.domain.ContactPlan;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.impl.localsearch.decider.LocalSearchDecider;
+import org.optaplanner.core.impl.localsearch.scope.LocalSearchMoveScope;
+
+/**
+ * The decider of a single threaded local search phase, reporting each evaluated move and whether the acceptor
+ * accepted it. It reuses the termination, move selector, acceptor and forager of the decider it replaces.
+ */
+class MoveCountingLocalSearchDecider extends LocalSearchDecider<ContactPlan> {
+
+    private final SolverTelemetry telemetry;
+
+    MoveCountingLocalSearchDecider(LocalSearchDecider<ContactPlan> decider, SolverTelemetry telemetry) {
+        super("", decider.getTermination(), decider.getMoveSelector(), decider.getAcceptor(), decider.getForager());
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    protected <Score_ extends Score<Score_>> void doMove(LocalSearchMoveScope<ContactPlan> moveScope) {
+        super.doMove(moveScope);
+        telemetry.moveEvaluated(moveScope.getMove(), Boolean.TRUE.equals(moveScope.getAccepted()));
+    }
+}
@@ -0,0 +1,340 @@
+package org.acme.sat.telemetry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.acme.sat.domain.ContactPlan;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.event.BestSolutionChangedEvent;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.localsearch.DefaultLocalSearchPhase;
+import org.optaplanner.core.impl.localsearch.decider.LocalSearchDecider;
+import org.optaplanner.core.impl.phase.Phase;
+import org.optaplanner.core.impl.phase.event.PhaseLifecycleListenerAdapter;
+import org.optaplanner.core.impl.phase.scope.AbstractPhaseScope;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+import org.optaplanner.core.impl.solver.scope.SolverScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Instruments the solves of a solver: timing, score calculation count and speed of each phase, moves accepted and
+ * rejected per move type by the local search, new best scores and the time to the first feasible one.
+ * <p>
+ * The events are written to a timeline, one JSON object per line, each with its event type and its time since
+ * the start of the solve in millis: solvingStarted, phaseStarted, bestSolution, phaseEnded and solvingEnded.
+ * The lines are flushed at the end of each phase. The progress is also live in the platform MBean server, see
+ * {@link SolverTelemetryMXBean}.
+ * <p>
+ * The moves are counted by replacing the decider of the single threaded local search phases, with move threads
+ * they are not counted. The assertions of the non reproducible environment modes are not kept by the replacement.
+ */
+public class SolverTelemetry implements SolverTelemetryMXBean, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolverTelemetry.class);
+
+    private final ObjectName objectName;
+    // Null without timeline or once a write failed, only used by the solver thread
+    private Writer timeline;
+
+    // By simple move type description, which tells the variables a generic move changes apart
+    private final Map<String, MoveTypeCount> moveCounts = new ConcurrentHashMap<>();
+    // The move counts on start of the current phase, only used by the solver thread
+    private final Map<MoveTypeCount, long[]> phaseStartMoveCounts = new HashMap<>();
+    private int phaseIndex = -1;
+    private long phaseStartScoreCalculationCount;
+
+    private volatile SolverScope<ContactPlan> solverScope;
+    private volatile boolean solving;
+    private volatile long solvingEndedTimeMillisSpent;
+    private volatile String currentPhase = "";
+    private volatile String bestScore = "";
+    private volatile long timeToFirstFeasibleMillis = -1;
+
+    /**
+     * Registers the MBean under the given name, a registration failure is only logged.
+     *
+     * @param timeline where the events are written, can be null
+     */
+    public SolverTelemetry(String name, Writer timeline) {
+        this.timeline = timeline;
+        this.objectName = registerMBean(name);
+    }
+
+    private ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("org.acme.sat:type=SolverTelemetry,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            LOGGER.warn("Unable to register the solver telemetry MBean " + name);
+            LOGGER.warn(e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Instruments the solves of the solver, before they start.
+     */
+    public void attach(Solver<ContactPlan> solver) {
+        DefaultSolver<ContactPlan> defaultSolver = (DefaultSolver<ContactPlan>) solver;
+        defaultSolver.addEventListener(this::bestSolutionChanged);
+        defaultSolver.addPhaseLifecycleListener(new PhaseListener());
+        for (Phase<ContactPlan> phase : defaultSolver.getPhaseList()) {
+            if (phase instanceof DefaultLocalSearchPhase) {
+                DefaultLocalSearchPhase<ContactPlan> localSearchPhase = (DefaultLocalSearchPhase<ContactPlan>) phase;
+                // A multithreaded decider evaluates the moves on the move threads
+                if (localSearchPhase.getDecider().getClass() == LocalSearchDecider.class) {
+                    localSearchPhase.setDecider(new MoveCountingLocalSearchDecider(localSearchPhase.getDecider(), this));
+                }
+            }
+        }
+    }
+
+    void moveEvaluated(Move<ContactPlan> move, boolean accepted) {
+        String type = move.getSimpleMoveTypeDescription();
+        MoveTypeCount count = moveCounts.get(type);
+        if (count == null) {
+            count = new MoveTypeCount(type);
+            moveCounts.put(type, count);
+        }
+        if (accepted) {
+            count.accepted++;
+        } else {
+            count.rejected++;
+        }
+    }
+
+    private void bestSolutionChanged(BestSolutionChangedEvent<ContactPlan> event) {
+        Score<?> score = event.getNewBestScore();
+        bestScore = score.toString();
+        if (timeToFirstFeasibleMillis < 0 && score.isFeasible()) {
+            timeToFirstFeasibleMillis = event.getTimeMillisSpent();
+        }
+        write(new JsonObjectBuilder()
+                .add("event", "bestSolution")
+                .add("timeMillis", event.getTimeMillisSpent())
+                .add("score", bestScore)
+                .add("feasible", score.isFeasible()), false);
+    }
+
+    private class PhaseListener extends PhaseLifecycleListenerAdapter<ContactPlan> {
+
+        @Override
+        public void solvingStarted(SolverScope<ContactPlan> scope) {
+            solverScope = scope;
+            solving = true;
+            phaseIndex = -1;
+            write(new JsonObjectBuilder()
+                    .add("event", "solvingStarted")
+                    .add("timeMillis", scope.calculateTimeMillisSpentUpToNow())
+                    .add("startedAt", Instant.now().toString())
+                    .add("entityCount", scope.getWorkingEntityCount()), false);
+        }
+
+        @Override
+        public void phaseStarted(AbstractPhaseScope<ContactPlan> phaseScope) {
+            phaseIndex++;
+            String phaseType = phaseType(phaseScope);
+            currentPhase = phaseIndex + " " + phaseType;
+            // The phase scope only counts its score calculations once ended, after the listeners
+            phaseStartScoreCalculationCount = getScoreCalculationCount();
+            phaseStartMoveCounts.clear();
+            for (MoveTypeCount count : moveCounts.values()) {
+                phaseStartMoveCounts.put(count, new long[] {count.accepted, count.rejected});
+            }
+            write(new JsonObjectBuilder()
+                    .add("event", "phaseStarted")
+                    .add("timeMillis", phaseScope.calculateSolverTimeMillisSpentUpToNow())
+                    .add("phaseIndex", phaseIndex)
+                    .add("phaseType", phaseType), false);
+        }
+
+        @Override
+        public void phaseEnded(AbstractPhaseScope<ContactPlan> phaseScope) {
+            long phaseMillis = phaseScope.calculatePhaseTimeMillisSpentUpToNow();
+            long scoreCalculationCount = getScoreCalculationCount() - phaseStartScoreCalculationCount;
+            JsonObjectBuilder moves = new JsonObjectBuilder();
+            for (MoveTypeCount count : moveCounts.values()) {
+                long[] start = phaseStartMoveCounts.getOrDefault(count, new long[2]);
+                if (count.accepted > start[0] || count.rejected > start[1]) {
+                    moves.add(count.type, new JsonObjectBuilder()
+                            .add("accepted", count.accepted - start[0])
+                            .add("rejected", count.rejected - start[1]));
+                }
+            }
+            write(new JsonObjectBuilder()
+                    .add("event", "phaseEnded")
+                    .add("timeMillis", phaseScope.calculateSolverTimeMillisSpentUpToNow())
+                    .add("phaseIndex", phaseIndex)
+                    .add("phaseType", phaseType(phaseScope))
+                    .add("phaseMillis", phaseMillis)
+                    .add("stepCount", phaseScope.getNextStepIndex())
+                    .add("scoreCalculationCount", scoreCalculationCount)
+                    .add("scoreCalculationSpeed", perSecond(scoreCalculationCount, phaseMillis))
+                    .add("bestScore", phaseScope.getBestScore().toString())
+                    .add("moves", moves), true);
+            currentPhase = "";
+        }
+
+        @Override
+        public void solvingEnded(SolverScope<ContactPlan> scope) {
+            solvingEndedTimeMillisSpent = scope.calculateTimeMillisSpentUpToNow();
+            solving = false;
+            write(new JsonObjectBuilder()
+                    .add("event", "solvingEnded")
+                    .add("timeMillis", solvingEndedTimeMillisSpent)
+                    .add("scoreCalculationCount", getScoreCalculationCount())
+                    .add("scoreCalculationSpeed", getScoreCalculationSpeed())
+                    .add("bestScore", bestScore)
+                    .add("timeToFirstFeasibleMillis", timeToFirstFeasibleMillis), true);
+        }
+    }
+
+    // The phase scope classes are named after their phase types, such as LocalSearchPhaseScope
+    private static String phaseType(AbstractPhaseScope<ContactPlan> phaseScope) {
+        return phaseScope.getClass().getSimpleName().replace("PhaseScope", "");
+    }
+
+    private void write(JsonObjectBuilder event, boolean flush) {
+        if (timeline == null) {
+            return;
+        }
+        try {
+            timeline.write(event.toString());
+            timeline.write('\n');
+            if (flush) {
+                timeline.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to write the solver timeline, no more events are written");
+            LOGGER.error(e.getMessage());
+            timeline = null;
+        }
+    }
+
+    private static long perSecond(long count, long millis) {
+        return millis == 0 ? 0 : count * 1000 / millis;
+    }
+
+    /**
+     * @return the best score, the time spent, the score calculation speed, the time to the first feasible solution
+     * and the moves accepted and rejected per move type, on one line
+     */
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder("Best score ").append(bestScore)
+                .append(" after ").append(getTimeMillisSpent()).append(" ms, ")
+                .append(getScoreCalculationCount()).append(" score calculations (")
+                .append(getScoreCalculationSpeed()).append("/s), ")
+                .append(timeToFirstFeasibleMillis < 0 ? "never feasible"
+                        : "first feasible after " + timeToFirstFeasibleMillis + " ms");
+        Map<String, Long> rejected = getRejectedMoveCounts();
+        getAcceptedMoveCounts().forEach((type, accepted) -> summary.append(", ").append(type).append(' ')
+                .append(accepted).append(" accepted/").append(rejected.get(type)).append(" rejected"));
+        return summary.toString();
+    }
+
+    @Override
+    public boolean isSolving() {
+        return solving;
+    }
+
+    @Override
+    public String getCurrentPhase() {
+        return currentPhase;
+    }
+
+    @Override
+    public long getTimeMillisSpent() {
+        SolverScope<ContactPlan> scope = solverScope;
+        if (scope == null) {
+            return 0;
+        }
+        return solving ? scope.calculateTimeMillisSpentUpToNow() : solvingEndedTimeMillisSpent;
+    }
+
+    @Override
+    public long getScoreCalculationCount() {
+        SolverScope<ContactPlan> scope = solverScope;
+        return scope == null ? 0 : scope.getScoreCalculationCount();
+    }
+
+    @Override
+    public long getScoreCalculationSpeed() {
+        return perSecond(getScoreCalculationCount(), getTimeMillisSpent());
+    }
+
+    @Override
+    public String getBestScore() {
+        return bestScore;
+    }
+
+    @Override
+    public long getTimeToFirstFeasibleMillis() {
+        return timeToFirstFeasibleMillis;
+    }
+
+    @Override
+    public Map<String, Long> getAcceptedMoveCounts() {
+        return moveCountsByType(count -> count.accepted);
+    }
+
+    @Override
+    public Map<String, Long> getRejectedMoveCounts() {
+        return moveCountsByType(count -> count.rejected);
+    }
+
+    private Map<String, Long> moveCountsByType(ToLongFunction<MoveTypeCount> countFunction) {
+        Map<String, Long> countsByType = new TreeMap<>();
+        for (MoveTypeCount count : moveCounts.values()) {
+            countsByType.put(count.type, countFunction.applyAsLong(count));
+        }
+        return countsByType;
+    }
+
+    /**
+     * Flushes and closes the timeline, and unregisters the MBean.
+     */
+    @Override
+    public void close() {
+        if (timeline != null) {
+            try {
+                timeline.close();
+            } catch (IOException e) {
+                LOGGER.error("Unable to close the solver timeline");
+                LOGGER.error(e.getMessage());
+            }
+            timeline = null;
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.warn("Unable to unregister the solver telemetry MBean " + objectName);
+                LOGGER.warn(e.toString());
+            }
+        }
+    }
+
+    // Only incremented by the solver thread
+    private static class MoveTypeCount {
+        private final String type;
+        private volatile long accepted;
+        private volatile long rejected;
+
+        MoveTypeCount(String type) {
+            this.type = type;
+        }
+    }
+}
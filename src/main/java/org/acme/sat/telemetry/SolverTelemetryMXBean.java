@@ -0,0 +1,42 @@
+package org.acme.sat.telemetry;
+
+import java.util.Map;
+
+/**
+ * The progress of a solve, live through JMX, under org.acme.sat:type=SolverTelemetry.
+ */
+public interface SolverTelemetryMXBean {
+
+    boolean isSolving();
+
+    /**
+     * @return the current phase index and type, empty outside of the phases
+     */
+    String getCurrentPhase();
+
+    long getTimeMillisSpent();
+
+    /**
+     * @return the score calculations of the solve so far, including those of the move and partition threads
+     */
+    long getScoreCalculationCount();
+
+    long getScoreCalculationSpeed();
+
+    String getBestScore();
+
+    /**
+     * @return the time from the start of the solve to the first feasible best solution, -1 if none yet
+     */
+    long getTimeToFirstFeasibleMillis();
+
+    /**
+     * @return per move type, the moves evaluated and accepted by the single threaded local search phases
+     */
+    Map<String, Long> getAcceptedMoveCounts();
+
+    /**
+     * @return per move type, the moves evaluated and rejected by the single threaded local search phases
+     */
+    Map<String, Long> getRejectedMoveCounts();
+}
@@ -0,0 +1,168 @@
+package org.acme.sat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import org.acme.sat.constraints.ContactPlanIncrementalScoreCalculator;
+import org.acme.sat.constraints.EqualJoinerConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.stream.ConstraintStreamImplType;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationCompositionStyle;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+public class SolverProfileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void spentLimitScaledWithinBounds() {
+        SolverProfile profile = SolverProfile.of(properties("termination.spentLimitPerRequestMillis=10",
+                "termination.minSecondsSpentLimit=5", "termination.maxSecondsSpentLimit=60"));
+        assertEquals(Duration.ofSeconds(5), profile.getSpentLimit(100));
+        assertEquals(Duration.ofSeconds(20), profile.getSpentLimit(2000));
+        assertEquals(Duration.ofSeconds(60), profile.getSpentLimit(100_000));
+    }
+
+    @Test
+    public void compositeTermination() {
+        SolverProfile profile = SolverProfile.of(properties("termination.spentLimitPerRequestMillis=10",
+                "termination.unimprovedSecondsSpentLimit=3", "termination.stepCountLimit=500"));
+        SolverConfig solverConfig = profile.buildSolverConfig(2000, HardMediumSoftScore.ofMedium(-4));
+
+        TerminationConfig terminationConfig = solverConfig.getTerminationConfig();
+        assertEquals(TerminationCompositionStyle.OR, terminationConfig.getTerminationCompositionStyle());
+        List<TerminationConfig> terminationConfigs = terminationConfig.getTerminationConfigList();
+        assertEquals(3, terminationConfigs.size());
+        assertEquals(Duration.ofSeconds(20), terminationConfigs.get(0).getSpentLimit());
+        assertEquals("0hard/-4medium/0soft", terminationConfigs.get(1).getBestScoreLimit());
+        TerminationConfig feasibleUnimproved = terminationConfigs.get(2);
+        assertEquals(TerminationCompositionStyle.AND, feasibleUnimproved.getTerminationCompositionStyle());
+        assertTrue(feasibleUnimproved.getTerminationConfigList().get(0).getBestScoreFeasible());
+        assertEquals(Duration.ofSeconds(3), feasibleUnimproved.getTerminationConfigList().get(1).getUnimprovedSpentLimit());
+        // The step count limit, on the local search
+        List<PhaseConfig> phaseConfigs = solverConfig.getPhaseConfigList();
+        PhaseConfig localSearchPhaseConfig = phaseConfigs.get(phaseConfigs.size() - 1);
+        assertTrue(localSearchPhaseConfig instanceof LocalSearchPhaseConfig);
+        assertEquals(500, localSearchPhaseConfig.getTerminationConfig().getStepCountLimit());
+    }
+
+    @Test
+    public void partitionsSolvedForHalfTheSpentLimit() {
+        SolverProfile profile = SolverProfile.of(properties("termination.spentLimitPerRequestMillis=10"));
+        System.setProperty("partitionCount", "2");
+        try {
+            PhaseConfig partitionedPhaseConfig = profile.buildSolverConfig(6000, null).getPhaseConfigList().get(0);
+            assertTrue(partitionedPhaseConfig instanceof PartitionedSearchPhaseConfig);
+            assertEquals(Duration.ofSeconds(30), partitionedPhaseConfig.getTerminationConfig().getSpentLimit());
+        } finally {
+            System.clearProperty("partitionCount");
+        }
+    }
+
+    @Test
+    public void unimprovedWithoutFeasibility() {
+        SolverProfile profile = SolverProfile.of(properties("termination.bestScoreFeasible=false",
+                "termination.unimprovedSecondsSpentLimit=3"));
+        List<TerminationConfig> terminationConfigs = profile.buildTerminationConfig(10, null).getTerminationConfigList();
+        assertEquals(2, terminationConfigs.size());
+        assertEquals(Duration.ofSeconds(10), terminationConfigs.get(0).getSpentLimit());
+        assertEquals(Duration.ofSeconds(3), terminationConfigs.get(1).getUnimprovedSpentLimit());
+    }
+
+    @Test
+    public void bundledProfiles() throws IOException {
+        assertEquals(Duration.ofSeconds(10), SolverProfile.load("default").getSpentLimit(2000));
+        assertEquals(Duration.ofSeconds(2), SolverProfile.load("quick").getSpentLimit(2000));
+        assertSame(ContactPlanIncrementalScoreCalculator.class, SolverProfile.load("thorough")
+                .buildSolverConfig(2000, null).getScoreDirectorFactoryConfig().getIncrementalScoreCalculatorClass());
+        SolverConfig bavetConfig = SolverProfile.load("bavet").buildSolverConfig(2000, null);
+        assertEquals(ConstraintStreamImplType.BAVET,
+                bavetConfig.getScoreDirectorFactoryConfig().getConstraintStreamImplType());
+        assertSame(EqualJoinerConstraintProvider.class,
+                bavetConfig.getScoreDirectorFactoryConfig().getConstraintProviderClass());
+        assertThrows(IllegalArgumentException.class, () -> SolverProfile.load("missing"));
+    }
+
+    @Test
+    public void propertiesFileWithSolverXml() throws IOException {
+        Files.writeString(directory.resolve("solver.xml"), "<solver xmlns=\"https://www.optaplanner.org/xsd/solver\">"
+                + "<localSearch><localSearchType>TABU_SEARCH</localSearchType></localSearch></solver>");
+        Path profileFile = directory.resolve("custom.properties");
+        Files.writeString(profileFile, "solverConfig=solver.xml\ntermination.minSecondsSpentLimit=1\n"
+                + "termination.maxSecondsSpentLimit=2\nconstraintStreamImplType=bavet\n");
+
+        SolverConfig solverConfig = SolverProfile.load(profileFile.toString()).buildSolverConfig(2000, null);
+        // The phases of the XML file, completed by the profile and the defaults
+        assertEquals(1, solverConfig.getPhaseConfigList().size());
+        assertEquals(ContactPlan.class, solverConfig.getSolutionClass());
+        assertEquals(ConstraintStreamImplType.BAVET,
+                solverConfig.getScoreDirectorFactoryConfig().getConstraintStreamImplType());
+        assertEquals(Duration.ofSeconds(2), solverConfig.getTerminationConfig().getTerminationConfigList().get(0)
+                .getSpentLimit());
+    }
+
+    @Test
+    public void solverXmlTerminationKept() throws IOException {
+        Path solverXml = directory.resolve("solver.xml");
+        Files.writeString(solverXml, "<solver xmlns=\"https://www.optaplanner.org/xsd/solver\">"
+                + "<termination><secondsSpentLimit>7</secondsSpentLimit></termination></solver>");
+        SolverConfig solverConfig = SolverProfile.load(solverXml.toString()).buildSolverConfig(2000, null);
+        assertEquals(7L, solverConfig.getTerminationConfig().getSecondsSpentLimit());
+        assertNull(solverConfig.getTerminationConfig().getTerminationConfigList());
+        assertThrows(IOException.class, () -> SolverProfile.load(directory.resolve("missing.xml").toString()));
+    }
+
+    @Test
+    public void invalidProperties() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SolverProfile.of(properties("termination.stepCountLimit=many")));
+        assertThrows(IllegalArgumentException.class, () -> SolverProfile.of(properties(
+                "termination.minSecondsSpentLimit=20", "termination.maxSecondsSpentLimit=10")));
+        assertThrows(IllegalArgumentException.class, () -> SolverProfile.of(properties("scoreCalculator=easy")));
+    }
+
+    @Test
+    public void endsOnceUnimproved() {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(200).withRequestCount(null)
+                .withOversubscription(1.2).generate();
+        // Not the bound: the conflicts between satellites and antennas keep the best plan from it
+        SolverProfile profile = SolverProfile.of(properties("termination.minSecondsSpentLimit=60",
+                "termination.unimprovedSecondsSpentLimit=1"));
+        SolverConfig solverConfig = profile.buildSolverConfig(problem.getContactRequests().size(),
+                FeasibilityAnalysis.analyze(problem).getBestScoreBound());
+        long start = System.nanoTime();
+        ContactPlan solved = SolverFactory.<ContactPlan>create(solverConfig).buildSolver().solve(problem);
+        assertTrue(solved.getScore().isFeasible());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+    }
+
+    private static Properties properties(String... lines) {
+        Properties properties = new Properties();
+        for (String line : lines) {
+            String[] keyValue = line.split("=", 2);
+            properties.setProperty(keyValue[0], keyValue[1]);
+        }
+        return properties;
+    }
+}
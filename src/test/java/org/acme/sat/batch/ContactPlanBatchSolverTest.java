@@ -0,0 +1,88 @@
+package org.acme.sat.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.acme.sat.solver.FeasibilityAnalysis;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+public class ContactPlanBatchSolverTest {
+
+    @Test
+    public void eachPlanEndsAtItsBound() {
+        List<ContactPlan> problems = new ArrayList<>();
+        List<CompletableFuture<ContactPlan>> plans = new ArrayList<>();
+        long start = System.nanoTime();
+        // Without the bounds, each plan would be solved for a minute
+        try (ContactPlanBatchSolver batchSolver = new ContactPlanBatchSolver(ContactPlanApp.buildSolverConfig()
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofMinutes(1))), 2)) {
+            for (int i = 0; i < 3; i++) {
+                ContactPlan problem = new ScenarioGenerator().withSeed(i).withOversubscription(0.5).generate();
+                problems.add(problem);
+                plans.add(batchSolver.submit("team" + i, problem, Duration.ofMinutes(1)));
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals(FeasibilityAnalysis.analyze(problems.get(i)).getBestScoreBound(),
+                        plans.get(i).join().getScore());
+            }
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 30);
+    }
+
+    @Test
+    public void eachPlanEndsAtItsSpentLimit() {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(2000).withRequestCount(null)
+                .withOversubscription(1.3).generate();
+        try (ContactPlanBatchSolver batchSolver = new ContactPlanBatchSolver(ContactPlanApp.buildSolverConfig()
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofMinutes(1))), 1)) {
+            long start = System.nanoTime();
+            ContactPlan plan = batchSolver.submit("team", problem, Duration.ofSeconds(2)).join();
+            assertTrue(plan.getScore().isSolutionInitialized());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 20);
+        }
+    }
+
+    @Test
+    public void closeDropsTheSpentLimitsToCome() throws InterruptedException {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(2000).withRequestCount(null)
+                .withOversubscription(1.3).generate();
+        long start = System.nanoTime();
+        try (ContactPlanBatchSolver batchSolver = new ContactPlanBatchSolver(ContactPlanApp.buildSolverConfig()
+                .withTerminationConfig(new TerminationConfig().withSpentLimit(Duration.ofMinutes(1))), 1)) {
+            batchSolver.submit("team", problem, Duration.ofMinutes(1));
+            Thread.sleep(2000);
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 30);
+    }
+
+    @Test
+    public void plansWrittenNextToTheirInputs(@TempDir Path input) throws Exception {
+        List<Path> problemDirectories = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Path directory = Files.createDirectory(input.resolve("team" + i));
+            ScenarioGenerator.write(new ScenarioGenerator().withSeed(i).generate(),
+                    directory.resolve(ContactPlanBatchApp.VISIBILITIES_FILE),
+                    directory.resolve(ContactPlanBatchApp.CONTACT_REQUESTS_FILE));
+            problemDirectories.add(directory);
+        }
+        assertEquals(2, ContactPlanBatchApp.solve(problemDirectories, ContactPlanApp.buildSolverConfig(), 2,
+                Duration.ofSeconds(2)));
+        for (Path directory : problemDirectories) {
+            // Each request of the problem is planned
+            assertEquals(Files.readAllLines(directory.resolve(ContactPlanBatchApp.CONTACT_REQUESTS_FILE)).size(),
+                    Files.readAllLines(directory.resolve(ContactPlanBatchApp.PLAN_FILE)).size());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.acme.sat.constraints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+import org.optaplanner.core.api.score.stream.Joiners;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares the score calculation speed of the joiner based conflict constraints with the former
+ * unfiltered unique pair version. The speed measurement is slow, so it is only enabled with -Dscaling=true:
+ * <pre>
+ * mvn test -Dtest=ConstraintScalingTest -Dscaling=true
+ * </pre>
+ * The former version is O(n²) per score calculation, so it is only run up to -Dscaling.legacyMaxSize
+ * requests (10000 by default).
+ */
+public class ConstraintScalingTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConstraintScalingTest.class);
+    private static final int[] SIZES = {1_000, 10_000, 50_000};
+    private static final long MEASURE_MILLIS = 5_000;
+
+    @Test
+    @EnabledIfSystemProperty(named = "scaling", matches = "true")
+    public void scoreCalculationSpeed() {
+        int legacyMaxSize = Integer.getInteger("scaling.legacyMaxSize", 10_000);
+        for (int size : SIZES) {
+            ContactPlan plan = generatePlan(size, new Random(size));
+            Measurement measurement = measure(ContactPlanConstraintProvider.class, plan);
+            if (size <= legacyMaxSize) {
+                Measurement legacyMeasurement = measure(UnfilteredPairConstraintProvider.class, plan);
+                LOGGER.info("{} requests: {}, unfiltered pairs {} (x{})", size, measurement, legacyMeasurement,
+                        String.format("%.1f", measurement.speed / legacyMeasurement.speed));
+            } else {
+                LOGGER.info("{} requests: {}, unfiltered pairs skipped", size, measurement);
+            }
+        }
+    }
+
+    @Test
+    public void sameScoreAsUnfilteredPairs() {
+        ContactPlan plan = generatePlan(1_000, new Random(0));
+        assertEquals(calculateScore(UnfilteredPairConstraintProvider.class, plan),
+                calculateScore(ContactPlanConstraintProvider.class, plan));
+    }
+
+    private static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(
+            Class<? extends ConstraintProvider> constraintProviderClass) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(constraintProviderClass));
+        return ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector();
+    }
+
+    private static Score<?> calculateScore(Class<? extends ConstraintProvider> constraintProviderClass, ContactPlan plan) {
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(constraintProviderClass)) {
+            scoreDirector.setWorkingSolution(plan);
+            return scoreDirector.calculateScore();
+        }
+    }
+
+    // Incremental score calculations per second, and bytes allocated per calculation, while randomly reassigning
+    // visibilities
+    private static Measurement measure(Class<? extends ConstraintProvider> constraintProviderClass, ContactPlan plan) {
+        Random random = new Random(0);
+        List<ContactRequest> contactRequests = plan.getContactRequests();
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(constraintProviderClass)) {
+            scoreDirector.setWorkingSolution(plan);
+            scoreDirector.calculateScore();
+            long count = 0;
+            long startBytes = allocatedBytes();
+            long start = System.nanoTime();
+            long end = start + MEASURE_MILLIS * 1_000_000L;
+            long now;
+            do {
+                ContactRequest cr = contactRequests.get(random.nextInt(contactRequests.size()));
+                List<Visibility> candidates = cr.getCandidateVisibilities();
+                scoreDirector.beforeVariableChanged(cr, "visibility");
+                cr.setVisibility(candidates.get(random.nextInt(candidates.size())));
+                scoreDirector.afterVariableChanged(cr, "visibility");
+                scoreDirector.triggerVariableListeners();
+                scoreDirector.calculateScore();
+                count++;
+                now = System.nanoTime();
+            } while (now < end);
+            return new Measurement(count * 1_000_000_000.0 / (now - start), (allocatedBytes() - startBytes) / count);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static class Measurement {
+        private final double speed;
+        private final long bytesPerCalculation;
+
+        private Measurement(double speed, long bytesPerCalculation) {
+            this.speed = speed;
+            this.bytesPerCalculation = bytesPerCalculation;
+        }
+
+        @Override
+        public String toString() {
+            return Math.round(speed) + " calc/s, " + bytesPerCalculation + " B/calc";
+        }
+    }
+
+    static ContactPlan generatePlan(int size, Random random) {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(size).withSeed(random.nextLong()).generate();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            List<Visibility> candidates = cr.getCandidateVisibilities();
+            cr.setVisibility(candidates.get(random.nextInt(candidates.size())));
+            cr.setStartOffset(cr.getStartOffsetRange().createRandomIterator(random).next());
+        }
+        return plan;
+    }
+
+    /**
+     * The conflict constraints as they were before being joined on satellite/antenna and period overlap.
+     */
+    public static class UnfilteredPairConstraintProvider implements ConstraintProvider {
+        @Override
+        public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+            ContactPlanConstraintProvider provider = new ContactPlanConstraintProvider();
+            return new Constraint[] {
+                    provider.visibilityConflict(constraintFactory),
+                    provider.visibilityTooShort(constraintFactory),
+                    provider.visibilityForOtherSat(constraintFactory),
+                    satConflict(constraintFactory),
+                    antennaConflict(constraintFactory)
+            };
+        }
+
+        Constraint satConflict(ConstraintFactory constraintFactory) {
+            return constraintFactory
+                    .fromUniquePair(ContactRequest.class, Joiners.equal(ContactRequest::getSatellite))
+                    .filter((cr1, cr2) -> cr1.getVisibility() != null && cr2.getVisibility() != null
+                            && cr1.getVisibility() != cr2.getVisibility()
+                            && ContactPlanConstraintProvider.overlappingContacts(cr1, cr2))
+                    .penalize("Satellite conflict", HardMediumSoftScore.ONE_HARD);
+        }
+
+        Constraint antennaConflict(ConstraintFactory constraintFactory) {
+            return constraintFactory
+                    .fromUniquePair(ContactRequest.class)
+                    .filter((cr1, cr2) -> cr1.getVisibility() != null && cr2.getVisibility() != null
+                            && cr1.getVisibility() != cr2.getVisibility()
+                            && cr1.getVisibility().getAntenna().equals(cr2.getVisibility().getAntenna())
+                            && ContactPlanConstraintProvider.overlappingContacts(cr1, cr2))
+                    .penalize("Antenna conflict", HardMediumSoftScore.ONE_HARD);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.acme.sat.constraints;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import org.acme.sat.domain.ContactPlan;
 import org.acme.sat.domain.ContactRequest;
@@ -31,6 +34,23 @@ public class ConstraintsTest {
         constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr3).penalizesBy(0);
     }
 
+    @Test
+    public void unassignedRequest(){
+        Instant now = Instant.now();
+        Visibility visibility= new Visibility("sat1","ls1",now,now.plusSeconds(10));
+        ContactRequest cr1 = new ContactRequest("sat1",Duration.of(6, ChronoUnit.SECONDS));
+        cr1.setPriority(3);
+        ContactRequest cr2 = new ContactRequest("sat1",Duration.of(6, ChronoUnit.SECONDS));
+        ContactRequest cr3 = new ContactRequest("sat1",Duration.of(6, ChronoUnit.SECONDS));
+        cr3.setVisibility(visibility);
+        intern(List.of(visibility), cr1, cr2, cr3);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::unassignedRequest).given(cr1,cr2,cr3).penalizesBy(4);
+        // Unassigned requests conflict with none
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr2,cr3).penalizesBy(0);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2,cr3).penalizesBy(0);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2,cr3).penalizesBy(0);
+    }
+
     @Test
     public void visibilityTooShort(){
         Instant now = Instant.now();
@@ -51,10 +71,12 @@ public class ConstraintsTest {
         Visibility visibility= new Visibility("sat1","ls1",now,now.plusSeconds(10));
         ContactRequest cr1 = new ContactRequest("sat2",Duration.of(5, ChronoUnit.SECONDS));
         cr1.setVisibility(visibility);               
+        intern(List.of(visibility), cr1);
         constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityForOtherSat).given(cr1).penalizesBy(1);
         
         ContactRequest cr2 = new ContactRequest("sat1",Duration.of(5, ChronoUnit.SECONDS));
         cr2.setVisibility(visibility);
+        intern(List.of(visibility), cr1, cr2);
         constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityForOtherSat).given(cr2).penalizesBy(0);        
     }
 
@@ -70,8 +92,10 @@ public class ConstraintsTest {
         v2   /////
         v3          ////// 
         */
-        ContactRequest cr1 = new ContactRequest("sat1",Duration.of(1, ChronoUnit.SECONDS));
-        ContactRequest cr2 = new ContactRequest("sat1",Duration.of(1, ChronoUnit.SECONDS));
+        // The contacts, not the whole passes, conflict
+        ContactRequest cr1 = new ContactRequest("sat1",Duration.of(3, ChronoUnit.SECONDS));
+        ContactRequest cr2 = new ContactRequest("sat1",Duration.of(3, ChronoUnit.SECONDS));
+        intern(List.of(v1, v2, v3), cr1, cr2);
         
         cr1.setVisibility(v1);
         cr2.setVisibility(v2);      
@@ -83,16 +107,21 @@ public class ConstraintsTest {
 
         cr1.setVisibility(v1);
         cr2.setVisibility(v3);
-        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(0);
 
         cr1.setVisibility(v3);
         cr2.setVisibility(v1);
-        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(0);
 
         cr1.setVisibility(v2);
         cr2.setVisibility(v3);
         constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(0);
 
+        // Left to the visibility conflict in the same visibility
+        cr1.setVisibility(v1);
+        cr2.setVisibility(v1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(0);
+
         // Must not penalize if sats !=
         cr1.setSatellite(cr2.getSatellite()+"dif");
         cr1.setVisibility(v1);
@@ -114,6 +143,7 @@ public class ConstraintsTest {
         */
         ContactRequest cr1 = new ContactRequest("sat1",Duration.of(3, ChronoUnit.SECONDS));
         ContactRequest cr2 = new ContactRequest("sat1",Duration.of(3, ChronoUnit.SECONDS));
+        intern(List.of(v1, v2, v3), cr1, cr2);
         
         cr1.setVisibility(v1);
         cr2.setVisibility(v2);      
@@ -142,5 +172,56 @@ public class ConstraintsTest {
         constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2).penalizesBy(0);
     }
 
-}
+    @Test
+    public void startOffsetsShareAVisibility(){
+        Instant now = Instant.now();
+        Visibility visibility = new Visibility("sat1","ls1",now,now.plusSeconds(120));
+        ContactRequest cr1 = new ContactRequest("sat1",Duration.of(50, ChronoUnit.SECONDS));
+        cr1.setVisibility(visibility);
+        ContactRequest cr2 = new ContactRequest("sat1",Duration.of(50, ChronoUnit.SECONDS));
+        cr2.setVisibility(visibility);
+        intern(List.of(visibility), cr1, cr2);
+        // Both at the start of the pass
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr2).penalizesBy(1);
+
+        // 30 s later, still overlapping
+        cr2.setStartOffset(1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr2).penalizesBy(1);
 
+        // 60 s later, one after the other: neither a satellite nor an antenna conflict
+        cr2.setStartOffset(2);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr2).penalizesBy(0);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::satConflict).given(cr1,cr2).penalizesBy(0);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2).penalizesBy(0);
+
+        // Beyond the slack, the contact ends with the pass
+        cr2.setStartOffset(3);
+        assertEquals(now.plusSeconds(70).toEpochMilli(), cr2.getContactStart());
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::visibilityConflict).given(cr1,cr2).penalizesBy(0);
+    }
+
+    @Test
+    public void startOffsetMovesTheContactOnTheAntenna(){
+        Instant now = Instant.now();
+        Visibility v1 = new Visibility("sat1","ls1",now,now.plusSeconds(120));
+        Visibility v2 = new Visibility("sat2","ls1",now,now.plusSeconds(120));
+        ContactRequest cr1 = new ContactRequest("sat1",Duration.of(30, ChronoUnit.SECONDS));
+        cr1.setVisibility(v1);
+        ContactRequest cr2 = new ContactRequest("sat2",Duration.of(30, ChronoUnit.SECONDS));
+        cr2.setVisibility(v2);
+        intern(List.of(v1, v2), cr1, cr2);
+        // Starting together
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2).penalizesBy(1);
+
+        cr2.setStartOffset(1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2).penalizesBy(0);
+
+        cr1.setStartOffset(1);
+        constraintVerifier.verifyThat(ContactPlanConstraintProvider::antennaConflict).given(cr1,cr2).penalizesBy(1);
+    }
+
+    // The satellites and antennas are compared by their ids, as interned by the plan of the objects
+    private static void intern(List<Visibility> visibilities, ContactRequest... contactRequests) {
+        new ContactPlan(visibilities, List.of(contactRequests));
+    }
+}
@@ -0,0 +1,148 @@
+package org.acme.sat.constraints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreExplanation;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+public class ContactPlanIncrementalScoreCalculatorTest {
+
+    private static final ScoreDirectorFactoryConfig CONSTRAINT_STREAMS = new ScoreDirectorFactoryConfig()
+            .withConstraintProviderClass(ContactPlanConstraintProvider.class);
+    private static final ScoreDirectorFactoryConfig INCREMENTAL = new ScoreDirectorFactoryConfig()
+            .withIncrementalScoreCalculatorClass(ContactPlanIncrementalScoreCalculator.class);
+
+    @Test
+    public void sameScoreAsConstraintStreamsAfterEachChange() {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(300).generate();
+        List<Visibility> visibilities = plan.getVisibilities();
+        Random random = new Random(0);
+        for (ContactRequest cr : plan.getContactRequests()) {
+            cr.setPriority(1 + random.nextInt(3));
+        }
+        try (InnerScoreDirector<ContactPlan, ?> expected = buildScoreDirector(CONSTRAINT_STREAMS);
+                InnerScoreDirector<ContactPlan, ?> actual = buildScoreDirector(INCREMENTAL)) {
+            List<InnerScoreDirector<ContactPlan, ?>> scoreDirectors = List.of(expected, actual);
+            expected.setWorkingSolution(plan);
+            actual.setWorkingSolution(plan);
+            for (int i = 0; i < 3000; i++) {
+                ContactRequest cr = plan.getContactRequests().get(random.nextInt(plan.getContactRequests().size()));
+                // Mostly the visibility, sometimes the start offset
+                boolean visibilityChange = random.nextInt(3) > 0;
+                String variableName = visibilityChange ? "visibility" : "startOffset";
+                Visibility visibility = randomVisibility(random, cr, visibilities);
+                Integer startOffset = cr.getStartOffsetRange().createRandomIterator(random).next();
+                for (InnerScoreDirector<ContactPlan, ?> scoreDirector : scoreDirectors) {
+                    scoreDirector.beforeVariableChanged(cr, variableName);
+                }
+                if (visibilityChange) {
+                    cr.setVisibility(visibility);
+                } else {
+                    cr.setStartOffset(startOffset);
+                }
+                for (InnerScoreDirector<ContactPlan, ?> scoreDirector : scoreDirectors) {
+                    scoreDirector.afterVariableChanged(cr, variableName);
+                    scoreDirector.triggerVariableListeners();
+                }
+                assertEquals(expected.calculateScore(), actual.calculateScore(), "After change " + i);
+            }
+        }
+    }
+
+    @Test
+    public void sameConstraintMatchesAsConstraintStreams() {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(300).generate();
+        Random random = new Random(1);
+        for (ContactRequest cr : plan.getContactRequests()) {
+            cr.setPriority(1 + random.nextInt(3));
+            cr.setVisibility(randomVisibility(random, cr, plan.getVisibilities()));
+            cr.setStartOffset(cr.getStartOffsetRange().createRandomIterator(random).next());
+        }
+        ScoreExplanation<ContactPlan, HardMediumSoftScore> expected = explain(CONSTRAINT_STREAMS, plan);
+        ScoreExplanation<ContactPlan, HardMediumSoftScore> actual = explain(INCREMENTAL, plan);
+
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(matchCounts(expected), matchCounts(actual));
+        for (ContactRequest cr : plan.getContactRequests()) {
+            assertEquals(expected.getIndictmentMap().containsKey(cr), actual.getIndictmentMap().containsKey(cr));
+            if (expected.getIndictmentMap().containsKey(cr)) {
+                assertEquals(expected.getIndictmentMap().get(cr).getScore(), actual.getIndictmentMap().get(cr).getScore());
+            }
+        }
+    }
+
+    @Test
+    public void fullAssertAgainstConstraintStreams() {
+        LocalSearchPhaseConfig localSearchPhaseConfig = new LocalSearchPhaseConfig();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(200));
+        // Small: each step is asserted from scratch by both score calculations
+        ContactPlan problem = ScenarioGenerator.forRequestCount(40).generate();
+        SolverFactory.<ContactPlan>create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withIncrementalScoreCalculatorClass(ContactPlanIncrementalScoreCalculator.class)
+                        .withAssertionScoreDirectorFactory(CONSTRAINT_STREAMS))
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withPhases(new ConstructionHeuristicPhaseConfig(), localSearchPhaseConfig))
+                .buildSolver().solve(problem);
+    }
+
+    // Mostly candidates, sometimes another satellite's visibility or none
+    private static Visibility randomVisibility(Random random, ContactRequest cr, List<Visibility> visibilities) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return null;
+        }
+        if (kind == 1) {
+            return visibilities.get(random.nextInt(visibilities.size()));
+        }
+        List<Visibility> candidates = cr.getCandidateVisibilities();
+        return candidates.get(random.nextInt(candidates.size()));
+    }
+
+    private static Map<String, Integer> matchCounts(ScoreExplanation<ContactPlan, HardMediumSoftScore> explanation) {
+        return explanation.getConstraintMatchTotalMap().values().stream()
+                .filter(total -> total.getConstraintMatchCount() > 0)
+                .collect(Collectors.toMap(ConstraintMatchTotal<HardMediumSoftScore>::getConstraintId,
+                        ConstraintMatchTotal<HardMediumSoftScore>::getConstraintMatchCount));
+    }
+
+    private static ScoreExplanation<ContactPlan, HardMediumSoftScore> explain(ScoreDirectorFactoryConfig scoreDirectorFactoryConfig,
+            ContactPlan plan) {
+        ScoreManager<ContactPlan, HardMediumSoftScore> scoreManager = ScoreManager.create(SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(scoreDirectorFactoryConfig)));
+        return scoreManager.explainScore(plan);
+    }
+
+    private static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(ScoreDirectorFactoryConfig scoreDirectorFactoryConfig) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(scoreDirectorFactoryConfig));
+        return ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector();
+    }
+}
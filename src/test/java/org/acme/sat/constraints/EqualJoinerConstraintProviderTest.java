@@ -0,0 +1,43 @@
+package org.acme.sat.constraints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.stream.ConstraintStreamImplType;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class EqualJoinerConstraintProviderTest {
+
+    @Test
+    public void bavetSameScoreAsDrools() {
+        ContactPlan plan = ConstraintScalingTest.generatePlan(1_000, new Random(0));
+        // Some unassigned requests too
+        for (int i = 0; i < plan.getContactRequests().size(); i += 10) {
+            plan.getContactRequests().get(i).setVisibility(null);
+        }
+        HardMediumSoftScore droolsScore = scoreManager(ContactPlanConstraintProvider.class,
+                ConstraintStreamImplType.DROOLS).updateScore(plan);
+        HardMediumSoftScore bavetScore = scoreManager(EqualJoinerConstraintProvider.class,
+                ConstraintStreamImplType.BAVET).updateScore(plan);
+        assertEquals(droolsScore, bavetScore);
+        assertEquals(-100, bavetScore.getMediumScore());
+    }
+
+    private static ScoreManager<ContactPlan, HardMediumSoftScore> scoreManager(
+            Class<? extends ContactPlanConstraintProvider> constraintProviderClass, ConstraintStreamImplType type) {
+        return ScoreManager.create(SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withConstraintProviderClass(constraintProviderClass)
+                        .withConstraintStreamImplType(type))));
+    }
+}
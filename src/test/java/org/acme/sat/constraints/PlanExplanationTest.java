@@ -0,0 +1,73 @@
+package org.acme.sat.constraints;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreExplanation;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class PlanExplanationTest {
+
+    private final SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+            .withSolutionClass(ContactPlan.class)
+            .withEntityClasses(ContactRequest.class)
+            .withConstraintProviderClass(ContactPlanConstraintProvider.class));
+
+    @Test
+    public void sameRequestsAsTheIndictments() {
+        ContactPlan plan = randomlyAssignedPlan();
+        ScoreManager<ContactPlan, HardMediumSoftScore> scoreManager = ScoreManager.create(solverFactory);
+        ScoreExplanation<ContactPlan, HardMediumSoftScore> expected = scoreManager.explainScore(plan);
+        PlanExplanation explanation = PlanExplanation.explain(solverFactory, plan, Integer.MAX_VALUE);
+
+        assertEquals(expected.getScore(), explanation.getScore());
+        Set<Object> indicted = expected.getIndictmentMap().entrySet().stream()
+                .filter(entry -> entry.getKey() instanceof ContactRequest
+                        && entry.getValue().getScore().getHardScore() < 0)
+                .map(entry -> entry.getKey()).collect(Collectors.toSet());
+        for (ContactRequest cr : plan.getContactRequests()) {
+            assertEquals(indicted.contains(cr), explanation.isHardPenalized(cr), cr.getId());
+            assertEquals(indicted.contains(cr) ? expected.getIndictmentMap().get(cr).getConstraintMatchCount() : 0,
+                    explanation.getHardMatches(cr).size(), cr.getId());
+        }
+    }
+
+    @Test
+    public void matchesKeptForTheMostPenalizedRequests() {
+        ContactPlan plan = randomlyAssignedPlan();
+        PlanExplanation explanation = PlanExplanation.explain(solverFactory, plan, 2);
+        List<ContactRequest> penalized = plan.getContactRequests().stream().filter(explanation::isHardPenalized)
+                .collect(Collectors.toList());
+        List<ContactRequest> kept = penalized.stream().filter(cr -> !explanation.getHardMatches(cr).isEmpty())
+                .collect(Collectors.toList());
+
+        assertTrue(penalized.size() > 10);
+        // 2 per hard constraint at most
+        assertTrue(kept.size() <= 2 * 5 && !kept.isEmpty());
+        assertTrue(explanation.getSummary().contains(penalized.size() + " requests with a negative hard score"));
+    }
+
+    // Infeasible: each request on a random candidate of its satellite
+    private static ContactPlan randomlyAssignedPlan() {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(300).withRequestCount(null).withOversubscription(1.5)
+                .generate();
+        Random random = new Random(0);
+        for (ContactRequest cr : plan.getContactRequests()) {
+            List<?> candidates = cr.getCandidateVisibilities();
+            cr.setVisibility(cr.getCandidateVisibilities().get(random.nextInt(candidates.size())));
+        }
+        return plan;
+    }
+}
@@ -0,0 +1,80 @@
+package org.acme.sat.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class NameDictionaryTest {
+
+    @Test
+    public void namesBackFromTheIds() {
+        Instant now = Instant.parse("2000-01-01T00:00:00Z");
+        Visibility visibility = new Visibility("dictionarySat1", "dictionaryLs1", now, now.plusSeconds(10));
+        ContactRequest cr = new ContactRequest("1", new String("dictionarySat1"), 5_000);
+        assertEquals(NameDictionary.NONE, cr.getSatelliteId());
+        ContactPlan plan = new ContactPlan(List.of(visibility), List.of(cr));
+
+        assertEquals(0, cr.getSatelliteId());
+        assertEquals(visibility.getSatelliteId(), cr.getSatelliteId());
+        assertSame(visibility.getSatelliteKey(), cr.getSatelliteKey());
+        assertSame(visibility.getSatellite(), cr.getSatellite());
+        assertEquals("dictionaryLs1", visibility.getAntenna());
+        assertEquals(NameDictionary.NONE, cr.getAntennaId());
+        assertNull(cr.getAntennaKey());
+        cr.setVisibility(visibility);
+        assertEquals(visibility.getAntennaId(), cr.getAntennaId());
+        assertTrue(visibility.toCSV().contains(",dictionarySat1,dictionaryLs1,"));
+        assertEquals(1, plan.getSatelliteNames().size());
+        assertEquals(1, plan.getAntennaNames().size());
+    }
+
+    @Test
+    public void dictionariesPerPlanSharedByDerivedPlans() {
+        Instant now = Instant.parse("2000-01-01T00:00:00Z");
+        Visibility v1 = new Visibility("sat1", "ls1", now, now.plusSeconds(10));
+        Visibility v2 = new Visibility("sat2", "ls1", now, now.plusSeconds(10));
+        ContactPlan plan = new ContactPlan(List.of(v1, v2), List.of());
+        ContactRequest cr = new ContactRequest("1", "sat2", 5_000);
+        ContactPlan derived = new ContactPlan(List.of(v2), List.of(cr), plan);
+        // Another load starts its ids from 0
+        Visibility other = new Visibility("sat2", "ls2", now, now.plusSeconds(10));
+        ContactPlan otherPlan = new ContactPlan(List.of(other), List.of());
+
+        assertSame(plan.getSatelliteNames(), derived.getSatelliteNames());
+        assertEquals(1, cr.getSatelliteId());
+        assertEquals(v2.getSatelliteId(), cr.getSatelliteId());
+        assertEquals(0, other.getSatelliteId());
+        assertEquals(2, plan.getSatelliteNames().size());
+        assertEquals(1, otherPlan.getSatelliteNames().size());
+        assertEquals(List.of(v2), cr.getCandidateVisibilities());
+    }
+
+    @Test
+    public void denseIdsFromConcurrentInterning() {
+        NameDictionary antennaNames = new NameDictionary();
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<String> names = IntStream.range(0, 1000).mapToObj(i -> "concurrentLs" + i).collect(Collectors.toList());
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (String name : names) {
+                ids.add(antennaNames.intern(name));
+            }
+        });
+
+        assertEquals(1000, ids.size());
+        assertEquals(1000, antennaNames.size());
+        assertTrue(ids.stream().allMatch(id -> id < antennaNames.size()));
+        for (String name : names) {
+            assertEquals(name, antennaNames.nameOf(antennaNames.intern(name)));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.acme.sat.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class VisibilityIndexTest {
+
+    @Test
+    public void candidatesMatchSatAndDuration(){
+        Instant now = Instant.now();
+        Visibility v1 = new Visibility("sat1","ls1",now,now.plusSeconds(10));
+        Visibility v2 = new Visibility("sat1","ls2",now,now.plusSeconds(4));
+        Visibility v3 = new Visibility("sat2","ls1",now,now.plusSeconds(20));
+        Visibility v4 = new Visibility("sat1","ls3",now,now.plusSeconds(6));
+        List<Visibility> visibilities = Arrays.asList(v1, v2, v3, v4);
+        // Interns the satellites of the visibilities
+        new ContactPlan(visibilities, List.of());
+        VisibilityIndex index = new VisibilityIndex(visibilities);
+
+        assertEquals(Arrays.asList(v2, v4, v1), index.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(4)));
+        assertEquals(Arrays.asList(v4, v1), index.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(5)));
+        assertEquals(Arrays.asList(v1), index.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(10)));
+        assertEquals(Arrays.asList(v3), index.getCandidates(v3.getSatelliteId(), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    public void noCandidatesWhenNothingFits(){
+        Instant now = Instant.now();
+        Visibility v1 = new Visibility("sat1","ls1",now,now.plusSeconds(10));
+        Visibility v2 = new Visibility("sat2","ls1",now,now.plusSeconds(4));
+        List<Visibility> visibilities = Arrays.asList(v1, v2);
+        ContactRequest cr = new ContactRequest("sat3",Duration.ofSeconds(1));
+        new ContactPlan(visibilities, List.of(cr));
+        VisibilityIndex index = new VisibilityIndex(visibilities);
+
+        // Too long for any sat1 visibility
+        assertEquals(List.of(), index.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(11)));
+        // Sat without visibility
+        assertEquals(List.of(), index.getCandidates(cr.getSatelliteId(), Duration.ofSeconds(1)));
+        assertEquals(List.of(), cr.getCandidateVisibilities());
+    }
+
+    @Test
+    public void withoutAVisibility(){
+        Instant now = Instant.now();
+        Visibility v1 = new Visibility("sat1","ls1",now,now.plusSeconds(10));
+        Visibility v2 = new Visibility("sat1","ls2",now,now.plusSeconds(6));
+        Visibility v3 = new Visibility("sat2","ls1",now,now.plusSeconds(20));
+        List<Visibility> visibilities = Arrays.asList(v1, v2, v3);
+        new ContactPlan(visibilities, List.of());
+        VisibilityIndex index = new VisibilityIndex(visibilities);
+        List<Visibility> candidates = index.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(5));
+
+        VisibilityIndex withoutV1 = index.without(v1);
+        assertEquals(Arrays.asList(v2), withoutV1.getCandidates(v1.getSatelliteId(), Duration.ofSeconds(5)));
+        assertEquals(List.of(), withoutV1.without(v2).getCandidates(v1.getSatelliteId(), Duration.ofSeconds(5)));
+        assertEquals(Arrays.asList(v3), withoutV1.getCandidates(v3.getSatelliteId(), Duration.ofSeconds(5)));
+        // The candidates of the original index are unchanged
+        assertEquals(Arrays.asList(v2, v1), candidates);
+    }
+
+    @Test
+    public void contactPlanAssignsCandidates(){
+        Instant now = Instant.now();
+        Visibility v1 = new Visibility("sat1","ls1",now,now.plusSeconds(10));
+        Visibility v2 = new Visibility("sat2","ls1",now,now.plusSeconds(4));
+        ContactRequest cr = new ContactRequest("sat2",Duration.ofSeconds(3));
+        new ContactPlan(Arrays.asList(v1, v2), Arrays.asList(cr));
+
+        assertEquals(Arrays.asList(v2), cr.getCandidateVisibilities());
+    }
+}
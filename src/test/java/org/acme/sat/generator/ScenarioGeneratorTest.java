@@ -0,0 +1,80 @@
+package org.acme.sat.generator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ScenarioGeneratorTest {
+
+    @Test
+    public void sameSeedSameProblem(){
+        List<String> first = toCSV(new ScenarioGenerator().withSeed(42).generate());
+        List<String> second = toCSV(new ScenarioGenerator().withSeed(42).generate());
+        List<String> other = toCSV(new ScenarioGenerator().withSeed(43).generate());
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+    }
+
+    @Test
+    public void passesWithinHorizon(){
+        ContactPlan plan = new ScenarioGenerator().withSatelliteCount(3).withAntennaCount(2)
+                .withHorizon(Duration.ofHours(12)).generate();
+        assertFalse(plan.getVisibilities().isEmpty());
+        long start = plan.getVisibilities().stream().mapToLong(Visibility::getFromMillis).min().getAsLong();
+        long end = plan.getVisibilities().stream().mapToLong(Visibility::getToMillis).max().getAsLong();
+        assertTrue(end - start <= Duration.ofHours(12).toMillis());
+    }
+
+    @Test
+    public void requestsAtOversubscriptionRatio(){
+        ContactPlan plan = new ScenarioGenerator().withOversubscription(2).generate();
+        assertEquals(2 * plan.getVisibilities().size(), plan.getContactRequests().size());
+
+        plan = new ScenarioGenerator().withRequestCount(123).generate();
+        assertEquals(123, plan.getContactRequests().size());
+    }
+
+    @Test
+    public void writesCsvReadBackByTheDomain(@TempDir Path dir) throws IOException {
+        ContactPlan plan = new ScenarioGenerator().withSatelliteCount(2).generate();
+        Path visibilitiesCsv = dir.resolve("visibilities.csv");
+        Path contactRequestsCsv = dir.resolve("contact-requests.csv");
+        ScenarioGenerator.write(plan, visibilitiesCsv, contactRequestsCsv);
+
+        List<String> visibilityLines = Files.readAllLines(visibilitiesCsv);
+        assertEquals(plan.getVisibilities().size(), visibilityLines.size());
+        Visibility visibility = plan.getVisibilities().get(0);
+        Visibility readVisibility = new Visibility(visibilityLines.get(0));
+        assertEquals(visibility.getFrom(), readVisibility.getFrom());
+        assertEquals(visibility.getTo(), readVisibility.getTo());
+        assertEquals(visibility.getAntenna(), readVisibility.getAntenna());
+
+        List<String> contactRequestLines = Files.readAllLines(contactRequestsCsv);
+        assertEquals(plan.getContactRequests().size(), contactRequestLines.size());
+        ContactRequest cr = plan.getContactRequests().get(0);
+        ContactRequest readCr = new ContactRequest(contactRequestLines.get(0));
+        assertEquals(cr.getId(), readCr.getId());
+        assertEquals(cr.getDuration(), readCr.getDuration());
+        assertEquals(cr.getSatellite(), readCr.getSatellite());
+    }
+
+    private static List<String> toCSV(ContactPlan plan) {
+        List<String> lines = new ArrayList<>();
+        plan.getVisibilities().forEach(v -> lines.add(v.toCSV()));
+        plan.getContactRequests().forEach(cr -> lines.add(cr.toCSV(false)));
+        return lines;
+    }
+}
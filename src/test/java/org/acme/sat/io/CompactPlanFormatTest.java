@@ -0,0 +1,67 @@
+package org.acme.sat.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CompactPlanFormatTest {
+
+    @Test
+    public void readsTheContactsBack(@TempDir Path dir) throws IOException {
+        ContactPlan plan = PlantUmlWriterTest.assignedPlan();
+        plan.getContactRequests().get(0).setPinned(true);
+        plan.getContactRequests().get(1).setVisibility(null);
+        PlanExplanation explanation = PlantUmlWriterTest.explain(plan);
+        Path file = dir.resolve("contact-plan.bin");
+        CompactPlanFormat.write(plan, explanation, file);
+
+        List<String> read = new ArrayList<>();
+        int count = CompactPlanFormat.read(file, contact -> {
+            ContactRequest cr = plan.getContactRequests().get(read.size());
+            assertEquals(cr.getId(), contact.getId());
+            assertEquals(cr.getSatellite(), contact.getSatellite());
+            assertEquals(cr.getAntenna(), contact.getAntenna());
+            assertEquals(cr.getDurationMillis(), contact.getDurationMillis());
+            if (cr.getVisibility() != null) {
+                assertEquals(cr.getContactStart(), contact.getStartMillis());
+            }
+            assertEquals(cr.isPinned(), contact.isPinned());
+            assertEquals(explanation.isHardPenalized(cr), contact.isHardPenalized());
+            read.add(contact.getId());
+        });
+
+        assertEquals(plan.getContactRequests().size(), count);
+        assertEquals(count, read.size());
+        assertTrue(Files.size(file) < 40L * count);
+    }
+
+    @Test
+    public void unassignedContact(@TempDir Path dir) throws IOException {
+        ContactPlan plan = PlantUmlWriterTest.assignedPlan();
+        plan.getContactRequests().forEach(cr -> cr.setVisibility(null));
+        Path file = dir.resolve("contact-plan.bin");
+        CompactPlanFormat.write(plan, null, file);
+
+        CompactPlanFormat.read(file, contact -> assertNull(contact.getAntenna()));
+    }
+
+    @Test
+    public void rejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("contact-plan.csv"), "1,PT10M,sat1");
+
+        assertThrows(IOException.class, () -> CompactPlanFormat.read(file, contact -> { }));
+    }
+}
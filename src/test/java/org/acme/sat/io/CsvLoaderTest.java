@@ -0,0 +1,178 @@
+package org.acme.sat.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CsvLoaderTest {
+
+    @Test
+    public void loadsValidLines(@TempDir Path dir) throws IOException {
+        Path file = write(dir, "visibilities.csv",
+                "1,sat1,ls1,2000-01-01T00:00:01.00Z,2000-01-01T00:10:00.00Z",
+                "2,sat2,ls2,2000-01-01T01:00:00Z,2000-01-01T01:05:30.5Z");
+        CsvResult<Visibility> result = new CsvLoader().loadVisibilities(file);
+        assertFalse(result.hasErrors());
+        assertEquals(2, result.getRecords().size());
+        Visibility v = result.getRecords().get(1);
+        assertEquals("2", v.getId());
+        assertEquals("sat2", v.getSatellite());
+        assertEquals("ls2", v.getAntenna());
+        assertEquals(Instant.parse("2000-01-01T01:00:00Z"), v.getFrom());
+        assertEquals(Instant.parse("2000-01-01T01:05:30.5Z"), v.getTo());
+
+        file = write(dir, "contact-requests.csv", "a,PT2M54S,sat1", "b,PT6S,sat2");
+        CsvResult<ContactRequest> requests = new CsvLoader().loadContactRequests(file);
+        assertFalse(requests.hasErrors());
+        assertEquals("a", requests.getRecords().get(0).getId());
+        assertEquals(Duration.parse("PT2M54S"), requests.getRecords().get(0).getDuration());
+        assertEquals("sat1", requests.getRecords().get(0).getSatellite());
+    }
+
+    @Test
+    public void reportsBadLines(@TempDir Path dir) throws IOException {
+        Path file = write(dir, "contact-requests.csv",
+                "a,PT1M,sat1",
+                "b,PT1M",
+                "",
+                "c,one minute,sat1",
+                "d,,sat1",
+                "e,PT2M,sat2");
+        CsvResult<ContactRequest> result = new CsvLoader().loadContactRequests(file);
+        assertEquals(List.of("a", "e"), result.getRecords().stream().map(ContactRequest::getId).collect(Collectors.toList()));
+        assertEquals(List.of(2L, 4L, 5L), result.getErrors().stream().map(CsvError::getLineNumber).collect(Collectors.toList()));
+        assertEquals("c,one minute,sat1", result.getErrors().get(1).getLine());
+        assertTrue(result.getErrorReport("contact-requests.csv").contains("line 4: "));
+    }
+
+    @Test
+    public void smallChunksSameResult(@TempDir Path dir) throws IOException {
+        ContactPlan plan = new ScenarioGenerator().withSeed(7).generate();
+        Path visibilitiesCsv = dir.resolve("visibilities.csv");
+        Path contactRequestsCsv = dir.resolve("contact-requests.csv");
+        ScenarioGenerator.write(plan, visibilitiesCsv, contactRequestsCsv);
+        Files.write(visibilitiesCsv, "broken line\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        CsvResult<Visibility> whole = new CsvLoader().loadVisibilities(visibilitiesCsv);
+        CsvResult<Visibility> chunked = new CsvLoader(100).loadVisibilities(visibilitiesCsv);
+        assertEquals(toCSV(whole), toCSV(chunked));
+        assertEquals(plan.getVisibilities().stream().map(Visibility::toCSV).collect(Collectors.toList()), toCSV(chunked));
+        assertEquals(1, chunked.getErrors().size());
+        assertEquals(plan.getVisibilities().size() + 1, chunked.getErrors().get(0).getLineNumber());
+
+        CsvResult<ContactRequest> requests = new CsvLoader(64).loadContactRequests(contactRequestsCsv);
+        assertEquals(plan.getContactRequests().size(), requests.getRecords().size());
+    }
+
+    @Test
+    public void planRoundTrip(@TempDir Path dir) throws IOException {
+        Visibility v1 = new Visibility("v1", "sat1", "ls1", 0, 60_000);
+        Visibility v2 = new Visibility("v2", "sat1", "ls1", 120_000, 180_000);
+        ContactRequest committed = new ContactRequest("a", "sat1", 10_000);
+        committed.setVisibility(v1);
+        committed.setPinned(true);
+        ContactRequest planned = new ContactRequest("b", "sat1", 10_000);
+        planned.setVisibility(v2);
+        ContactRequest unassigned = new ContactRequest("c", "sat1", 10_000);
+        ContactRequest urgent = new ContactRequest("f", "sat1", 10_000);
+        urgent.setPriority(3);
+        ContactPlan plan = new ContactPlan(List.of(v1, v2), List.of(committed, planned, unassigned, urgent));
+
+        Path file = dir.resolve("plan.csv");
+        PlanCsvWriter.write(plan, file, Long.MIN_VALUE);
+        assertEquals(List.of("a,PT10S,sat1,v1,true", "b,PT10S,sat1,v2,false", "c,PT10S,sat1", "f,PT10S,sat1,-,false,3"),
+                Files.readAllLines(file));
+        PlanCsvWriter.write(plan, file, 150_000);
+        assertEquals("b,PT10S,sat1,v2,true", Files.readAllLines(file).get(1));
+
+        Files.write(file, List.of("a,PT10S,sat1,v1,true", "b,PT10S,sat1,v2", "c,PT10S,sat1", "d,PT10S,sat1,v3,false",
+                "e,PT10S,sat1,v1,yes", "f,PT10S,sat1,-,false,3", "g,PT10S,sat1,v1,false,0", "h,PT10S,sat1,-,true"));
+        CsvResult<ContactRequest> result = new CsvLoader().loadContactRequests(file, List.of(v1, v2));
+        List<ContactRequest> contactRequests = result.getRecords();
+        assertEquals(4, contactRequests.size());
+        assertSame(v1, contactRequests.get(0).getVisibility());
+        assertTrue(contactRequests.get(0).isPinned());
+        assertSame(v2, contactRequests.get(1).getVisibility());
+        assertFalse(contactRequests.get(1).isPinned());
+        assertNull(contactRequests.get(2).getVisibility());
+        assertEquals(1, contactRequests.get(2).getPriority());
+        assertNull(contactRequests.get(3).getVisibility());
+        assertEquals(3, contactRequests.get(3).getPriority());
+        assertEquals(List.of(4L, 5L, 7L, 8L), result.getErrors().stream().map(CsvError::getLineNumber).collect(Collectors.toList()));
+
+        // Without the visibilities the assignments are ignored
+        assertNull(new CsvLoader().loadContactRequests(file).getRecords().get(0).getVisibility());
+    }
+
+    @Test
+    public void startOffsetRoundTrip(@TempDir Path dir) throws IOException {
+        Visibility v1 = new Visibility("v1", "sat1", "ls1", 0, 120_000);
+        ContactRequest first = new ContactRequest("a", "sat1", 50_000);
+        first.setVisibility(v1);
+        ContactRequest second = new ContactRequest("b", "sat1", 50_000);
+        second.setVisibility(v1);
+        second.setStartOffset(2);
+        ContactPlan plan = new ContactPlan(List.of(v1), List.of(first, second));
+
+        Path file = dir.resolve("plan.csv");
+        PlanCsvWriter.write(plan, file, Long.MIN_VALUE);
+        assertEquals(List.of("a,PT50S,sat1,v1,false", "b,PT50S,sat1,v1,false,1,PT1M"), Files.readAllLines(file));
+        List<ContactRequest> contactRequests = new CsvLoader().loadContactRequests(file, List.of(v1)).getRecords();
+        assertEquals(0, contactRequests.get(0).getStartOffset());
+        assertEquals(2, contactRequests.get(1).getStartOffset());
+        assertEquals(60_000, contactRequests.get(1).getContactStart());
+
+        // In whole steps only
+        Files.write(file, List.of("a,PT50S,sat1,v1,false,1,PT45S", "b,PT50S,sat1,v1,false,1,-PT30S"));
+        CsvResult<ContactRequest> result = new CsvLoader().loadContactRequests(file, List.of(v1));
+        assertTrue(result.getRecords().isEmpty());
+        assertEquals(List.of(1L, 2L), result.getErrors().stream().map(CsvError::getLineNumber).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void fieldsParsedAsJavaTime() {
+        for (String instant : List.of("2000-01-01T00:00:01.00Z", "1969-12-31T23:59:59.999Z", "2024-02-29T12:34:56Z",
+                "2000-01-01T00:00:01.123456789Z", "2000-01-01T00:00:01.5000Z")) {
+            assertEquals(Instant.parse(instant).toEpochMilli(), CsvFields.parseEpochMillis(bytes(instant), 0, instant.length()), instant);
+        }
+        for (String duration : List.of("PT6S", "PT2M54S", "PT1H", "PT1H30M", "PT0.5S", "PT1M1.25S", "P1DT1H", "PT-1M")) {
+            assertEquals(Duration.parse(duration).toMillis(),
+                    CsvFields.parseDurationMillis(bytes(duration), 0, duration.length()), duration);
+        }
+        assertThrows(DateTimeParseException.class, () -> CsvFields.parseEpochMillis(bytes("2000-02-30T00:00:00Z"), 0, 20));
+        assertThrows(DateTimeParseException.class, () -> CsvFields.parseDurationMillis(bytes("PTS"), 0, 3));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> toCSV(CsvResult<Visibility> result) {
+        return result.getRecords().stream().map(Visibility::toCSV).collect(Collectors.toList());
+    }
+
+    private static Path write(Path dir, String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), List.of(lines));
+    }
+}
@@ -0,0 +1,116 @@
+package org.acme.sat.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.constraints.PlanExplanation;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class PlantUmlWriterTest {
+
+    private static final Instant T0 = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Test
+    public void writesTheTimingDiagram() throws IOException {
+        Visibility visibility = new Visibility("1", "umlSat1", "umlLs1", T0.plusSeconds(60).toEpochMilli(),
+                T0.plusSeconds(660).toEpochMilli());
+        StringWriter writer = new StringWriter();
+        new PlantUmlWriter(T0, PlantUmlWriter.Split.NONE).writeVisibilities(List.of(visibility), writer);
+
+        String lb = System.lineSeparator();
+        assertEquals(String.join(lb, "@startuml", "concise umlSat1", "@60", "umlSat1 is \"visible @umlLs1\"",
+                "@660", "umlSat1 is {-}", "@enduml"), writer.toString());
+    }
+
+    @Test
+    public void onePlanFilePerAntenna(@TempDir Path dir) throws IOException {
+        ContactPlan plan = assignedPlan();
+        // Not drawn
+        plan.getContactRequests().get(0).setVisibility(null);
+        List<Path> files = new PlantUmlWriter(T0, PlantUmlWriter.Split.ANTENNA).writeContactPlan(
+                plan.getContactRequests(), explain(plan), dir, "contact-plan");
+
+        Set<String> antennas = plan.getContactRequests().stream().skip(1).map(ContactRequest::getAntenna)
+                .collect(Collectors.toSet());
+        assertEquals(antennas.size(), files.size());
+        int contactCount = 0;
+        for (Path file : files) {
+            String antenna = file.getFileName().toString().replaceAll("^contact-plan-|\\.pu$", "");
+            List<String> lines = Files.readAllLines(file);
+            assertEquals("@startuml", lines.get(0));
+            assertEquals("@enduml", lines.get(lines.size() - 1));
+            List<String> contacts = lines.stream().filter(line -> line.contains(" is \"contact"))
+                    .collect(Collectors.toList());
+            assertTrue(contacts.stream().allMatch(line -> line.contains(" @" + antenna + "\"")), antenna);
+            contactCount += contacts.size();
+        }
+        assertEquals(plan.getContactRequests().size() - 1, contactCount);
+    }
+
+    @Test
+    public void contactStartsAtItsOffset() throws IOException {
+        Visibility visibility = new Visibility("1", "umlSat1", "umlLs1", T0.plusSeconds(60).toEpochMilli(),
+                T0.plusSeconds(660).toEpochMilli());
+        ContactRequest cr = new ContactRequest("7", "umlSat1", 100_000);
+        cr.setVisibility(visibility);
+        cr.setStartOffset(3);
+        ContactPlan plan = new ContactPlan(List.of(visibility), List.of(cr));
+        StringWriter writer = new StringWriter();
+        new PlantUmlWriter(T0, PlantUmlWriter.Split.NONE).writeContactPlan(plan.getContactRequests(), explain(plan),
+                writer);
+
+        String lb = System.lineSeparator();
+        assertEquals(String.join(lb, "@startuml", "concise umlSat1", "@150", "umlSat1 is \"contact 7 @umlLs1\" #lightgreen",
+                "@250", "umlSat1 is {-}", "@enduml"), writer.toString());
+    }
+
+    @Test
+    public void onePlanFilePerDay(@TempDir Path dir) throws IOException {
+        ContactPlan plan = assignedPlan();
+        List<Path> files = new PlantUmlWriter(T0, PlantUmlWriter.Split.DAY).writeVisibilities(
+                plan.getVisibilities(), dir, "visibilities");
+
+        assertTrue(files.size() > 1);
+        assertTrue(files.stream().allMatch(file -> file.getFileName().toString()
+                .matches("visibilities-\\d{4}-\\d{2}-\\d{2}\\.pu")));
+        long visibilityCount = 0;
+        for (Path file : files) {
+            visibilityCount += Files.readAllLines(file).stream().filter(line -> line.contains(" is \"visible"))
+                    .count();
+        }
+        assertEquals(plan.getVisibilities().size(), visibilityCount);
+    }
+
+    // Each request on its first candidate
+    static ContactPlan assignedPlan() {
+        ContactPlan plan = ScenarioGenerator.forRequestCount(200).withStart(T0).generate();
+        for (ContactRequest cr : plan.getContactRequests()) {
+            cr.setVisibility(cr.getCandidateVisibilities().get(0));
+        }
+        return plan;
+    }
+
+    static PlanExplanation explain(ContactPlan plan) {
+        return PlanExplanation.explain(SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class)), plan, Integer.MAX_VALUE);
+    }
+}
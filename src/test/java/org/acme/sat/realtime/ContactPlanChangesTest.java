@@ -0,0 +1,172 @@
+package org.acme.sat.realtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.io.CsvError;
+import org.acme.sat.io.CsvResult;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.ProblemFactChange;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+public class ContactPlanChangesTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+    private final Visibility v1 = new Visibility("v1", "sat1", "ls1", now.toEpochMilli(), now.plusSeconds(10).toEpochMilli());
+    private final Visibility v2 = new Visibility("v2", "sat1", "ls2", now.plusSeconds(20).toEpochMilli(), now.plusSeconds(30).toEpochMilli());
+    private final Visibility v3 = new Visibility("v3", "sat2", "ls1", now.toEpochMilli(), now.plusSeconds(10).toEpochMilli());
+
+    @Test
+    public void addContactRequest() {
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan())) {
+            ContactRequest cr = new ContactRequest("cr3", "sat2", 5000);
+            ContactPlanChanges.addContactRequest(cr).doChange(scoreDirector);
+
+            ContactPlan workingPlan = scoreDirector.getWorkingSolution();
+            assertEquals(3, workingPlan.getContactRequests().size());
+            assertSame(cr, workingPlan.getContactRequests().get(2));
+            assertEquals(List.of(v3), cr.getCandidateVisibilities());
+            assertEquals(-1, score(scoreDirector).getMediumScore());
+        }
+    }
+
+    @Test
+    public void removeContactRequest() {
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan())) {
+            assertEquals(HardMediumSoftScore.ofHard(-1), scoreDirector.calculateScore());
+            ContactPlanChanges.removeContactRequest("cr2").doChange(scoreDirector);
+            ContactPlanChanges.removeContactRequest("unknown").doChange(scoreDirector);
+
+            assertEquals(1, scoreDirector.getWorkingSolution().getContactRequests().size());
+            assertEquals(HardMediumSoftScore.ZERO, scoreDirector.calculateScore());
+        }
+    }
+
+    @Test
+    public void retractVisibility() {
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan())) {
+            ContactPlanChanges.retractVisibility("v1").doChange(scoreDirector);
+
+            ContactPlan workingPlan = scoreDirector.getWorkingSolution();
+            assertEquals(List.of(v2, v3), workingPlan.getVisibilities());
+            for (ContactRequest cr : workingPlan.getContactRequests()) {
+                assertNull(cr.getVisibility());
+                assertEquals(List.of(v2), cr.getCandidateVisibilities());
+            }
+            assertEquals(-2, score(scoreDirector).getMediumScore());
+
+            // Added after the retraction, without it among its candidates
+            ContactRequest cr = new ContactRequest("cr3", "sat1", 5000);
+            ContactPlanChanges.addContactRequest(cr).doChange(scoreDirector);
+            assertEquals(List.of(v2), cr.getCandidateVisibilities());
+        }
+    }
+
+    @Test
+    public void parseChangeFile() {
+        CsvResult<ProblemFactChange<ContactPlan>> changes = ChangeFile.parse(Arrays.asList(
+                "add,cr3,PT5S,sat2",
+                "",
+                "remove,cr1",
+                "retract,v1",
+                "retract",
+                "add,cr4",
+                "move,cr1,v2",
+                "add,cr5,PT5S,sat2,-,false,3",
+                "add,cr6,PT5S,sat2,-,false,0",
+                "add,cr7,PT5S,sat2,v3",
+                "add,cr8,5s,sat2"));
+        assertEquals(4, changes.getRecords().size());
+        assertEquals(List.of(5L, 6L, 7L, 9L, 10L, 11L),
+                changes.getErrors().stream().map(CsvError::getLineNumber).collect(Collectors.toList()));
+        assertFalse(changes.getErrorReport("changes.csv").isEmpty());
+
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan())) {
+            changes.getRecords().get(3).doChange(scoreDirector);
+            ContactRequest cr5 = contactRequest(scoreDirector.getWorkingSolution(), "cr5");
+            assertEquals(3, cr5.getPriority());
+            assertEquals(List.of(v3), cr5.getCandidateVisibilities());
+        }
+    }
+
+    @Test
+    public void replanningLatency() throws InterruptedException {
+        // Whether the published plan is feasible, each time a latency is delivered
+        BlockingQueue<Boolean> feasibleOnLatency = new LinkedBlockingQueue<>();
+        AtomicReference<ContactPlan> published = new AtomicReference<>();
+        SolverConfig solverConfig = ContactPlanApp.buildSolverConfig().withTerminationConfig(new TerminationConfig()
+                .withUnimprovedSpentLimit(Duration.ofMillis(200)));
+        try (ContactPlanReplanner replanner = new ContactPlanReplanner(solverConfig, published::set)) {
+            replanner.setLatencyListener(latency -> feasibleOnLatency.add(published.get().getScore().isFeasible()));
+            replanner.setInfeasibleListener(timeSpent -> feasibleOnLatency.add(false));
+            // Both requests on v1, too short for both: replanned once one of them is unassigned
+            replanner.start(plan());
+            assertEquals(true, feasibleOnLatency.poll(30, TimeUnit.SECONDS));
+            assertEquals(1, replanner.getBestPlan().getContactRequests().stream()
+                    .filter(cr -> cr.getVisibility() == null).count());
+
+            // Replanned once the added request is assigned
+            replanner.submit(List.of(ContactPlanChanges.addContactRequest(new ContactRequest("cr3", "sat2", 5000))));
+            assertEquals(true, feasibleOnLatency.poll(30, TimeUnit.SECONDS));
+            assertEquals("v3", contactRequest(replanner.getBestPlan(), "cr3").getVisibility().getId());
+
+            // Without visibility for its satellite, replanned once the best score stops changing
+            replanner.submit(List.of(ContactPlanChanges.addContactRequest(new ContactRequest("cr4", "sat3", 5000))));
+            assertEquals(true, feasibleOnLatency.poll(30, TimeUnit.SECONDS));
+            assertNull(contactRequest(replanner.getBestPlan(), "cr4").getVisibility());
+            assertNull(feasibleOnLatency.poll(500, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    // Both requests of sat1 on v1
+    private ContactPlan plan() {
+        ContactRequest cr1 = new ContactRequest("cr1", "sat1", 5000);
+        ContactRequest cr2 = new ContactRequest("cr2", "sat1", 5000);
+        ContactPlan plan = new ContactPlan(new ArrayList<>(Arrays.asList(v1, v2, v3)), new ArrayList<>(Arrays.asList(cr1, cr2)));
+        cr1.setVisibility(v1);
+        cr2.setVisibility(v1);
+        return plan;
+    }
+
+    private static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(ContactPlan plan) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class));
+        InnerScoreDirector<ContactPlan, ?> scoreDirector =
+                ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(plan);
+        return scoreDirector;
+    }
+
+    private static HardMediumSoftScore score(InnerScoreDirector<ContactPlan, ?> scoreDirector) {
+        return (HardMediumSoftScore) scoreDirector.calculateScore();
+    }
+
+    private static ContactRequest contactRequest(ContactPlan plan, String id) {
+        return plan.getContactRequests().stream().filter(cr -> cr.getId().equals(id)).findFirst().orElseThrow();
+    }
+}
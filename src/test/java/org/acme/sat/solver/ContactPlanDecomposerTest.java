@@ -0,0 +1,101 @@
+package org.acme.sat.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+public class ContactPlanDecomposerTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Test
+    public void componentsWithinRegions() {
+        ContactPlan plan = new ScenarioGenerator().withSatelliteCount(12).withAntennaCount(8).withRegionCount(4)
+                .generate();
+        List<ContactPlan> components = ContactPlanDecomposer.decompose(plan);
+
+        assertTrue(components.size() >= 4);
+        assertEquals(plan.getContactRequests().size(),
+                components.stream().mapToInt(c -> c.getContactRequests().size()).sum());
+        for (ContactPlan component : components) {
+            // The generator puts satN in the region (N - 1) % 4
+            assertEquals(1, component.getContactRequests().stream()
+                    .map(cr -> (Integer.parseInt(cr.getSatellite().substring(3)) - 1) % 4).distinct().count());
+            assertTrue(component.getVisibilities().stream().allMatch(v -> component.getContactRequests().stream()
+                    .anyMatch(cr -> cr.getSatellite().equals(v.getSatellite()))));
+        }
+    }
+
+    @Test
+    public void overlappingPassesOnAnAntennaJoinSatellites() {
+        List<Visibility> visibilities = new ArrayList<>(List.of(visibility("1", "sat1", 0, 20),
+                visibility("2", "sat2", 10, 20),
+                visibility("3", "sat3", 50, 20),
+                // Too short for the sat4 request, its contact would overlap the sat3 pass
+                visibility("4", "sat4", 40, 5)));
+        List<ContactRequest> requests = new ArrayList<>(List.of(new ContactRequest("1", "sat1", 10_000),
+                new ContactRequest("2", "sat2", 10_000), new ContactRequest("3", "sat3", 10_000),
+                new ContactRequest("4", "sat4", 15_000)));
+        List<ContactPlan> components = ContactPlanDecomposer.decompose(new ContactPlan(visibilities, requests));
+
+        assertEquals(List.of(Set.of("sat1", "sat2"), Set.of("sat3", "sat4")), components.stream()
+                .map(c -> c.getContactRequests().stream().map(ContactRequest::getSatellite).collect(Collectors.toSet()))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void unknownSatelliteInAComponentOfItsOwn() {
+        List<Visibility> visibilities = new ArrayList<>(List.of(visibility("1", "sat1", 0, 20),
+                new Visibility("2", "sat2", "ls2", now.toEpochMilli(), now.plusSeconds(20).toEpochMilli())));
+        ContactRequest misspelled = new ContactRequest("3", "sta1", 10_000);
+        List<ContactRequest> requests = new ArrayList<>(List.of(new ContactRequest("1", "sat1", 10_000),
+                new ContactRequest("2", "sat2", 10_000), misspelled));
+        ContactPlan plan = new ContactPlan(visibilities, requests);
+        assertEquals(List.of(), misspelled.getCandidateVisibilities());
+        // Even offered the visibilities of the other satellites
+        misspelled.setCandidateVisibilities(visibilities);
+        List<ContactPlan> components = ContactPlanDecomposer.decompose(plan);
+
+        assertEquals(Set.of(Set.of("sat1"), Set.of("sat2"), Set.of("sta1")), components.stream()
+                .map(c -> c.getContactRequests().stream().map(ContactRequest::getSatellite).collect(Collectors.toSet()))
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void mergedPlanScoredAsAWhole() {
+        ContactPlan problem = new ScenarioGenerator().withSatelliteCount(12).withAntennaCount(8).withRegionCount(4)
+                .withOversubscription(1.1).generate();
+        ContactPlan plan = new ContactPlanDecomposer(ContactPlanApp.buildSolverConfig(), 2)
+                .solve(problem, Duration.ofSeconds(4));
+
+        assertEquals(problem.getContactRequests().stream().map(ContactRequest::getId).collect(Collectors.toList()),
+                plan.getContactRequests().stream().map(ContactRequest::getId).collect(Collectors.toList()));
+        HardMediumSoftScore score = plan.getScore();
+        assertTrue(score.isFeasible());
+        ScoreManager<ContactPlan, HardMediumSoftScore> scoreManager = ScoreManager.create(
+                SolverFactory.create(ContactPlanApp.buildSolverConfig()));
+        assertEquals(score, scoreManager.updateScore(plan));
+    }
+
+    private Visibility visibility(String id, String satellite, long fromSeconds, long durationSeconds) {
+        return new Visibility(id, satellite, "ls1", now.plusSeconds(fromSeconds).toEpochMilli(),
+                now.plusSeconds(fromSeconds + durationSeconds).toEpochMilli());
+    }
+}
@@ -0,0 +1,126 @@
+package org.acme.sat.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+public class ContactPlanPartitionerTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Test
+    public void wholeSatellitesInBalancedParts() {
+        ContactPlan plan = new ScenarioGenerator().withSatelliteCount(12).withAntennaCount(8).generate();
+        ContactRequest pinned = plan.getContactRequests().get(0);
+        pinned.setVisibility(pinned.getCandidateVisibilities().get(0));
+        pinned.setPinned(true);
+        pinned.setPriority(3);
+        List<ContactPlan> parts = split(plan, 4);
+
+        assertEquals(4, parts.size());
+        Map<String, Integer> partsBySatellite = new HashMap<>();
+        for (int i = 0; i < parts.size(); i++) {
+            ContactPlan part = parts.get(i);
+            Set<String> satellites = part.getContactRequests().stream().map(ContactRequest::getSatellite)
+                    .collect(Collectors.toSet());
+            for (String satellite : satellites) {
+                assertNull(partsBySatellite.put(satellite, i), satellite + " in two parts");
+            }
+            assertTrue(part.getVisibilities().stream().allMatch(v -> satellites.contains(v.getSatellite())));
+            assertEquals(plan.getVisibilities().stream().filter(v -> satellites.contains(v.getSatellite())).count(),
+                    part.getVisibilities().size());
+        }
+        assertEquals(plan.getContactRequests().size(),
+                parts.stream().mapToInt(part -> part.getContactRequests().size()).sum());
+
+        // Each part is at most one satellite larger than the smallest one
+        int maxSatelliteRequests = plan.getContactRequests().stream()
+                .collect(Collectors.groupingBy(ContactRequest::getSatellite, Collectors.counting()))
+                .values().stream().mapToInt(Long::intValue).max().orElse(0);
+        int[] partSizes = parts.stream().mapToInt(part -> part.getContactRequests().size()).toArray();
+        int smallest = Integer.MAX_VALUE;
+        int largest = 0;
+        for (int partSize : partSizes) {
+            smallest = Math.min(smallest, partSize);
+            largest = Math.max(largest, partSize);
+        }
+        assertTrue(largest - smallest <= maxSatelliteRequests);
+
+        // Copies with the ids, the assignment and the properties of the originals
+        Map<String, ContactRequest> originals = plan.getContactRequests().stream()
+                .collect(Collectors.toMap(ContactRequest::getId, cr -> cr));
+        for (ContactPlan part : parts) {
+            for (ContactRequest copy : part.getContactRequests()) {
+                ContactRequest original = originals.get(copy.getId());
+                assertNotSame(original, copy);
+                assertSame(original.getVisibility(), copy.getVisibility());
+                assertEquals(original.getStartOffset(), copy.getStartOffset());
+                assertEquals(original.isPinned(), copy.isPinned());
+                assertEquals(original.getPriority(), copy.getPriority());
+                assertEquals(original.getDurationMillis(), copy.getDurationMillis());
+                assertEquals(original.getCandidateVisibilities(), copy.getCandidateVisibilities());
+            }
+        }
+    }
+
+    @Test
+    public void atMostOnePartPerSatellite() {
+        List<Visibility> visibilities = new ArrayList<>(List.of(visibility("1", "sat1", "ls1"),
+                visibility("2", "sat2", "ls1"), visibility("3", "sat3", "ls2")));
+        List<ContactRequest> requests = new ArrayList<>(List.of(new ContactRequest("1", "sat1", 5000),
+                new ContactRequest("2", "sat1", 5000), new ContactRequest("3", "sat2", 5000),
+                new ContactRequest("4", "sat3", 5000)));
+        ContactPlan plan = new ContactPlan(visibilities, requests);
+
+        List<ContactPlan> parts = split(plan, 10);
+        assertEquals(3, parts.size());
+        assertEquals(List.of(2, 1, 1), parts.stream().map(part -> part.getContactRequests().size())
+                .collect(Collectors.toList()));
+
+        ContactPlan singleSatellite = new ContactPlan(new ArrayList<>(visibilities.subList(0, 1)),
+                new ArrayList<>(List.of(new ContactRequest("1", "sat1", 5000), new ContactRequest("2", "sat1", 5000))));
+        parts = split(singleSatellite, 4);
+        assertEquals(1, parts.size());
+        assertEquals(2, parts.get(0).getContactRequests().size());
+        assertEquals(singleSatellite.getVisibilities(), parts.get(0).getVisibilities());
+    }
+
+    private static List<ContactPlan> split(ContactPlan plan, int partCount) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class));
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector =
+                ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector()) {
+            scoreDirector.setWorkingSolution(plan);
+            ContactPlanPartitioner partitioner = new ContactPlanPartitioner();
+            partitioner.setPartCount(partCount);
+            return partitioner.splitWorkingSolution(scoreDirector, null);
+        }
+    }
+
+    private Visibility visibility(String id, String satellite, String antenna) {
+        return new Visibility(id, satellite, antenna, now.toEpochMilli(), now.plusSeconds(20).toEpochMilli());
+    }
+}
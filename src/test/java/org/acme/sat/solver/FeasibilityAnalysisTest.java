@@ -0,0 +1,192 @@
+package org.acme.sat.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.constructionheuristic.ConstructionHeuristicPhaseConfig;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+public class FeasibilityAnalysisTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Test
+    public void augmentsTheGreedyMatching() {
+        // The greedy matching gives the first visibility to the first request
+        int[] matchOfLeft = HopcroftKarp.maximumMatching(new int[][] {{0, 1}, {0}}, 2);
+        assertEquals(1, matchOfLeft[0]);
+        assertEquals(0, matchOfLeft[1]);
+    }
+
+    @Test
+    public void maximumMatchingOfRandomGraphs() {
+        Random random = new Random(0);
+        for (int graph = 0; graph < 200; graph++) {
+            int leftCount = 1 + random.nextInt(30);
+            int rightCount = 1 + random.nextInt(30);
+            int[][] adjacency = new int[leftCount][];
+            for (int left = 0; left < leftCount; left++) {
+                adjacency[left] = random.ints(random.nextInt(4), 0, rightCount).distinct().toArray();
+            }
+            int[] matchOfLeft = HopcroftKarp.maximumMatching(adjacency, rightCount);
+            boolean[] matchedRights = new boolean[rightCount];
+            int size = 0;
+            for (int left = 0; left < leftCount; left++) {
+                int right = matchOfLeft[left];
+                if (right != HopcroftKarp.FREE) {
+                    assertTrue(Arrays.stream(adjacency[left]).anyMatch(r -> r == right));
+                    assertTrue(!matchedRights[right]);
+                    matchedRights[right] = true;
+                    size++;
+                }
+            }
+            assertEquals(kuhnMatchingSize(adjacency, rightCount), size);
+        }
+    }
+
+    @Test
+    public void boundAndUnsatisfiableRequests() {
+        ContactPlan plan = contendedPlan();
+        plan.getContactRequests().add(new ContactRequest("tooLong", "sat1", 30_000));
+        plan.getContactRequests().add(new ContactRequest("unknownSatellite", "sat2", 15_000));
+        plan = new ContactPlan(plan.getVisibilities(), plan.getContactRequests());
+        FeasibilityAnalysis analysis = FeasibilityAnalysis.analyze(plan);
+
+        assertEquals(5, analysis.getRequestCount());
+        assertEquals(2, analysis.getMaximumMatchingSize());
+        assertEquals(HardMediumSoftScore.ofMedium(-3), analysis.getBestScoreBound());
+        assertEquals(List.of("tooLong", "unknownSatellite"), analysis.getUnsatisfiableRequests().stream()
+                .map(ContactRequest::getId).collect(Collectors.toList()));
+        FeasibilityAnalysis.Contention contention = analysis.getContentions().get("sat1");
+        assertEquals(3, contention.getRequestCount());
+        assertEquals(2, contention.getVisibilityCount());
+        assertEquals(2, contention.getSlotCount());
+        assertEquals(1, contention.getUnassignableRequestCount());
+        assertEquals(1, analysis.getContentions().size());
+    }
+
+    @Test
+    public void boundSumsTheLowestPrioritiesLeftOut() {
+        ContactPlan plan = contendedPlan();
+        plan.getContactRequests().get(0).setPriority(5);
+        plan.getContactRequests().get(1).setPriority(2);
+        plan.getContactRequests().get(2).setPriority(3);
+        ContactRequest tooLong = new ContactRequest("tooLong", "sat1", 30_000);
+        tooLong.setPriority(7);
+        plan.getContactRequests().add(tooLong);
+        plan = new ContactPlan(plan.getVisibilities(), plan.getContactRequests());
+
+        // The unsatisfiable request, then the lowest priority of the contended ones
+        assertEquals(HardMediumSoftScore.ofMedium(-9), FeasibilityAnalysis.analyze(plan).getBestScoreBound());
+    }
+
+    @Test
+    public void visibilityHostsAsManyContactsAsTheShortestRequestFits() {
+        ContactPlan plan = contendedPlan();
+        plan.getContactRequests().add(new ContactRequest("short", "sat1", 10_000));
+        plan = new ContactPlan(plan.getVisibilities(), plan.getContactRequests());
+        FeasibilityAnalysis analysis = FeasibilityAnalysis.analyze(plan);
+
+        // Two slots of 10 s per visibility, but the three requests of 15 s fit only one each
+        assertEquals(4, analysis.getMaximumMatchingSize());
+        assertEquals(HardMediumSoftScore.ZERO, analysis.getBestScoreBound());
+        assertTrue(analysis.getContentions().isEmpty());
+
+        plan.getContactRequests().add(new ContactRequest("shortToo", "sat1", 10_000));
+        plan.getContactRequests().add(new ContactRequest("shortAgain", "sat1", 10_000));
+        plan = new ContactPlan(plan.getVisibilities(), plan.getContactRequests());
+        FeasibilityAnalysis.Contention contention = FeasibilityAnalysis.analyze(plan).getContentions().get("sat1");
+        assertEquals(6, contention.getRequestCount());
+        assertEquals(2, contention.getVisibilityCount());
+        assertEquals(4, contention.getSlotCount());
+        assertEquals(2, contention.getUnassignableRequestCount());
+    }
+
+    @Test
+    public void pinnedRequestKeepsItsVisibility() {
+        ContactPlan plan = contendedPlan();
+        ContactRequest pinned = plan.getContactRequests().get(0);
+        // Too short for the request
+        pinned.setVisibility(visibility("short", "sat1", 200, 5));
+        pinned.setPinned(true);
+        assertEquals(List.of(pinned), FeasibilityAnalysis.analyze(plan).getUnsatisfiableRequests());
+        assertEquals(HardMediumSoftScore.ofMedium(-1), FeasibilityAnalysis.analyze(plan).getBestScoreBound());
+    }
+
+    @Test
+    public void solvingEndsOnceTheBoundIsReached() {
+        ContactPlan problem = contendedPlan();
+        HardMediumSoftScore bound = FeasibilityAnalysis.analyze(problem).getBestScoreBound();
+        assertEquals(HardMediumSoftScore.ofMedium(-1), bound);
+
+        long start = System.nanoTime();
+        ContactPlan plan = SolverFactory.<ContactPlan>create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class)
+                .withTerminationConfig(new TerminationConfig()
+                        .withSpentLimit(Duration.ofMinutes(1))
+                        .withBestScoreLimit(bound.toString()))
+                .withPhases(new ConstructionHeuristicPhaseConfig(), new LocalSearchPhaseConfig()))
+                .buildSolver().solve(problem);
+        assertEquals(bound, plan.getScore());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 30);
+    }
+
+    // Three requests for two visibilities of the same satellite, each too short for two of them
+    private ContactPlan contendedPlan() {
+        List<Visibility> visibilities = new ArrayList<>(List.of(visibility("early", "sat1", 0, 20),
+                visibility("late", "sat1", 100, 20)));
+        List<ContactRequest> requests = new ArrayList<>(List.of(new ContactRequest("1", "sat1", 15_000),
+                new ContactRequest("2", "sat1", 15_000), new ContactRequest("3", "sat1", 15_000)));
+        return new ContactPlan(visibilities, requests);
+    }
+
+    private Visibility visibility(String id, String satellite, long fromSeconds, long durationSeconds) {
+        return new Visibility(id, satellite, "ls1", now.plusSeconds(fromSeconds).toEpochMilli(),
+                now.plusSeconds(fromSeconds + durationSeconds).toEpochMilli());
+    }
+
+    // Augmenting paths one at a time, from each left vertex
+    private static int kuhnMatchingSize(int[][] adjacency, int rightCount) {
+        int[] matchOfRight = new int[rightCount];
+        Arrays.fill(matchOfRight, -1);
+        int size = 0;
+        for (int left = 0; left < adjacency.length; left++) {
+            if (kuhnAugment(left, adjacency, matchOfRight, new boolean[rightCount])) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static boolean kuhnAugment(int left, int[][] adjacency, int[] matchOfRight, boolean[] visited) {
+        for (int right : adjacency[left]) {
+            if (!visited[right]) {
+                visited[right] = true;
+                if (matchOfRight[right] < 0 || kuhnAugment(matchOfRight[right], adjacency, matchOfRight, visited)) {
+                    matchOfRight[right] = left;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+package org.acme.sat.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.phase.custom.CustomPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+
+public class GreedyConstructionPhaseCommandTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+
+    @Test
+    public void occupancyTimeline() {
+        OccupancyTimeline timeline = new OccupancyTimeline();
+        timeline.occupy(10, 20);
+        timeline.occupy(30, 40);
+        assertTrue(timeline.isFree(0, 10));
+        assertTrue(timeline.isFree(20, 30));
+        assertFalse(timeline.isFree(15, 16));
+        assertFalse(timeline.isFree(25, 35));
+        assertFalse(timeline.isFree(0, 50));
+        // Merged with both neighbours
+        timeline.occupy(18, 32);
+        assertFalse(timeline.isFree(20, 30));
+        assertTrue(timeline.isFree(40, 50));
+    }
+
+    @Test
+    public void scarcestFirstInEarliestFreePass() {
+        Visibility early = visibility("early", "sat1", "ls1", 0);
+        Visibility late = visibility("late", "sat1", "ls2", 100);
+        ContactRequest flexible = new ContactRequest("flexible", "sat1", 15_000);
+        ContactRequest scarce = new ContactRequest("scarce", "sat1", 15_000);
+        ContactPlan problem = new ContactPlan(new ArrayList<>(Arrays.asList(early, late)),
+                new ArrayList<>(Arrays.asList(flexible, scarce)));
+        // Only the early pass lasts long enough for the scarce request
+        scarce.setCandidateVisibilities(List.of(early));
+        ContactPlan plan = construct(problem);
+
+        assertEquals("early", visibilityId(plan, "scarce"));
+        assertEquals("late", visibilityId(plan, "flexible"));
+        assertEquals(HardMediumSoftScore.ZERO, plan.getScore());
+    }
+
+    @Test
+    public void completesAroundAssignedRequests() {
+        Visibility early = visibility("early", "sat1", "ls1", 0);
+        Visibility late = visibility("late", "sat1", "ls1", 100);
+        ContactRequest pinned = new ContactRequest("pinned", "sat1", 15_000);
+        pinned.setVisibility(early);
+        pinned.setPinned(true);
+        ContactRequest added = new ContactRequest("added", "sat1", 15_000);
+        ContactPlan plan = construct(new ContactPlan(new ArrayList<>(Arrays.asList(early, late)),
+                new ArrayList<>(Arrays.asList(pinned, added))));
+
+        assertEquals("early", visibilityId(plan, "pinned"));
+        assertEquals("late", visibilityId(plan, "added"));
+    }
+
+    @Test
+    public void leavesUnassignedRatherThanInConflict() {
+        Visibility early = visibility("early", "sat1", "ls1", 0);
+        Visibility tooShort = new Visibility("tooShort", "sat1", "ls1", now.plusSeconds(100).toEpochMilli(),
+                now.plusSeconds(105).toEpochMilli());
+        ContactRequest first = new ContactRequest("first", "sat1", 15_000);
+        ContactRequest second = new ContactRequest("second", "sat1", 15_000);
+        ContactPlan problem = new ContactPlan(new ArrayList<>(Arrays.asList(early, tooShort)),
+                new ArrayList<>(Arrays.asList(first, second)));
+        second.setCandidateVisibilities(List.of(early, tooShort));
+        ContactPlan plan = construct(problem);
+
+        assertEquals("early", visibilityId(plan, "first"));
+        assertNull(plan.getContactRequests().get(1).getVisibility());
+        assertEquals(HardMediumSoftScore.ofMedium(-1), plan.getScore());
+    }
+
+    @Test
+    public void shortRequestsShareALongPass() {
+        Visibility pass = new Visibility("pass", "sat1", "ls1", now.toEpochMilli(), now.plusSeconds(120).toEpochMilli());
+        ContactRequest first = new ContactRequest("first", "sat1", 50_000);
+        ContactRequest second = new ContactRequest("second", "sat1", 50_000);
+        ContactRequest third = new ContactRequest("third", "sat1", 50_000);
+        ContactPlan plan = construct(new ContactPlan(new ArrayList<>(List.of(pass)),
+                new ArrayList<>(Arrays.asList(first, second, third))));
+
+        // The second starts at the first free step after the first contact, the third does not fit
+        assertEquals(0, plan.getContactRequests().get(0).getStartOffset());
+        assertEquals(2, plan.getContactRequests().get(1).getStartOffset());
+        assertEquals(now.plusSeconds(60).toEpochMilli(), plan.getContactRequests().get(1).getContactStart());
+        assertNull(plan.getContactRequests().get(2).getVisibility());
+        assertEquals(HardMediumSoftScore.ofMedium(-1), plan.getScore());
+    }
+
+    @Test
+    public void overlappingPassesShareTheSatellite() {
+        Visibility ls1 = new Visibility("ls1", "sat1", "ls1", now.toEpochMilli(), now.plusSeconds(120).toEpochMilli());
+        Visibility ls2 = new Visibility("ls2", "sat1", "ls2", now.toEpochMilli(), now.plusSeconds(120).toEpochMilli());
+        ContactRequest first = new ContactRequest("first", "sat1", 50_000);
+        ContactRequest second = new ContactRequest("second", "sat1", 50_000);
+        ContactPlan plan = construct(new ContactPlan(new ArrayList<>(List.of(ls1, ls2)),
+                new ArrayList<>(Arrays.asList(first, second))));
+
+        // Both served, the second after the contact of the first on the satellite, not after its whole pass
+        assertEquals(0, plan.getContactRequests().get(0).getStartOffset());
+        assertEquals(2, plan.getContactRequests().get(1).getStartOffset());
+        assertEquals(HardMediumSoftScore.ZERO, plan.getScore());
+    }
+
+    @Test
+    public void feasibleGeneratedPlan() {
+        ContactPlan plan = construct(ScenarioGenerator.forRequestCount(500).generate());
+        assertTrue(plan.getScore().isFeasible());
+        assertEquals(-plan.getContactRequests().stream().filter(cr -> cr.getVisibility() == null).count(),
+                plan.getScore().getMediumScore());
+    }
+
+    private static ContactPlan construct(ContactPlan problem) {
+        return SolverFactory.<ContactPlan>create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class)
+                .withPhases(new CustomPhaseConfig()
+                        .withCustomPhaseCommandClassList(List.of(GreedyConstructionPhaseCommand.class))))
+                .buildSolver().solve(problem);
+    }
+
+    private static String visibilityId(ContactPlan plan, String contactRequestId) {
+        return plan.getContactRequests().stream().filter(cr -> cr.getId().equals(contactRequestId))
+                .findFirst().orElseThrow().getVisibility().getId();
+    }
+
+    private Visibility visibility(String id, String satellite, String antenna, long fromSeconds) {
+        return new Visibility(id, satellite, antenna, now.plusSeconds(fromSeconds).toEpochMilli(),
+                now.plusSeconds(fromSeconds + 20).toEpochMilli());
+    }
+}
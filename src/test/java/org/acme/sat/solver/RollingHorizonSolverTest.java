@@ -0,0 +1,71 @@
+package org.acme.sat.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.ScoreManager;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+
+public class RollingHorizonSolverTest {
+
+    @Test
+    public void windowsCoverTheHorizon() {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(400).withHorizon(Duration.ofDays(4))
+                .withRequestCount(null).withOversubscription(0.5).generate();
+        RollingHorizonSolver rollingHorizonSolver = new RollingHorizonSolver(ContactPlanApp.buildSolverConfig(),
+                Duration.ofHours(24), Duration.ofHours(12));
+        ContactPlan solved = rollingHorizonSolver.solve(problem, Duration.ofSeconds(5));
+
+        List<RollingHorizonSolver.Step> steps = rollingHorizonSolver.getSteps();
+        assertTrue(steps.size() >= 6, steps.size() + " steps");
+        assertTrue(steps.stream().allMatch(step -> step.getVisibilityCount() < problem.getVisibilities().size()));
+        for (int i = 1; i < steps.size(); i++) {
+            assertEquals(Duration.ofHours(12),
+                    Duration.between(steps.get(i - 1).getWindowStart(), steps.get(i).getWindowStart()));
+        }
+        assertEquals(problem.getContactRequests().size(), solved.getContactRequests().size());
+        assertEquals(problem.getContactRequests().size(),
+                steps.stream().mapToInt(RollingHorizonSolver.Step::getCommittedCount).sum());
+        // The score of the merged plan, frozen contacts never conflicting with later ones
+        ScoreManager<ContactPlan, HardMediumSoftScore> scoreManager = ScoreManager.create(
+                SolverFactory.create(ContactPlanApp.buildSolverConfig()));
+        HardMediumSoftScore score = solved.getScore();
+        assertEquals(score, scoreManager.updateScore(solved));
+        assertEquals(HardMediumSoftScore.ZERO, score);
+    }
+
+    @Test
+    public void pinnedContactsKept() {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(200).withHorizon(Duration.ofDays(2))
+                .withRequestCount(null).withOversubscription(0.5).generate();
+        ContactRequest pinned = problem.getContactRequests().get(0);
+        List<?> candidates = pinned.getCandidateVisibilities();
+        pinned.setVisibility(pinned.getCandidateVisibilities().get(candidates.size() - 1));
+        pinned.setPinned(true);
+        ContactPlan solved = new RollingHorizonSolver(ContactPlanApp.buildSolverConfig(), Duration.ofHours(12),
+                Duration.ofHours(6)).solve(problem, Duration.ofSeconds(5));
+
+        ContactRequest solvedPinned = solved.getContactRequests().get(0);
+        assertEquals(pinned.getId(), solvedPinned.getId());
+        assertSame(pinned.getVisibility(), solvedPinned.getVisibility());
+        assertTrue(solvedPinned.isPinned());
+        assertTrue(solved.getContactRequests().stream().skip(1).noneMatch(ContactRequest::isPinned));
+    }
+
+    @Test
+    public void stepWithinTheLookahead() {
+        assertThrows(IllegalArgumentException.class, () -> new RollingHorizonSolver(
+                ContactPlanApp.buildSolverConfig(), Duration.ofHours(24), Duration.ofHours(36)));
+    }
+}
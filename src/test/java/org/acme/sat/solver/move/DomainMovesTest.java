@@ -0,0 +1,184 @@
+package org.acme.sat.solver.move;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.constraints.ContactPlanConstraintProvider;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.domain.ContactRequest;
+import org.acme.sat.domain.Visibility;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.Score;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.phase.PhaseConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaplanner.core.impl.domain.entity.descriptor.EntityDescriptor;
+import org.optaplanner.core.impl.domain.variable.descriptor.GenuineVariableDescriptor;
+import org.optaplanner.core.impl.heuristic.move.Move;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.ChangeMove;
+import org.optaplanner.core.impl.heuristic.selector.move.generic.SwapMove;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+public class DomainMovesTest {
+
+    private final Instant now = Instant.parse("2000-01-01T00:00:00Z");
+    private final Visibility v1 = visibility("v1", "ls1", 0);
+    private final Visibility v2 = visibility("v2", "ls2", 100);
+    private final Visibility v3 = visibility("v3", "ls1", 130);
+    private final Visibility v4 = visibility("v4", "ls2", 300);
+    // Not sorted by start
+    private final List<Visibility> candidates = List.of(v4, v2, v1, v3);
+
+    @Test
+    public void nearbyByTimeDistance() {
+        VisibilityTimelines timelines = new VisibilityTimelines();
+        assertSame(v3, timelines.getNearby(candidates, v2, 1));
+        assertSame(v1, timelines.getNearby(candidates, v2, 2));
+        assertSame(v4, timelines.getNearby(candidates, v2, 3));
+        assertNull(timelines.getNearby(candidates, v2, 4));
+        assertSame(v2, timelines.getNearby(candidates, v1, 1));
+    }
+
+    @Test
+    public void nextLater() {
+        VisibilityTimelines timelines = new VisibilityTimelines();
+        assertSame(v2, timelines.getNextLater(candidates, v1));
+        assertSame(v4, timelines.getNextLater(candidates, v3));
+        assertNull(timelines.getNextLater(candidates, v4));
+    }
+
+    @Test
+    public void sameSatelliteOrAntennaSwap() {
+        SameSatelliteOrAntennaSwapFilter filter = new SameSatelliteOrAntennaSwapFilter();
+        ContactRequest cr1 = assigned("cr1", "sat1", v1);
+        ContactRequest cr2 = assigned("cr2", "sat1", v2);
+        ContactRequest cr3 = assigned("cr3", "sat2", visibility("v5", "ls1", 500));
+        ContactRequest cr4 = assigned("cr4", "sat2", visibility("v6", "ls3", 500));
+        // Interns the names
+        new ContactPlan(List.of(v1, v2, cr3.getVisibility(), cr4.getVisibility()), List.of(cr1, cr2, cr3, cr4));
+        assertTrue(filter.accept(null, swap(cr1, cr2)));
+        assertTrue(filter.accept(null, swap(cr1, cr3)));
+        assertFalse(filter.accept(null, swap(cr1, cr4)));
+    }
+
+    @Test
+    public void startOffsetWithinPass() {
+        StartOffsetWithinPassFilter filter = new StartOffsetWithinPassFilter();
+        // 10 s of slack in the 20 s passes: offset 1 ends the contact with the pass, as all the larger ones
+        ContactRequest cr1 = assigned("cr1", "sat1", v1);
+        ContactRequest cr2 = assigned("cr2", "sat1", null);
+        ContactPlan plan = new ContactPlan(new ArrayList<>(candidates), new ArrayList<>(Arrays.asList(cr1, cr2)));
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan)) {
+            EntityDescriptor<ContactPlan> entityDescriptor =
+                    scoreDirector.getSolutionDescriptor().findEntityDescriptorOrFail(ContactRequest.class);
+            GenuineVariableDescriptor<ContactPlan> startOffset =
+                    entityDescriptor.getGenuineVariableDescriptor("startOffset");
+            assertTrue(filter.accept(scoreDirector, new ChangeMove<>(cr1, startOffset, 1)));
+            assertFalse(filter.accept(scoreDirector, new ChangeMove<>(cr1, startOffset, 2)));
+            assertFalse(filter.accept(scoreDirector, new ChangeMove<>(cr2, startOffset, 0)));
+            assertTrue(filter.accept(scoreDirector,
+                    new ChangeMove<>(cr2, entityDescriptor.getGenuineVariableDescriptor("visibility"), v2)));
+        }
+    }
+
+    @Test
+    public void changeMoveUndo() {
+        ContactRequest cr1 = assigned("cr1", "sat1", v1);
+        ContactRequest cr2 = assigned("cr2", "sat1", v1);
+        cr1.setCandidateVisibilities(candidates);
+        cr2.setCandidateVisibilities(candidates);
+        ContactPlan plan = new ContactPlan(new ArrayList<>(candidates), new ArrayList<>(Arrays.asList(cr1, cr2)));
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan)) {
+            Score<?> before = scoreDirector.calculateScore();
+            VisibilityChangeMove move = new VisibilityChangeMove(cr2, v2);
+            assertTrue(move.isMoveDoable(scoreDirector));
+            Move<ContactPlan> undo = move.doMove(scoreDirector);
+            assertSame(v2, cr2.getVisibility());
+            assertEquals(HardMediumSoftScore.ZERO, scoreDirector.calculateScore());
+            assertFalse(new VisibilityChangeMove(cr2, v2).isMoveDoable(scoreDirector));
+            undo.doMove(scoreDirector);
+            assertSame(v1, cr2.getVisibility());
+            assertEquals(before, scoreDirector.calculateScore());
+        }
+    }
+
+    @Test
+    public void nearbyChangeSkipsRequestsWithoutCandidate() {
+        ContactRequest cr1 = new ContactRequest("cr1", "sat1", 10_000);
+        ContactRequest cr2 = new ContactRequest("cr2", "sat1", 10_000);
+        ContactPlan plan = new ContactPlan(new ArrayList<>(candidates), new ArrayList<>(Arrays.asList(cr1, cr2)));
+        // Such as once all the visibilities of the plan are retracted
+        cr2.setCandidateVisibilities(List.of());
+        NearbyVisibilityChangeMoveIteratorFactory factory = new NearbyVisibilityChangeMoveIteratorFactory();
+        try (InnerScoreDirector<ContactPlan, ?> scoreDirector = buildScoreDirector(plan)) {
+            factory.phaseStarted(scoreDirector);
+            Iterator<VisibilityChangeMove> moves = factory.createRandomMoveIterator(scoreDirector, new Random(0));
+            for (int i = 0; i < 20; i++) {
+                assertTrue(moves.hasNext());
+                assertEquals(List.of(cr1), moves.next().getPlanningEntities());
+            }
+        }
+    }
+
+    @Test
+    public void domainMovesOnMoveThreads() {
+        ContactPlan problem = ScenarioGenerator.forRequestCount(60).withSeed(0).generate();
+        List<PhaseConfig> phaseConfigs = new ArrayList<>(ContactPlanApp.buildConstructionPhases());
+        LocalSearchPhaseConfig localSearchPhaseConfig = ContactPlanApp.buildDomainLocalSearchPhase();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(200));
+        phaseConfigs.add(localSearchPhaseConfig);
+        // The moves are rebased to the working solution of each move thread, and their scores asserted
+        SolverConfig solverConfig = ContactPlanApp.buildSolverConfig()
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withMoveThreadCount("2")
+                .withPhases(phaseConfigs.toArray(new PhaseConfig[0]))
+                .withTerminationConfig(new TerminationConfig());
+        ContactPlan plan = SolverFactory.<ContactPlan>create(solverConfig).buildSolver().solve(problem);
+
+        assertEquals(problem.getContactRequests().size(), plan.getContactRequests().size());
+        assertTrue(plan.getScore().isFeasible());
+    }
+
+    private Visibility visibility(String id, String antenna, long fromSeconds) {
+        return new Visibility(id, "sat1", antenna, now.plusSeconds(fromSeconds).toEpochMilli(),
+                now.plusSeconds(fromSeconds + 20).toEpochMilli());
+    }
+
+    private static ContactRequest assigned(String id, String satellite, Visibility visibility) {
+        ContactRequest cr = new ContactRequest(id, satellite, 10_000);
+        cr.setVisibility(visibility);
+        return cr;
+    }
+
+    private static SwapMove<ContactPlan> swap(ContactRequest left, ContactRequest right) {
+        return new SwapMove<>(List.of(), left, right);
+    }
+
+    private static InnerScoreDirector<ContactPlan, ?> buildScoreDirector(ContactPlan plan) {
+        SolverFactory<ContactPlan> solverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(ContactPlan.class)
+                .withEntityClasses(ContactRequest.class)
+                .withConstraintProviderClass(ContactPlanConstraintProvider.class));
+        InnerScoreDirector<ContactPlan, ?> scoreDirector =
+                ((DefaultSolverFactory<ContactPlan>) solverFactory).getScoreDirectorFactory().buildScoreDirector();
+        scoreDirector.setWorkingSolution(plan);
+        return scoreDirector;
+    }
+}
@@ -0,0 +1,94 @@
+package org.acme.sat.telemetry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.management.ObjectName;
+
+import org.acme.sat.ContactPlanApp;
+import org.acme.sat.domain.ContactPlan;
+import org.acme.sat.generator.ScenarioGenerator;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+public class SolverTelemetryTest {
+
+    @Test
+    public void timelineAndMBean() throws Exception {
+        LocalSearchPhaseConfig localSearchPhaseConfig = ContactPlanApp.buildDomainLocalSearchPhase();
+        localSearchPhaseConfig.setTerminationConfig(new TerminationConfig().withStepCountLimit(100));
+        SolverConfig solverConfig = new SolverConfig(ContactPlanApp.buildSolverConfig())
+                .withTerminationConfig(new TerminationConfig())
+                .withPhases(ContactPlanApp.buildConstructionPhases().get(0), localSearchPhaseConfig);
+        Solver<ContactPlan> solver = SolverFactory.<ContactPlan>create(solverConfig).buildSolver();
+        StringWriter timeline = new StringWriter();
+        ObjectName objectName = new ObjectName("org.acme.sat:type=SolverTelemetry,name=\"test\"");
+        ContactPlan solution;
+        try (SolverTelemetry telemetry = new SolverTelemetry("test", timeline)) {
+            telemetry.attach(solver);
+            solution = solver.solve(ScenarioGenerator.forRequestCount(200).generate());
+
+            assertFalse(telemetry.isSolving());
+            assertEquals(solution.getScore().toString(), telemetry.getBestScore());
+            assertTrue(telemetry.getScoreCalculationCount() > 0);
+            assertEquals(telemetry.getBestScore(),
+                    ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "BestScore"));
+            // One accepted move per step
+            assertEquals(100, telemetry.getAcceptedMoveCounts().values().stream().mapToLong(Long::longValue).sum());
+            assertTrue(telemetry.getAcceptedMoveCounts().keySet().containsAll(telemetry.getRejectedMoveCounts().keySet()));
+            if (solution.getScore().isFeasible()) {
+                assertTrue(telemetry.getTimeToFirstFeasibleMillis() >= 0);
+            }
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+        List<String> lines = timeline.toString().lines().collect(Collectors.toList());
+        assertTrue(lines.get(0).startsWith("{\"event\":\"solvingStarted\""));
+        assertTrue(lines.get(lines.size() - 1).startsWith("{\"event\":\"solvingEnded\""));
+        List<String> phaseEnded = lines.stream().filter(line -> line.startsWith("{\"event\":\"phaseEnded\""))
+                .collect(Collectors.toList());
+        assertEquals(2, phaseEnded.size());
+        assertTrue(phaseEnded.get(0).contains("\"phaseType\":\"Custom\""));
+        assertTrue(phaseEnded.get(1).contains("\"phaseType\":\"LocalSearch\""));
+        assertTrue(phaseEnded.get(1).contains("\"stepCount\":100"));
+        assertTrue(phaseEnded.get(1).contains("\"accepted\":"));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("{\"event\":\"bestSolution\"")));
+    }
+
+    @Test
+    public void phaseIndexRestartsWithEachSolve() {
+        SolverConfig solverConfig = new SolverConfig(ContactPlanApp.buildSolverConfig())
+                .withTerminationConfig(new TerminationConfig())
+                .withPhases(ContactPlanApp.buildConstructionPhases().get(0));
+        Solver<ContactPlan> solver = SolverFactory.<ContactPlan>create(solverConfig).buildSolver();
+        StringWriter timeline = new StringWriter();
+        try (SolverTelemetry telemetry = new SolverTelemetry("restart", timeline)) {
+            telemetry.attach(solver);
+            solver.solve(ScenarioGenerator.forRequestCount(50).generate());
+            solver.solve(ScenarioGenerator.forRequestCount(50).generate());
+        }
+        List<String> phaseStarted = timeline.toString().lines()
+                .filter(line -> line.startsWith("{\"event\":\"phaseStarted\""))
+                .collect(Collectors.toList());
+        assertEquals(2, phaseStarted.size());
+        assertTrue(phaseStarted.get(0).contains("\"phaseIndex\":0"));
+        assertTrue(phaseStarted.get(1).contains("\"phaseIndex\":0"));
+    }
+
+    @Test
+    public void jsonEscaping() {
+        assertEquals("{\"event\":\"a \\\"b\\\" \\\\ \\u000a\",\"count\":1,\"nested\":{\"feasible\":true}}",
+                new JsonObjectBuilder().add("event", "a \"b\" \\ \n").add("count", 1)
+                        .add("nested", new JsonObjectBuilder().add("feasible", true)).toString());
+    }
+}